@@ -0,0 +1,73 @@
+package com.tubestudy.tracker.benchmark;
+
+import com.tubestudy.tracker.entity.DistractionKeyword;
+import com.tubestudy.tracker.service.DistractionMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 딴짓 분석(TrackerService.analyzeDistraction)의 핫 패스인 DistractionMatcher.find를 키워드 수별로 측정합니다.
+ * 매처는 사용자별로 캐시되므로 컴파일 비용은 제외하고 제목 검사만 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistractionMatcherBenchmark {
+
+	private static final String[] TITLES = {
+			"Spring Boot JPA 강의 12편 - 영속성 컨텍스트",
+			"[알고리즘] 다익스트라 최단 경로 완벽 정리",
+			"React 상태 관리 입문: useState와 useReducer",
+			"주말 브이로그 | 카페 투어와 게임 한 판",
+			"Minecraft gameplay 100 days hardcore",
+			"자료구조 - 힙과 우선순위 큐 구현하기",
+			"lofi hip hop radio - beats to relax/study to",
+			"CS 네트워크 기초: TCP 3-way handshake"
+	};
+
+	@Param({ "10", "100", "1000" })
+	private int keywordCount;
+
+	private DistractionMatcher matcher;
+
+	@Setup
+	public void setUp() {
+		String[] seeds = { "vlog", "브이로그", "게임", "gameplay", "asmr", "먹방", "shorts", "mukbang", "예능", "drama" };
+		List<DistractionKeyword> keywords = new ArrayList<>(keywordCount);
+		for (int i = 0; i < keywordCount; i++) {
+			// 앞쪽은 실제 기본 키워드, 나머지는 제목에 나오지 않는 합성 키워드
+			String keyword = i < seeds.length ? seeds[i] : seeds[i % seeds.length] + "-" + i;
+			keywords.add(DistractionKeyword.builder()
+					.userId("bench")
+					.keyword(keyword)
+					.category("Entertainment")
+					.alertMessage(keyword + " 감지")
+					.build());
+		}
+		matcher = DistractionMatcher.compile(keywords, 1L);
+	}
+
+	@Benchmark
+	public void findAcrossTitles(Blackhole blackhole) {
+		for (String title : TITLES) {
+			blackhole.consume(matcher.find(title));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.tubestudy.tracker.benchmark;
+
+import com.tubestudy.tracker.entity.SubjectRule;
+import com.tubestudy.tracker.service.SubjectIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 과목 분류(SubjectClassifier가 사용하는 SubjectIndex.classify)를 제목 길이별로 측정합니다.
+ * 규칙은 기본 과목 규칙과 같습니다.
+ * 일치하는 과목이 없는 제목(모든 규칙을 끝까지 검사)과 마지막 부분에서 일치하는 제목을 함께 사용합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubjectClassifierBenchmark {
+
+	@Param({ "16", "128", "1024" })
+	private int titleLength;
+
+	private SubjectIndex classifier;
+
+	private String unmatchedTitle;
+	private String matchedAtEndTitle;
+
+	@Setup
+	public void setUp() {
+		classifier = SubjectIndex.compile(List.of(
+				rule("Java / Backend", "spring,java,jpa,서버", 0),
+				rule("Frontend", "react,js,javascript,css,프론트", 1),
+				rule("CS 지식", "알고리즘,cs,자료구조,네트워크", 2)), 1L);
+		unmatchedTitle = filler(titleLength);
+		String suffix = " 알고리즘";
+		matchedAtEndTitle = filler(Math.max(0, titleLength - suffix.length())) + suffix;
+	}
+
+	private static SubjectRule rule(String subject, String terms, int priority) {
+		return SubjectRule.builder().subject(subject).terms(terms).color("gray-500").priority(priority).build();
+	}
+
+	private static String filler(int length) {
+		String pattern = "오늘의 강의 Lecture note ";
+		StringBuilder builder = new StringBuilder(length);
+		while (builder.length() < length) {
+			builder.append(pattern);
+		}
+		return builder.substring(0, length);
+	}
+
+	@Benchmark
+	public void classify(Blackhole blackhole) {
+		blackhole.consume(classifier.classify(unmatchedTitle));
+		blackhole.consume(classifier.classify(matchedAtEndTitle));
+	}
+}
@@ -0,0 +1,185 @@
+package com.tubestudy.tracker.benchmark;
+
+import com.tubestudy.tracker.TrackerApplication;
+import com.tubestudy.tracker.repository.DailyStudyRollupRepository;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import com.tubestudy.tracker.repository.VideoProgressUpsert;
+import com.tubestudy.tracker.service.CsvExportService;
+import com.tubestudy.tracker.service.StudyRollupService;
+import com.tubestudy.tracker.service.SubjectClassifier;
+import com.tubestudy.tracker.service.TrackerService;
+import com.tubestudy.tracker.timeseries.StudyTimeSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대시보드 통계/고급 분석/CSV 내보내기를 기록 수별로 측정합니다.
+ * 인메모리 H2에 애플리케이션 컨텍스트를 띄우고, 한 사용자에게 rowCount개의 VideoProgress와
+ * 그에 맞는 일별 집계를 채운 뒤 서비스 메서드를 그대로 호출합니다.
+ * 분 단위 시계열과 구간 분석 색인은 시작 시와 같은 경로로 일별 집계에서 채우며,
+ * timeSeries=false이면 시계열을 끄고 분석이 일별 집계 쿼리로 처리되는 경우를 측정합니다.
+ * (CSV는 id 순 페이지 조회로 처리되므로 DB 구간까지 포함한 측정입니다.)
+ * 시계열 스냅샷은 실행마다 비운 target/timeseries 아래에 쓰므로 ./data의 실제 스냅샷을 건드리지 않습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrackerServiceBenchmark {
+
+	private static final String USER_ID = "bench";
+
+	private static final String[] TITLES = {
+			"Spring Boot JPA 강의", "React 상태 관리 입문", "알고리즘 문제 풀이", "자료구조 - 트리", "주말 일상 기록"
+	};
+
+	@Param({ "10000", "100000", "1000000" })
+	private int rowCount;
+
+	@Param({ "true", "false" })
+	private boolean timeSeries;
+
+	private ConfigurableApplicationContext context;
+	private TrackerService trackerService;
+	private CsvExportService csvExportService;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		// 이전 실행의 스냅샷을 읽으면 시계열이 두 번 채워지므로 매번 비움
+		Path timeSeriesDirectory = Paths.get("target", "timeseries", "bench-" + rowCount);
+		FileSystemUtils.deleteRecursively(timeSeriesDirectory);
+
+		context = SpringApplication.run(TrackerApplication.class,
+				"--spring.main.web-application-type=none",
+				"--spring.datasource.url=jdbc:h2:mem:bench-" + rowCount + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+				"--spring.jpa.show-sql=false",
+				"--tracker.timeseries.enabled=" + timeSeries,
+				"--tracker.timeseries.directory=" + timeSeriesDirectory,
+				// 결과 캐시를 끄고 통계 계산 자체를 측정
+				"--tracker.dashboard.stats-cache.enabled=false",
+				"--logging.level.root=WARN");
+		trackerService = context.getBean(TrackerService.class);
+		csvExportService = context.getBean(CsvExportService.class);
+		seed();
+	}
+
+	// 최근 1년에 고르게 흩어진 기록과, 같은 분포의 일별 집계를 채운 뒤 시계열과 구간 분석 색인을 만듭니다.
+	private void seed() {
+		VideoProgressRepository videoProgressRepository = context.getBean(VideoProgressRepository.class);
+		DailyStudyRollupRepository rollupRepository = context.getBean(DailyStudyRollupRepository.class);
+		SubjectClassifier subjectClassifier = context.getBean(SubjectClassifier.class);
+		TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+		Random random = new Random(42);
+		LocalDateTime now = LocalDateTime.now();
+		Map<RollupKey, Double> rollups = new HashMap<>();
+		List<VideoProgressUpsert> chunk = new ArrayList<>();
+
+		for (int i = 0; i < rowCount; i++) {
+			String title = TITLES[i % TITLES.length] + " " + i;
+			LocalDateTime syncedAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+			double duration = 600 + random.nextInt(3000);
+			double progress = random.nextDouble() * duration;
+			double studySeconds = 60 + random.nextInt(1800);
+
+			String subject = subjectClassifier.classify(title);
+			chunk.add(new VideoProgressUpsert(USER_ID, "video-" + i, title, "channel-" + (i % 50), subject, duration,
+					progress, studySeconds, (int) (progress / duration * 100), syncedAt));
+			rollups.merge(new RollupKey(syncedAt.toLocalDate(), subject, syncedAt.getHour()), studySeconds,
+					Double::sum);
+
+			if (chunk.size() == 10_000 || i == rowCount - 1) {
+				List<VideoProgressUpsert> rows = new ArrayList<>(chunk);
+				transactionTemplate.executeWithoutResult(status -> videoProgressRepository.upsertProgress(rows));
+				chunk.clear();
+			}
+		}
+
+		transactionTemplate.executeWithoutResult(status -> rollups.forEach((key, seconds) -> rollupRepository
+				.addStudySeconds(USER_ID, key.studyDate(), key.subject(), key.studyHour(), seconds)));
+
+		// 저장소에 직접 쓴 집계는 커밋 후 반영을 거치지 않으므로, 시작 시 초기화와 같은 방법으로 채움
+		StudyRollupService studyRollupService = context.getBean(StudyRollupService.class);
+		studyRollupService.backfillTimeSeriesIfEmpty();
+		studyRollupService.rebuildRangeIndex();
+		if (timeSeries && context.getBean(StudyTimeSeries.class).totalSeconds(USER_ID) == 0) {
+			throw new IllegalStateException("Study time series was not seeded");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Object dashboardStatsAll() {
+		return trackerService.getDashboardStats(USER_ID, "all");
+	}
+
+	@Benchmark
+	public Object dashboardStatsWeek() {
+		return trackerService.getDashboardStats(USER_ID, "week");
+	}
+
+	@Benchmark
+	public Object analytics() {
+		return trackerService.getAnalytics(USER_ID);
+	}
+
+	@Benchmark
+	public long csvExport() throws IOException {
+		CountingOutputStream out = new CountingOutputStream();
+		csvExportService.writeStudyRecordsCsv(USER_ID, out);
+		return out.count;
+	}
+
+	// 응답 대신 바이트 수만 세는 출력 스트림
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+
+	private record RollupKey(LocalDate studyDate, String subject, int studyHour) {
+	}
+}
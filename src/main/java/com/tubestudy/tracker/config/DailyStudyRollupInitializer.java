@@ -0,0 +1,40 @@
+package com.tubestudy.tracker.config;
+
+import com.tubestudy.tracker.service.StudyRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * 애플리케이션 시작 시 일별 집계 테이블을 기존 학습 기록으로 한 번 채웁니다.
+ * (집계 테이블이 비어 있을 때만 실행)
+ * 이어서 백필이 끝난 일별 집계로 구간 분석 색인(SubjectRangeIndex)을 한 번 만들고,
+ * 분 단위 시계열 스냅샷이 없으면 일별 집계로 시계열을 채웁니다.
+ *
+ * 웹 서버가 요청을 받기 전에 실행됩니다. (CommandLineRunner는 웹 서버가 시작된 뒤에 실행됨)
+ * 백필 전에 하트비트가 먼저 반영되면 집계 테이블이 비어 있지 않게 되어 기존 기록이 백필되지 않고,
+ * 같은 버킷에 대한 MERGE와 백필 INSERT가 유니크 제약에서 충돌할 수 있기 때문입니다.
+ * 색인과 시계열도 같은 이유로 하트비트를 받기 전에 만들어야, 만드는 동안 반영된 하트비트가 빠지거나 두 번 더해지지 않습니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyStudyRollupInitializer implements SmartInitializingSingleton {
+
+    private final StudyRollupService studyRollupService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int created = studyRollupService.backfillIfEmpty();
+        if (created > 0) {
+            System.out.println("✅ Daily study rollup backfilled: " + created + " buckets");
+        }
+
+        int rows = studyRollupService.rebuildRangeIndex();
+        System.out.println("✅ Subject range index built from " + rows + " daily subject totals");
+
+        int seeded = studyRollupService.backfillTimeSeriesIfEmpty();
+        if (seeded > 0) {
+            System.out.println("✅ Study time series backfilled from " + seeded + " rollup buckets");
+        }
+    }
+}
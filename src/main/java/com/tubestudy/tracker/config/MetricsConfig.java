@@ -0,0 +1,21 @@
+package com.tubestudy.tracker.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Micrometer 메트릭 설정
+ * 딴짓 키워드는 사용자가 직접 추가하므로, 키워드 태그 값의 가짓수가 한도를 넘으면 새 시계열을 만들지 않습니다.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterFilter distractionKeywordTagLimit(
+            @Value("${tracker.metrics.distraction-keyword-tag-limit:100}") int limit) {
+        return MeterFilter.maximumAllowableTags("tracker.sync.distraction.hits", "keyword", limit,
+                MeterFilter.deny());
+    }
+}
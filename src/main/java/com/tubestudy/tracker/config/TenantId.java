@@ -0,0 +1,21 @@
+package com.tubestudy.tracker.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컨트롤러 파라미터에 현재 요청의 사용자(테넌트) ID를 주입합니다.
+ * X-User-Id 헤더 값을 사용하며, 헤더가 없으면 userId 쿼리 파라미터, 둘 다 없으면 기본 사용자("default")로 처리합니다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TenantId {
+
+    String HEADER = "X-User-Id";
+
+    String QUERY_PARAMETER = "userId";
+
+    String DEFAULT_USER_ID = "default";
+}
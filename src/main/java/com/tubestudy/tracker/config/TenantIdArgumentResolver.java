@@ -0,0 +1,41 @@
+package com.tubestudy.tracker.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.regex.Pattern;
+
+/**
+ * {@link TenantId} 파라미터를 X-User-Id 헤더 값으로 채웁니다.
+ * 헤더를 붙일 수 없는 요청(브라우저 EventSource)을 위해 헤더가 없으면 userId 쿼리 파라미터를 사용합니다.
+ * 사용자 ID는 저장소 키와 캐시 키로 쓰이므로 길이와 문자를 제한합니다.
+ */
+public class TenantIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final Pattern VALID_USER_ID = Pattern.compile("[A-Za-z0-9._@-]{1,64}");
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(TenantId.class) && parameter.getParameterType() == String.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        String userId = webRequest.getHeader(TenantId.HEADER);
+        if (userId == null || userId.isBlank()) {
+            userId = webRequest.getParameter(TenantId.QUERY_PARAMETER);
+        }
+        if (userId == null || userId.isBlank()) {
+            return TenantId.DEFAULT_USER_ID;
+        }
+        userId = userId.trim();
+        if (!VALID_USER_ID.matcher(userId).matches()) {
+            throw new IllegalArgumentException(TenantId.HEADER + " 헤더는 영문/숫자/._@- 1~64자여야 합니다.");
+        }
+        return userId;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tubestudy.tracker.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 단일 사용자 스키마를 사용자(테넌트) 스키마로 옮깁니다.
+ * ddl-auto=update는 user_id 컬럼과 새 복합 유니크 제약은 추가하지만 예전 제약을 지우지 않으므로,
+ * 사용자 간에 같은 videoId/집계 버킷을 쓸 수 없게 막는 예전 유니크 제약을 여기서 제거합니다.
+ * (스키마 갱신이 끝난 뒤 실행되도록 EntityManagerFactory에 의존하며, 웹 요청을 받기 전에 실행됩니다.)
+ */
+@Component
+public class TenantSchemaMigrator {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TenantSchemaMigrator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void migrate() {
+        // video_progress.video_id 단독 유니크 제약 (Hibernate가 자동 생성한 이름)
+        dropUniqueConstraints("VIDEO_PROGRESS", List.of("VIDEO_ID"));
+        // 사용자 구분 없는 집계 버킷 유니크 제약
+        dropUniqueConstraints("DAILY_STUDY_ROLLUP", List.of("STUDY_DATE", "SUBJECT", "STUDY_HOUR"));
+    }
+
+    private void dropUniqueConstraints(String table, List<String> columns) {
+        List<String> constraints = jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                        + "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'UNIQUE'",
+                String.class, table);
+
+        for (String constraint : constraints) {
+            List<String> constraintColumns = jdbcTemplate.queryForList(
+                    "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE "
+                            + "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND CONSTRAINT_NAME = ? ORDER BY ORDINAL_POSITION",
+                    String.class, constraint);
+            if (constraintColumns.equals(columns)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT \"" + constraint + "\"");
+                System.out.println("✅ Dropped single-user unique constraint " + constraint + " on " + table);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tubestudy.tracker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 컨트롤러 공통 설정
+ * X-User-Id 헤더로 요청별 사용자(테넌트)를 구분합니다.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new TenantIdArgumentResolver());
+    }
+}
@@ -1,5 +1,6 @@
 package com.tubestudy.tracker.controller;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -43,6 +44,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * 409 Conflict 예외 처리 (다른 노드/요청이 같은 데이터를 먼저 변경한 경우)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(OptimisticLockingFailureException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", 409);
+        errorResponse.put("message", "다른 곳에서 먼저 변경되었습니다. 다시 시도해 주세요.");
+        errorResponse.put("timestamp", System.currentTimeMillis());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * 500 Internal Server Error 예외 처리
      */
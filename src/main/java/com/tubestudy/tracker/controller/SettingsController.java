@@ -1,9 +1,12 @@
 package com.tubestudy.tracker.controller;
 
+import com.tubestudy.tracker.config.TenantId;
 import com.tubestudy.tracker.dto.SettingsDto;
 import com.tubestudy.tracker.dto.DistractionKeywordDto;
+import com.tubestudy.tracker.dto.SubjectRuleDto;
 import com.tubestudy.tracker.service.SettingsService;
 import com.tubestudy.tracker.service.DistractionKeywordService;
+import com.tubestudy.tracker.service.SubjectRuleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,17 +20,18 @@ public class SettingsController {
 
     private final SettingsService settingsService;
     private final DistractionKeywordService distractionKeywordService;
+    private final SubjectRuleService subjectRuleService;
 
     // 현재 설정 조회 (GET)
     @GetMapping
-    public SettingsDto getSettings() {
-        return settingsService.getSettings();
+    public SettingsDto getSettings(@TenantId String userId) {
+        return settingsService.getSettings(userId);
     }
 
     // 설정 업데이트 (POST/PUT)
     @PostMapping
-    public SettingsDto updateGoal(@RequestBody SettingsDto dto) {
-        return settingsService.updateGoal(dto);
+    public SettingsDto updateGoal(@TenantId String userId, @RequestBody SettingsDto dto) {
+        return settingsService.updateGoal(userId, dto);
     }
 
     // ========================================================
@@ -38,47 +42,84 @@ public class SettingsController {
      * 모든 활성 키워드 조회
      */
     @GetMapping("/keywords")
-    public List<DistractionKeywordDto> getAllActiveKeywords() {
-        return distractionKeywordService.getAllActiveKeywords();
+    public List<DistractionKeywordDto> getAllActiveKeywords(@TenantId String userId) {
+        return distractionKeywordService.getAllActiveKeywords(userId);
     }
 
     /**
      * 모든 키워드 조회 (활성/비활성 포함)
      */
     @GetMapping("/keywords/all")
-    public List<DistractionKeywordDto> getAllKeywords() {
-        return distractionKeywordService.getAllKeywords();
+    public List<DistractionKeywordDto> getAllKeywords(@TenantId String userId) {
+        return distractionKeywordService.getAllKeywords(userId);
     }
 
     /**
      * 새로운 키워드 추가
      */
     @PostMapping("/keywords")
-    public DistractionKeywordDto addKeyword(@RequestBody DistractionKeywordDto dto) {
-        return distractionKeywordService.addKeyword(dto);
+    public DistractionKeywordDto addKeyword(@TenantId String userId, @RequestBody DistractionKeywordDto dto) {
+        return distractionKeywordService.addKeyword(userId, dto);
     }
 
     /**
      * 기존 키워드 수정
      */
     @PutMapping("/keywords/{id}")
-    public DistractionKeywordDto updateKeyword(@PathVariable Long id, @RequestBody DistractionKeywordDto dto) {
-        return distractionKeywordService.updateKeyword(id, dto);
+    public DistractionKeywordDto updateKeyword(@TenantId String userId, @PathVariable Long id,
+            @RequestBody DistractionKeywordDto dto) {
+        return distractionKeywordService.updateKeyword(userId, id, dto);
     }
 
     /**
      * 키워드 활성화/비활성화 토글
      */
     @PutMapping("/keywords/{id}/toggle")
-    public DistractionKeywordDto toggleKeywordActive(@PathVariable Long id) {
-        return distractionKeywordService.toggleKeywordActive(id);
+    public DistractionKeywordDto toggleKeywordActive(@TenantId String userId, @PathVariable Long id) {
+        return distractionKeywordService.toggleKeywordActive(userId, id);
     }
 
     /**
      * 키워드 삭제 (커스텀 키워드만)
      */
     @DeleteMapping("/keywords/{id}")
-    public void deleteKeyword(@PathVariable Long id) {
-        distractionKeywordService.deleteKeyword(id);
+    public void deleteKeyword(@TenantId String userId, @PathVariable Long id) {
+        distractionKeywordService.deleteKeyword(userId, id);
+    }
+
+    // ========================================================
+    // 과목 분류 규칙 관리 엔드포인트 (모든 사용자 공통)
+    // ========================================================
+
+    /**
+     * 모든 과목 규칙 조회 (적용 순서대로)
+     */
+    @GetMapping("/subjects")
+    public List<SubjectRuleDto> getAllSubjectRules() {
+        return subjectRuleService.getAllRules();
+    }
+
+    /**
+     * 새로운 과목 규칙 추가 (기존 기록은 백그라운드에서 재분류)
+     */
+    @PostMapping("/subjects")
+    public SubjectRuleDto addSubjectRule(@RequestBody SubjectRuleDto dto) {
+        return subjectRuleService.addRule(dto);
+    }
+
+    /**
+     * 기존 과목 규칙 수정
+     */
+    @PutMapping("/subjects/{id}")
+    public SubjectRuleDto updateSubjectRule(@PathVariable Long id, @RequestBody SubjectRuleDto dto) {
+        return subjectRuleService.updateRule(id, dto);
+    }
+
+    /**
+     * 과목 규칙 삭제
+     */
+    @DeleteMapping("/subjects/{id}")
+    public void deleteSubjectRule(@PathVariable Long id) {
+        subjectRuleService.deleteRule(id);
     }
 }
\ No newline at end of file
@@ -1,22 +1,36 @@
 package com.tubestudy.tracker.controller;
 
+import com.tubestudy.tracker.config.TenantId;
+import com.tubestudy.tracker.dto.CompactHeartbeatDto;
 import com.tubestudy.tracker.dto.ContinueWatchingDto;
 import com.tubestudy.tracker.dto.VideoProgressDto;
 import com.tubestudy.tracker.dto.DashboardStatsDto;
 import com.tubestudy.tracker.dto.StudyStreakDto;
 import com.tubestudy.tracker.dto.AnalyticsDto;
+import com.tubestudy.tracker.dto.RangeAnalyticsDto;
 import com.tubestudy.tracker.service.TrackerService;
 import com.tubestudy.tracker.service.CsvExportService;
+import com.tubestudy.tracker.service.DataVersion;
+import com.tubestudy.tracker.service.DashboardStream;
+import com.tubestudy.tracker.service.StudyStreakService;
 import lombok.RequiredArgsConstructor;
 import com.tubestudy.tracker.dto.SyncResponseDto;
+import com.tubestudy.tracker.dto.SyncVerdictDto;
 import org.springframework.web.bind.annotation.*;
-import com.tubestudy.tracker.dto.CourseItemDto;
+import com.tubestudy.tracker.dto.CoursePageDto;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.io.IOException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/tracker")
@@ -26,32 +40,69 @@ public class TrackerController {
 
     private final TrackerService trackerService;
     private final CsvExportService csvExportService;
+    private final StudyStreakService studyStreakService;
+    private final DashboardStream dashboardStream;
+    private final DataVersion dataVersion;
 
     // ********************************************
     // 통계 정보 조회 API (기간 필터링 적용) - 1단계 수정
     // ********************************************
     @GetMapping("/dashboard/stats")
-    public DashboardStatsDto getDashboardStats(
-            @RequestParam(defaultValue = "all") String periodType) { // ✅ @RequestParam 추가
+    public ResponseEntity<DashboardStatsDto> getDashboardStats(@TenantId String userId,
+            @RequestParam(defaultValue = "all") String periodType, // ✅ @RequestParam 추가
+            WebRequest request) {
 
-        // Service 메서드에 periodType을 전달
-        return trackerService.getDashboardStats(periodType);
+        // Service 메서드에 periodType을 전달 (오늘/이번 주/이번 달 기간은 날짜에 따라 달라짐)
+        return conditional(userId, LocalDate.now().toString(), request,
+                () -> trackerService.getDashboardStats(userId, periodType));
     }
 
     // ********************************************
     // 스트릭 조회 API
     // ********************************************
     @GetMapping("/streak")
-    public StudyStreakDto getStudyStreak() {
-        return trackerService.getStudyStreak();
+    public ResponseEntity<StudyStreakDto> getStudyStreak(@TenantId String userId, WebRequest request) {
+        return conditional(userId, LocalDate.now().toString(), request,
+                () -> studyStreakService.getStudyStreak(userId));
     }
 
     // ********************************************
     // 고급 통계 조회 API
     // ********************************************
     @GetMapping("/analytics")
-    public AnalyticsDto getAnalytics() {
-        return trackerService.getAnalytics();
+    public ResponseEntity<AnalyticsDto> getAnalytics(@TenantId String userId, WebRequest request) {
+        return conditional(userId, LocalDate.now().toString(), request,
+                () -> trackerService.getAnalytics(userId));
+    }
+
+    /**
+     * 임의 날짜 구간의 과목별 학습 시간과 단위 구간별 추이
+     * 예) /api/tracker/analytics/range?from=2025-01-01&to=2025-12-31&granularity=month
+     *
+     * @param granularity day / week / month / year / total
+     */
+    @GetMapping("/analytics/range")
+    public ResponseEntity<RangeAnalyticsDto> getRangeAnalytics(@TenantId String userId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "day") String granularity,
+            WebRequest request) {
+        return conditional(userId, LocalDate.now().toString(), request,
+                () -> trackerService.getRangeAnalytics(userId, from, to, granularity));
+    }
+
+    // ********************************************
+    // 대시보드 실시간 스트림 API (Server-Sent Events)
+    // ********************************************
+    /**
+     * 하트비트가 반영될 때마다 대시보드 변경분을 이벤트로 보냅니다.
+     * 이벤트: study(과목별 학습 시간 증가), progress(영상 진도), streak(스트릭), distraction(딴짓 감지),
+     * reset(기록 삭제/재분류 등으로 전체를 다시 조회해야 함)
+     * EventSource는 헤더를 붙일 수 없으므로 사용자는 userId 쿼리 파라미터로도 지정할 수 있습니다.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboardUpdates(@TenantId String userId) {
+        return dashboardStream.subscribe(userId);
     }
 
     // ********************************************
@@ -64,8 +115,8 @@ public class TrackerController {
      * @return 삭제 성공 응답
      */
     @DeleteMapping("/video/{videoId}")
-    public ResponseEntity<Void> deleteVideoProgress(@PathVariable String videoId) { // ✅ 새로 추가
-        trackerService.deleteVideoProgress(videoId);
+    public ResponseEntity<Void> deleteVideoProgress(@TenantId String userId, @PathVariable String videoId) {
+        trackerService.deleteVideoProgress(userId, videoId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT); // 204 No Content 반환
     }
 
@@ -73,37 +124,32 @@ public class TrackerController {
     // CSV 내보내기 API
     // ********************************************
     /**
-     * 모든 학습 기록을 CSV 파일로 내보냅니다 (UTF-8 BOM 포함).
+     * 사용자의 모든 학습 기록을 CSV 파일로 내보냅니다 (UTF-8 BOM 포함).
      * 
      * @return CSV 파일 다운로드
      */
     @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportCsv() {
-        try {
-            byte[] csvBytes = csvExportService.exportStudyRecordsAsCsv();
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", "study_records.csv");
-            headers.setContentLength(csvBytes.length);
-
-            return new ResponseEntity<>(csvBytes, headers, HttpStatus.OK);
-        } catch (IOException e) {
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    public ResponseEntity<StreamingResponseBody> exportCsv(@TenantId String userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", "study_records.csv");
+
+        // 전체를 메모리에 만들지 않고 응답 스트림에 바로 씁니다. (Content-Length 없이 chunked 전송)
+        StreamingResponseBody body = outputStream -> csvExportService.writeStudyRecordsCsv(userId, outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     // ********************************************
     // 전체 데이터 삭제 API
     // ********************************************
     /**
-     * 모든 학습 기록 및 관련 데이터를 삭제합니다.
+     * 사용자의 모든 학습 기록 및 관련 데이터를 삭제합니다.
      * 
      * @return 삭제 성공 응답
      */
     @DeleteMapping("/clear-all")
-    public ResponseEntity<Void> clearAllStudyData() {
-        trackerService.clearAllStudyData();
+    public ResponseEntity<Void> clearAllStudyData(@TenantId String userId) {
+        trackerService.clearAllStudyData(userId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
@@ -111,20 +157,73 @@ public class TrackerController {
     // 기존 기능 유지
     // ********************************************
 
+    /**
+     * 코스 목록을 한 페이지씩 조회합니다. (키셋 페이지네이션)
+     *
+     * @param size    페이지 크기 (기본 20, 최대 100)
+     * @param cursor  이전 응답의 nextCursor (첫 페이지면 생략)
+     * @param status  all / completed / in-progress
+     * @param channel 채널명 필터 (생략 시 전체)
+     */
     @GetMapping("/dashboard/courses")
-    public List<CourseItemDto> getAllCourseItems() {
-        return trackerService.getAllCourseItems();
+    public ResponseEntity<CoursePageDto> getCoursePage(@TenantId String userId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "all") String status,
+            @RequestParam(required = false) String channel,
+            WebRequest request) {
+        // "5분 전" 같은 마지막 학습 시각 표시가 바뀌도록 분 단위로 구분
+        String minute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).toString();
+        return conditional(userId, minute, request,
+                () -> trackerService.getCoursePage(userId, size, cursor, status, channel));
     }
 
     @PostMapping("/sync")
-    public SyncResponseDto syncProgress(@RequestBody VideoProgressDto dto) {
-        SyncResponseDto response = trackerService.saveAndGenerateResponse(dto);
-        System.out.println("[SYNC RESPONSE] 알림 필요 여부: " + response.isRequiresNotification());
-        return response;
+    public SyncResponseDto syncProgress(@TenantId String userId, @RequestBody VideoProgressDto dto) {
+        return trackerService.saveAndGenerateResponse(userId, dto);
+    }
+
+    /**
+     * 압축 하트비트 동기화 (한 글자 필드, 영상 정보는 처음이나 바뀌었을 때만 전송)
+     * 서버가 영상 정보를 모르면 metadataRequired=true로 응답하며, 이때는 저장하지 않습니다.
+     */
+    @PostMapping("/sync/compact")
+    public SyncResponseDto syncCompact(@TenantId String userId, @RequestBody CompactHeartbeatDto heartbeat) {
+        return trackerService.saveCompactAndGenerateResponse(userId, heartbeat);
+    }
+
+    /**
+     * 여러 하트비트를 한 번에 동기화합니다. (오프라인 중 쌓인 하트비트 일괄 전송용)
+     *
+     * @param heartbeats 순서가 있는 하트비트 배열 (최대 1000개)
+     * @return 요청과 같은 순서의 항목별 처리 결과
+     */
+    @PostMapping("/sync/batch")
+    public List<SyncVerdictDto> syncBatch(@TenantId String userId, @RequestBody List<VideoProgressDto> heartbeats) {
+        return trackerService.saveBatchAndGenerateVerdicts(userId, heartbeats);
     }
 
     @GetMapping("/dashboard/continue")
-    public ContinueWatchingDto getContinueWatchingData() {
-        return trackerService.getContinueWatchingData();
+    public ResponseEntity<ContinueWatchingDto> getContinueWatchingData(@TenantId String userId, WebRequest request) {
+        return conditional(userId, "continue", request, () -> trackerService.getContinueWatchingData(userId));
+    }
+
+    /**
+     * 조회 API 공통 조건부 응답 (ETag)
+     * 사용자의 데이터 버전으로 약한 ETag를 만들어, If-None-Match와 같으면 서비스(DB)를 호출하지 않고 304로 응답합니다.
+     * 버전은 응답을 만들기 전에 읽으므로, 그 사이 바뀐 데이터는 다음 요청에서 새 ETag로 다시 받습니다.
+     * no-cache로 보내 브라우저가 저장한 응답을 쓰기 전에 항상 ETag로 재검증하게 합니다.
+     *
+     * @param scope 데이터가 같아도 응답이 달라지는 기준 (날짜 등)
+     */
+    private <T> ResponseEntity<T> conditional(String userId, String scope, WebRequest request, Supplier<T> body) {
+        String etag = "W/\"" + dataVersion.current(userId) + "-" + scope + "\"";
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified (상태와 ETag는 checkNotModified가 설정)
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(body.get());
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.tubestudy.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 압축 하트비트 (/api/tracker/sync/compact)
+ * 필드 이름을 한 글자로 줄이고, 영상 정보(제목/채널/길이)는 영상의 첫 하트비트나 정보가 바뀌었을 때만 보냅니다.
+ * 이후 하트비트는 videoId, 재생 위치, 학습 시간 증가분만 보내며 서버는 기억해 둔 영상 정보와 판정을 그대로 사용합니다.
+ *
+ * 예) 첫 전송: {"v":"abc","t":"Spring 강의 1편","c":"채널","d":3600,"p":0,"a":0}
+ *     이후 전송: {"v":"abc","p":35.2,"a":30.1}
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompactHeartbeatDto {
+
+    @JsonProperty("v")
+    private String videoId;
+
+    // 영상 정보 (보내지 않으면 null → 서버에 기억된 값 사용)
+    @JsonProperty("t")
+    private String title;
+    @JsonProperty("c")
+    private String channel;
+    @JsonProperty("d")
+    private Double totalDurationSeconds;
+
+    @JsonProperty("p")
+    private double lastProgressSeconds;
+    // 지난 전송 이후 실제로 시청한 시간
+    @JsonProperty("a")
+    private double accumulatedStudySeconds;
+
+    /**
+     * 제목이 있으면 영상 정보를 함께 보낸 하트비트로 봅니다.
+     */
+    public boolean hasMetadata() {
+        return title != null;
+    }
+}
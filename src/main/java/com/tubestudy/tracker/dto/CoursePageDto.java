@@ -0,0 +1,18 @@
+package com.tubestudy.tracker.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 코스 목록 페이지 (키셋 페이지네이션)
+ * 다음 페이지는 nextCursor를 cursor 파라미터로 넘겨 요청합니다.
+ */
+@Data
+@Builder
+public class CoursePageDto {
+    private List<CourseItemDto> items;
+    private String nextCursor; // 다음 페이지가 없으면 null
+    private boolean hasNext;
+}
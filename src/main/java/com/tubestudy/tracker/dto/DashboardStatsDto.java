@@ -24,6 +24,7 @@ public class DashboardStatsDto {
     public static class SubjectStatDto {
         private String subjectName;
         private double percentage;
+        private double studySeconds; // 과목 학습 시간 (초), 실시간 스트림의 증가분을 더할 때 사용
         private String color;
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.tubestudy.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 대시보드 실시간 스트림(/api/tracker/stream)으로 보내는 변경분 이벤트
+ * 스트릭은 StudyStreakDto를 그대로 보내고, 기록 삭제/재분류처럼 변경분으로 표현할 수 없으면 reset 이벤트를 보냅니다.
+ */
+public final class LiveUpdateDto {
+
+    private LiveUpdateDto() {
+    }
+
+    /**
+     * 과목별 학습 시간 증가분 (study 이벤트)
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StudyDelta {
+        private LocalDate date; // 학습 시간이 집계된 날짜
+        private Map<String, Double> subjectSeconds; // 과목 -> 늘어난 학습 시간(초)
+        private double totalSeconds;
+    }
+
+    /**
+     * 영상 진도 변경 (progress 이벤트, 영상마다 마지막 상태만 전송)
+     * 완료 여부는 기존 기록에 따라 달라지므로 진도율은 화면에서 재생 위치로 계산합니다.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ProgressDelta {
+        private String videoId;
+        private String title;
+        private String channel;
+        private String subject;
+        private double lastProgressSeconds;
+        private double totalDurationSeconds;
+    }
+
+    /**
+     * 딴짓 감지 (distraction 이벤트)
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DistractionHit {
+        private String title;
+        private String keyword;
+        private String category;
+        private String message;
+    }
+}
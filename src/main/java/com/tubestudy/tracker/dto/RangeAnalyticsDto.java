@@ -0,0 +1,39 @@
+package com.tubestudy.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 임의 날짜 구간 분석 (/api/tracker/analytics/range)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RangeAnalyticsDto {
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity; // day / week / month / year / total
+
+    private double totalStudySeconds;
+    private Map<String, Double> subjectSeconds; // 과목 -> 학습 시간(초), 많은 순
+
+    private List<Bucket> buckets; // 단위 구간별 추이 (첫/마지막 구간은 from/to에 맞춰 잘림)
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Bucket {
+        private LocalDate start;
+        private LocalDate end; // 포함
+        private double totalSeconds;
+        private Map<String, Double> subjectSeconds;
+    }
+}
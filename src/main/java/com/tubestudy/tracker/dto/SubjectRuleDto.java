@@ -0,0 +1,24 @@
+package com.tubestudy.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 과목 분류 규칙 DTO
+ * API 요청/응답에 사용됩니다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubjectRuleDto {
+    private Long id;
+    private String subject;
+    private List<String> terms;
+    private String color;
+    private Integer priority;
+}
@@ -13,4 +13,10 @@ public class SyncResponseDto {
     private boolean isDistraction; // 딴짓 콘텐츠인지 여부
     private String distractionMessage; // 딴짓 알림 메시지
     private boolean distractionAlertEnabled; // 서버 설정: 딴짓 알림 활성화 여부
+
+    // 익스텐션이 다음 동기화를 보낼 때까지 기다릴 시간 (밀리초, 재생 상태와 서버 부하로 결정)
+    private long nextSyncAfterMs;
+
+    // 압축 동기화(/sync/compact)에서 서버가 영상 정보를 모르는 경우: 저장하지 않았으므로 영상 정보를 포함해 다시 전송
+    private boolean metadataRequired;
 }
\ No newline at end of file
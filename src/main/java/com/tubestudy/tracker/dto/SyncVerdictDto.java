@@ -0,0 +1,28 @@
+package com.tubestudy.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 일괄 동기화(/sync/batch)의 항목별 처리 결과
+ * 요청 배열과 같은 순서로 반환되며, message는 알림이 필요하거나 거부된 항목에만 포함됩니다.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncVerdictDto {
+    private int index; // 요청 배열에서의 위치
+    private boolean accepted; // 반영 여부 (false면 검증 실패로 거부됨)
+    private boolean requiresNotification; // 알림이 필요한가?
+    private boolean distraction; // 딴짓 콘텐츠인지 여부
+    private String message; // 알림 메시지 또는 거부 사유
+
+    public static SyncVerdictDto rejected(int index, String reason) {
+        return SyncVerdictDto.builder()
+                .index(index)
+                .accepted(false)
+                .message(reason)
+                .build();
+    }
+}
@@ -21,11 +21,25 @@ public class VideoProgressDto {
     // ✅ 추가: 이번 동기화 간격 동안 실제로 시청한 시간 (클라이언트가 계산하여 전송)
     private double accumulatedStudySeconds;
 
+    /**
+     * 현재 재생 위치 기준 진행률(0~100)을 계산합니다.
+     */
+    public int calculatePercentage() {
+        double ratio = lastProgressSeconds / totalDurationSeconds;
+        return (int) (ratio * 100);
+    }
+
     /**
      * DTO를 엔티티로 변환합니다. (새로운 기록 생성 시 사용)
+     * 98% 이상이면 최고 진도를 100으로 보정하고 완료 상태로 생성합니다.
+     *
+     * @param userId 기록을 소유할 사용자 ID
      */
-    public VideoProgress toEntity() {
+    public VideoProgress toEntity(String userId) {
+        int initialPercentage = calculatePercentage();
+
         return VideoProgress.builder()
+                .userId(userId)
                 .videoId(videoId)
                 .title(title)
                 .channel(channel)
@@ -33,6 +47,8 @@ public class VideoProgressDto {
                 .lastProgressSeconds(lastProgressSeconds)
                 // ✅ 초기 생성 시 accumulatedStudySeconds 값을 studyTimeSeconds에 설정
                 .studyTimeSeconds(accumulatedStudySeconds)
+                .highestProgressPercentage(initialPercentage >= 98 ? 100 : initialPercentage)
+                .isCompleted(initialPercentage >= 98)
                 .build();
     }
 }
\ No newline at end of file
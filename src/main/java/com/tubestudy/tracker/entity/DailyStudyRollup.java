@@ -0,0 +1,50 @@
+package com.tubestudy.tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 일별 학습 시간 집계 (사용자 × 날짜 × 과목 × 시간대)
+ * 동기화마다 누적 학습 시간이 해당 버킷에 더해지므로, 대시보드/분석은 원본 VideoProgress 대신 이 테이블을 읽습니다.
+ */
+@Entity
+@Table(name = "daily_study_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_daily_study_rollup_user_bucket", columnNames = {
+        "user_id", "study_date", "subject", "study_hour" }))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DailyStudyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 사용자(테넌트) ID
+    @Column(name = "user_id", nullable = false, columnDefinition = "VARCHAR(64) DEFAULT 'default'")
+    private String userId;
+
+    // 학습한 날짜
+    @Column(name = "study_date", nullable = false)
+    private LocalDate studyDate;
+
+    // 과목 (SubjectClassifier 분류 결과)
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    // 학습한 시간대 (0-23)
+    @Column(name = "study_hour", nullable = false)
+    private int studyHour;
+
+    // 해당 버킷에 누적된 학습 시간 (초)
+    @Column(name = "study_seconds", nullable = false)
+    private double studySeconds;
+
+    // 학습 시간의 증감은 동시 동기화와 충돌하지 않도록 DailyStudyRollupRepository의 SQL 연산으로만 합니다.
+}
@@ -10,6 +10,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder.Default;
 
 @Entity
+@Table(indexes = @Index(name = "idx_distraction_keyword_user_active", columnList = "user_id, is_active, id"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -21,6 +22,10 @@ public class DistractionKeyword {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 사용자(테넌트) ID (사용자마다 자신의 키워드 목록을 가짐)
+    @Column(name = "user_id", nullable = false, columnDefinition = "VARCHAR(64) DEFAULT 'default'")
+    private String userId;
+
     // 키워드 (예: "vlog", "게임", "ASMR")
     @Column(nullable = false)
     private String keyword;
@@ -46,6 +51,11 @@ public class DistractionKeyword {
     @Column(name = "created_at", updatable = false)
     private java.time.LocalDateTime createdAt;
 
+    // 낙관적 잠금 버전 (토글처럼 읽고 고쳐 쓰는 변경이 다른 노드의 변경을 덮어쓰지 않도록)
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = java.time.LocalDateTime.now();
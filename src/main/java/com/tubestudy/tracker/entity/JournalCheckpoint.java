@@ -0,0 +1,41 @@
+package com.tubestudy.tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 하트비트 저널 컴팩션 체크포인트
+ * 어느 세그먼트의 몇 번째 레코드까지 VideoProgress에 반영했는지 기록합니다.
+ * 반영과 같은 트랜잭션에서 갱신되므로, 재시작 시 체크포인트 이후만 재생하면 중복 없이 복구됩니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class JournalCheckpoint {
+
+    // 단일 체크포인트를 위해 ID를 고정합니다. (예: 1)
+    @Id
+    private Long id = 1L;
+
+    // 다음에 읽을 세그먼트 번호
+    @Column(nullable = false)
+    private long segmentIndex;
+
+    // 해당 세그먼트에서 다음에 읽을 레코드 위치
+    @Column(nullable = false)
+    private int recordOffset;
+
+    public static JournalCheckpoint initial() {
+        return new JournalCheckpoint();
+    }
+
+    // 반영이 끝난 위치로 체크포인트를 옮기는 메서드
+    public void advanceTo(long segmentIndex, int recordOffset) {
+        this.segmentIndex = segmentIndex;
+        this.recordOffset = recordOffset;
+    }
+}
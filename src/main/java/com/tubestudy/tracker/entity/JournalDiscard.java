@@ -0,0 +1,43 @@
+package com.tubestudy.tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 하트비트 저널 삭제 표시
+ * 기록을 삭제한 트랜잭션에서 함께 저장되며, 컴팩터는 이 시각 이전의 해당 영상(또는 사용자 전체) 레코드를 반영하지 않습니다.
+ * 삭제 후 체크포인트가 옮겨지기 전에 종료되어도, 재시작 시 재생에서 삭제된 기록이 되살아나지 않습니다.
+ * 체크포인트가 표시 시각 이전의 레코드를 모두 지나면 체크포인트와 같은 트랜잭션에서 지워집니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class JournalDiscard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, length = 64)
+    private String userId;
+
+    // 삭제한 영상 (null이면 사용자의 모든 영상)
+    @Column(name = "video_id")
+    private String videoId;
+
+    // 이 시각(epoch millis)까지 받은 레코드는 반영하지 않음
+    @Column(nullable = false)
+    private long discardedAtMillis;
+
+    public JournalDiscard(String userId, String videoId, long discardedAtMillis) {
+        this.userId = userId;
+        this.videoId = videoId;
+        this.discardedAtMillis = discardedAtMillis;
+    }
+}
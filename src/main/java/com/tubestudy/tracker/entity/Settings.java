@@ -2,7 +2,13 @@ package com.tubestudy.tracker.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
@@ -10,14 +16,21 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_settings_user", columnNames = "user_id"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Settings {
 
-    // 단일 설정을 위해 ID를 고정합니다. (예: 1)
+    // 기존 단일 설정 레코드가 ID 1을 사용하므로 시퀀스는 2부터 시작합니다.
     @Id
-    private Long id = 1L;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settings_seq")
+    @SequenceGenerator(name = "settings_seq", sequenceName = "settings_seq", initialValue = 2, allocationSize = 1)
+    private Long id;
+
+    // 사용자(테넌트) ID (사용자당 하나의 설정)
+    @Column(name = "user_id", nullable = false, columnDefinition = "VARCHAR(64) DEFAULT 'default'")
+    private String userId;
 
     // 주간 목표 시간 (시간 단위, 기본값 20시간)
     private int weeklyGoalHours = 20;
@@ -42,11 +55,15 @@ public class Settings {
     @Column(nullable = false, columnDefinition = "BOOLEAN DEFAULT true")
     private boolean animationEnabled = true;
 
+    // 낙관적 잠금 버전 (다른 노드의 동시 변경을 덮어쓰지 않도록)
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
     @Builder
-    public Settings(int weeklyGoalHours, boolean distractionAlertEnabled, boolean achievementAlertEnabled,
+    public Settings(String userId, int weeklyGoalHours, boolean distractionAlertEnabled, boolean achievementAlertEnabled,
             boolean darkModeEnabled, boolean voiceNotificationEnabled, boolean animationEnabled) {
-        // ID는 항상 1로 고정하여 DB에 하나의 설정 레코드만 유지되도록 합니다.
-        this.id = 1L;
+        this.userId = userId;
         this.weeklyGoalHours = weeklyGoalHours;
         this.distractionAlertEnabled = distractionAlertEnabled;
         this.achievementAlertEnabled = achievementAlertEnabled;
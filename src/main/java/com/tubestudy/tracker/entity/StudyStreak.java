@@ -11,6 +11,7 @@ import java.time.LocalDate;
  * 사용자의 연속 학습일 수(Streak)를 추적하는 엔티티
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_study_streak_user", columnNames = "user_id"))
 @Getter
 @NoArgsConstructor(access = lombok.AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -21,6 +22,10 @@ public class StudyStreak {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 사용자(테넌트) ID (사용자당 하나의 스트릭)
+    @Column(name = "user_id", nullable = false, columnDefinition = "VARCHAR(64) DEFAULT 'default'")
+    private String userId;
+
     // 현재 진행 중인 연속 학습일 수
     private int currentStreak;
 
@@ -39,12 +44,24 @@ public class StudyStreak {
     // 공휴일, 휴식일 등으로 인한 스트릭 초기화 여부
     private boolean streakBroken;
 
+    // 낙관적 잠금 버전 (여러 트래커 노드가 같은 사용자의 스트릭을 동시에 갱신할 때 나중 커밋이 실패하도록)
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
     /**
      * 현재 스트릭을 업데이트합니다.
      * 오늘 학습이 감지되었을 때 호출됩니다.
      */
     public void updateStreak() {
-        LocalDate today = LocalDate.now();
+        updateStreak(LocalDate.now());
+    }
+
+    /**
+     * 주어진 날짜에 학습한 것으로 스트릭을 업데이트합니다.
+     * 같은 날짜로 여러 번 호출해도 첫 호출 이후에는 변화가 없습니다.
+     */
+    public void updateStreak(LocalDate today) {
 
         if (lastStudyDate == null) {
             // 첫 학습 기록
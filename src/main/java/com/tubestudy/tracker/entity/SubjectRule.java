@@ -0,0 +1,49 @@
+package com.tubestudy.tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 과목 분류 규칙 (과목 → 단어 목록 → 색상)
+ * 영상 제목에 규칙의 단어 중 하나가 단어 단위로 나오면 해당 과목으로 분류합니다.
+ * 여러 규칙에 해당하면 priority가 작은 규칙이 우선합니다.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_subject_rule_subject", columnNames = "subject"))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class SubjectRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 과목 이름 (예: "Java / Backend")
+    @Column(nullable = false)
+    private String subject;
+
+    // 과목에 해당하는 단어 목록 (쉼표로 구분, 소문자)
+    @Column(nullable = false, length = 2000)
+    private String terms;
+
+    // 대시보드 색상 (Tailwind CSS 색상 코드, 예: "red-500")
+    @Column(nullable = false)
+    private String color;
+
+    // 우선순위 (작을수록 먼저 적용)
+    @Column(nullable = false)
+    private int priority;
+
+    // 낙관적 잠금 버전
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+}
@@ -12,6 +12,13 @@ import lombok.Builder;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_video_progress_user_video", columnNames = { "user_id",
+        "video_id" }), indexes = {
+                // 코스 목록 키셋 페이지네이션 (사용자별 마지막 동기화 시간 내림차순, id로 동률 정렬)
+                @Index(name = "idx_video_progress_user_last_synced", columnList = "user_id, last_synced_at, id"),
+                @Index(name = "idx_video_progress_user_channel_last_synced", columnList = "user_id, channel, last_synced_at, id"),
+                // 과목별 조회/재분류
+                @Index(name = "idx_video_progress_user_subject", columnList = "user_id, subject") })
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -23,13 +30,21 @@ public class VideoProgress {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // videoId는 유니크한 식별자로 사용하며, @Id 대신 일반 필드로 설정합니다.
-    @Column(unique = true)
+    // 사용자(테넌트) ID. 기존 단일 사용자 데이터는 "default" 사용자로 이전됩니다.
+    @Column(name = "user_id", nullable = false, columnDefinition = "VARCHAR(64) DEFAULT 'default'")
+    private String userId;
+
+    // videoId는 사용자 안에서 유니크한 식별자로 사용하며, @Id 대신 일반 필드로 설정합니다.
+    @Column(name = "video_id")
     private String videoId;
 
     private String title;
     private String channel;
 
+    // 과목 (첫 기록 시 SubjectClassifier로 한 번 분류해 저장, 분류 규칙이 바뀌면 SubjectReclassifier가 다시 계산)
+    @Column(name = "subject")
+    private String subject;
+
     // 총 영상 길이
     @Column(name = "total_duration_seconds")
     private double totalDurationSeconds;
@@ -65,27 +80,7 @@ public class VideoProgress {
     // ✅ 2. 완료 상태 플래그
     private boolean isCompleted;
 
-    /**
-     * 새로운 진도 데이터를 기반으로 엔티티를 업데이트하고 학습 시간을 누적합니다.
-     * 
-     * @param dto                     업데이트할 DTO
-     * @param accumulatedStudySeconds 이번 동기화에서 누적된 '실제' 학습 시간
-     */
-    // public void update(VideoProgressDto dto, double accumulatedStudySeconds) {
-    // // 1. 최종 진도 시간 업데이트
-    // this.lastProgressSeconds = dto.getLastProgressSeconds();
-
-    // // 2. 실제 누적 학습 시간 합산
-    // this.studyTimeSeconds += accumulatedStudySeconds;
-
-    // // 3. 동기화 시간 업데이트
-    // this.lastSyncedAt = LocalDateTime.now();
-    // }
-
-    public void update(double accumulatedStudySeconds, double lastProgressSeconds) {
-        this.studyTimeSeconds += accumulatedStudySeconds; // 학습 시간 누적
-        this.lastProgressSeconds = lastProgressSeconds; // 최종 재생 위치 업데이트
-        this.lastSyncedAt = LocalDateTime.now();
-    }
+    // 학습 시간 누적, 재생 위치, 최고 진도/완료 상태 반영은 읽고 고쳐 쓰지 않고
+    // VideoProgressUpsertRepository의 MERGE 문 안에서 DB가 계산합니다. (여러 노드가 동시에 반영해도 유실 없음)
 
 }
\ No newline at end of file
@@ -0,0 +1,467 @@
+package com.tubestudy.tracker.journal;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import com.tubestudy.tracker.entity.JournalCheckpoint;
+import com.tubestudy.tracker.entity.JournalDiscard;
+import com.tubestudy.tracker.repository.JournalCheckpointRepository;
+import com.tubestudy.tracker.repository.JournalDiscardRepository;
+import com.tubestudy.tracker.service.CoalescedHeartbeat;
+import com.tubestudy.tracker.service.VideoProgressBatchWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 메모리 매핑 기반 추가 전용(append-only) 하트비트 저널
+ * 활성화하면 /sync 하트비트를 DB 행 UPDATE 대신 고정 길이 레코드로 세그먼트 파일에 순차 기록하고,
+ * 백그라운드 컴팩터가 주기적으로 체크포인트 이후 레코드를 VideoProgress와 일별 집계에 반영합니다.
+ *
+ * - 재시작 시 DB 체크포인트 이후 레코드를 재생하므로 반영 전 종료되어도 하트비트가 유실되지 않습니다.
+ * - 반영이 끝난 세그먼트도 지우지 않으므로, 하트비트 단위의 원본 이력이 그대로 남습니다.
+ * - 기록 삭제 표시는 삭제와 같은 트랜잭션에서 DB(JournalDiscard)에 저장되므로, 재생 시에도 삭제된 기록이 되살아나지 않습니다.
+ */
+@Slf4j
+@Component
+public class HeartbeatJournal {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{10})\\.log");
+    private static final String DICTIONARY_FILE = "videos.dict";
+    private static final long CHECKPOINT_ID = 1L;
+
+    // 한 번의 트랜잭션으로 반영할 최대 레코드 수
+    private static final int MAX_RECORDS_PER_COMPACTION = 50_000;
+
+    private final VideoProgressBatchWriter batchWriter;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final JournalDiscardRepository discardRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long compactIntervalMs;
+
+    // 세그먼트 목록/활성 세그먼트/딕셔너리는 monitor로 보호합니다.
+    // (잠금 안에서 파일 I/O를 하므로 synchronized 대신 ReentrantLock을 사용해 가상 스레드가 캐리어 스레드를 붙잡지 않게 함)
+    private final ReentrantLock monitor = new ReentrantLock();
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private JournalSegment active;
+    private VideoDictionary dictionary;
+
+    private final ReentrantLock compactLock = new ReentrantLock();
+
+    // 삭제 표시의 메모리 사본: (사용자, videoId) / 사용자 ID -> 이 시각 이전의 레코드는 반영하지 않음
+    // 삭제 트랜잭션이 커밋되기 전에 시작한 컴팩션도 건너뛰도록 먼저 두고, 롤백되면 되돌립니다.
+    private final Map<String, Long> discardedUntil = new ConcurrentHashMap<>();
+    private final Map<String, Long> discardedAllUntil = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService compactor;
+
+    public HeartbeatJournal(VideoProgressBatchWriter batchWriter,
+            JournalCheckpointRepository checkpointRepository,
+            JournalDiscardRepository discardRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${tracker.journal.enabled:false}") boolean enabled,
+            @Value("${tracker.journal.directory:./data/journal}") String directory,
+            @Value("${tracker.journal.segment-records:262144}") int segmentRecords,
+            @Value("${tracker.journal.compact-interval-ms:5000}") long compactIntervalMs) {
+        this.batchWriter = batchWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.discardRepository = discardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.compactIntervalMs = compactIntervalMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 기존 세그먼트와 딕셔너리를 열고, 마지막 세그먼트를 활성 세그먼트로 사용합니다.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        monitor.lock();
+        try {
+            openFiles();
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    private void openFiles() throws IOException {
+        Files.createDirectories(directory);
+        dictionary = VideoDictionary.open(directory.resolve(DICTIONARY_FILE));
+
+        List<Long> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    indexes.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        indexes.sort(null);
+        for (long index : indexes) {
+            segments.add(JournalSegment.open(directory, index, segmentRecords));
+        }
+        if (segments.isEmpty()) {
+            segments.add(JournalSegment.open(directory, 0, segmentRecords));
+        }
+        active = segments.get(segments.size() - 1);
+    }
+
+    /**
+     * 애플리케이션이 준비되면 체크포인트 이후 레코드를 재생하고 주기적 컴팩션을 시작합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startCompactor() {
+        if (!enabled) {
+            return;
+        }
+        int replayed = compactAll();
+        if (replayed > 0) {
+            System.out.println("✅ Heartbeat journal replayed: " + replayed + " records");
+        }
+
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heartbeat-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly, compactIntervalMs, compactIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 하트비트를 저널에 덧붙입니다. 활성 세그먼트가 가득 차면 새 세그먼트로 넘어갑니다.
+     */
+    public void append(String userId, VideoProgressDto dto) {
+        try {
+            monitor.lock();
+            try {
+                VideoDictionary.Entry entry = dictionary.resolve(userId, dto.getVideoId(), dto.getTitle(),
+                        dto.getChannel());
+                HeartbeatRecord record = new HeartbeatRecord(entry.key(), System.currentTimeMillis(),
+                        dto.getLastProgressSeconds(), dto.getAccumulatedStudySeconds(),
+                        dto.getTotalDurationSeconds());
+                if (!active.append(record)) {
+                    active.force();
+                    active = JournalSegment.open(directory, active.getIndex() + 1, segmentRecords);
+                    segments.add(active);
+                    active.append(record);
+                }
+            } finally {
+                monitor.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append heartbeat to journal", e);
+        }
+    }
+
+    /**
+     * 특정 영상의 아직 반영되지 않은 레코드를 버립니다. (기록 삭제 시 사용)
+     * 삭제 표시는 호출한 쪽 트랜잭션(기록 DELETE와 같은 트랜잭션)에 저장됩니다.
+     */
+    public void discard(String userId, String videoId) {
+        if (!enabled) {
+            return;
+        }
+        compactLock.lock();
+        try {
+            // 시각을 모니터 안에서 정해야, 그 이전 시각의 레코드가 모두 이미 기록되어 있음이 보장됩니다.
+            long until;
+            monitor.lock();
+            try {
+                if (dictionary.find(userId, videoId) == null) {
+                    return; // 저널에 기록된 적 없는 영상
+                }
+                until = System.currentTimeMillis();
+            } finally {
+                monitor.unlock();
+            }
+            mark(discardedUntil, videoKey(userId, videoId), until);
+            discardRepository.save(new JournalDiscard(userId, videoId, until));
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    /**
+     * 사용자의 아직 반영되지 않은 모든 레코드를 버립니다. (전체 삭제 시 사용)
+     * 삭제 표시는 호출한 쪽 트랜잭션에 저장됩니다.
+     */
+    public void discardAll(String userId) {
+        if (!enabled) {
+            return;
+        }
+        compactLock.lock();
+        try {
+            long until;
+            monitor.lock();
+            try {
+                until = System.currentTimeMillis();
+            } finally {
+                monitor.unlock();
+            }
+            mark(discardedAllUntil, userId, until);
+            discardRepository.save(new JournalDiscard(userId, null, until));
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    // 메모리 삭제 표시를 두고, 호출한 쪽 트랜잭션이 롤백되면 되돌립니다.
+    private static void mark(Map<String, Long> markers, String key, long until) {
+        markers.merge(key, until, Math::max);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    markers.remove(key, until);
+                }
+            }
+        });
+    }
+
+    /**
+     * 체크포인트 이후 레코드를 최대 MAX_RECORDS_PER_COMPACTION개까지 한 트랜잭션으로 반영하고,
+     * 같은 트랜잭션에서 체크포인트를 옮깁니다.
+     *
+     * @return 읽은 레코드 수
+     */
+    public int compact() {
+        compactLock.lock();
+        try {
+            List<JournalSegment> snapshot;
+            long snapshotMillis;
+            monitor.lock();
+            try {
+                snapshot = new ArrayList<>(segments);
+                // 반영 전에 아직 디스크에 내려가지 않은 기록을 동기화
+                active.force();
+                // 이 시각 이전의 레코드는 모두 snapshot의 세그먼트에 있음
+                snapshotMillis = System.currentTimeMillis();
+            } finally {
+                monitor.unlock();
+            }
+
+            Integer read = transactionTemplate.execute(status -> {
+                JournalCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_ID)
+                        .orElseGet(JournalCheckpoint::initial);
+                List<JournalDiscard> stored = discardRepository.findAll();
+
+                long segmentIndex = checkpoint.getSegmentIndex();
+                int offset = checkpoint.getRecordOffset();
+
+                // 저널 디렉터리가 교체/삭제된 경우 체크포인트가 현재 세그먼트보다 앞서 있으므로 처음부터 읽음
+                JournalSegment last = snapshot.get(snapshot.size() - 1);
+                if (segmentIndex > last.getIndex() || (segmentIndex == last.getIndex() && offset > last.count())) {
+                    System.out.println("⚠️ Journal checkpoint is ahead of the journal files, replaying from start");
+                    segmentIndex = snapshot.get(0).getIndex();
+                    offset = 0;
+                }
+
+                List<HeartbeatRecord> records = new ArrayList<>();
+                for (JournalSegment segment : snapshot) {
+                    if (segment.getIndex() < segmentIndex || records.size() >= MAX_RECORDS_PER_COMPACTION) {
+                        continue;
+                    }
+                    int from = segment.getIndex() == segmentIndex ? offset : 0;
+                    int to = Math.min(segment.count(), from + MAX_RECORDS_PER_COMPACTION - records.size());
+                    records.addAll(segment.read(from, to));
+                    segmentIndex = segment.getIndex();
+                    offset = to;
+                }
+
+                if (!records.isEmpty()) {
+                    batchWriter.write(fold(records, discards(stored)));
+                    checkpoint.advanceTo(segmentIndex, offset);
+                    checkpointRepository.save(checkpoint);
+                }
+                // 따라잡았으면 snapshot 이전 시각의 삭제 표시는 더 가릴 레코드가 없으므로 체크포인트와 함께 정리
+                if (records.size() < MAX_RECORDS_PER_COMPACTION) {
+                    discardRepository.deleteAllInBatch(stored.stream()
+                            .filter(discard -> discard.getDiscardedAtMillis() <= snapshotMillis)
+                            .toList());
+                }
+                return records.size();
+            });
+
+            if (read != null && read < MAX_RECORDS_PER_COMPACTION) {
+                discardedUntil.values().removeIf(until -> until <= snapshotMillis);
+                discardedAllUntil.values().removeIf(until -> until <= snapshotMillis);
+            }
+            return read == null ? 0 : read;
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    private int compactAll() {
+        int total = 0;
+        int read;
+        do {
+            read = compact();
+            total += read;
+        } while (read == MAX_RECORDS_PER_COMPACTION);
+        return total;
+    }
+
+    private void compactQuietly() {
+        try {
+            compactAll();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Heartbeat journal compaction failed, will retry", e);
+        }
+    }
+
+    /**
+     * 레코드를 (영상, 시간대) 단위로 병합합니다.
+     * 시간대별로 나누어 두어야 일별 집계에 학습 시각이 그대로 반영됩니다.
+     * 같은 영상의 시간대는 먼저 나온 순서대로 반영되므로 마지막 재생 위치가 유지됩니다.
+     * 삭제 표시 시각 이전에 받은 레코드는 건너뜁니다.
+     */
+    List<CoalescedHeartbeat> fold(List<HeartbeatRecord> records, Discards discards) {
+        Map<FoldKey, CoalescedHeartbeat> folded = new LinkedHashMap<>();
+        ZoneId zone = ZoneId.systemDefault();
+
+        for (HeartbeatRecord record : records) {
+            VideoDictionary.Entry entry;
+            monitor.lock();
+            try {
+                entry = dictionary.get(record.videoKey());
+            } finally {
+                monitor.unlock();
+            }
+            if (record.timestampMillis() <= discards.until(entry)) {
+                continue;
+            }
+
+            VideoProgressDto dto = record.toDto(entry);
+            LocalDateTime hour = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestampMillis()), zone)
+                    .truncatedTo(ChronoUnit.HOURS);
+
+            folded.merge(new FoldKey(record.videoKey(), hour),
+                    CoalescedHeartbeat.of(entry.userId(), dto, dto.calculatePercentage(), record.timestampMillis()),
+                    CoalescedHeartbeat::merge);
+        }
+        return new ArrayList<>(folded.values());
+    }
+
+    /**
+     * 종료 시 남은 레코드를 반영하고 파일을 닫습니다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        if (compactor != null) {
+            compactor.shutdown();
+            compactor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        try {
+            compactAll();
+        } catch (RuntimeException e) {
+            // 반영하지 못한 레코드는 다음 시작 시 체크포인트부터 재생됩니다.
+            log.warn("⚠️ Heartbeat journal final compaction skipped", e);
+        } finally {
+            closeFiles();
+        }
+    }
+
+    /**
+     * 반영하지 않고 세그먼트와 딕셔너리 파일만 닫습니다.
+     */
+    void closeFiles() throws IOException {
+        monitor.lock();
+        try {
+            for (JournalSegment segment : segments) {
+                segment.close();
+            }
+            segments.clear();
+            dictionary.close();
+        } finally {
+            monitor.unlock();
+        }
+    }
+
+    // DB에 저장된 삭제 표시와 아직 커밋되지 않았을 수 있는 메모리 표시를 합칩니다.
+    private Discards discards(List<JournalDiscard> stored) {
+        Map<String, Long> videos = new HashMap<>(discardedUntil);
+        Map<String, Long> users = new HashMap<>(discardedAllUntil);
+        for (JournalDiscard discard : stored) {
+            if (discard.getVideoId() == null) {
+                users.merge(discard.getUserId(), discard.getDiscardedAtMillis(), Math::max);
+            } else {
+                videos.merge(videoKey(discard.getUserId(), discard.getVideoId()), discard.getDiscardedAtMillis(),
+                        Math::max);
+            }
+        }
+        return new Discards(videos, users);
+    }
+
+    private static String videoKey(String userId, String videoId) {
+        return userId + '\0' + videoId;
+    }
+
+    /**
+     * 컴팩션 한 번에 적용하는 삭제 표시
+     *
+     * @param videos (사용자, videoId) -> 이 시각 이전의 레코드는 반영하지 않음
+     * @param users  사용자 ID -> 이 시각 이전의 레코드는 반영하지 않음
+     */
+    record Discards(Map<String, Long> videos, Map<String, Long> users) {
+
+        static final Discards NONE = new Discards(Map.of(), Map.of());
+
+        long until(VideoDictionary.Entry entry) {
+            return Math.max(users.getOrDefault(entry.userId(), Long.MIN_VALUE),
+                    videos.getOrDefault(videoKey(entry.userId(), entry.videoId()), Long.MIN_VALUE));
+        }
+    }
+
+    private record FoldKey(int videoKey, LocalDateTime hour) {
+    }
+}
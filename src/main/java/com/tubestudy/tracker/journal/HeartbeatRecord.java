@@ -0,0 +1,28 @@
+package com.tubestudy.tracker.journal;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+
+/**
+ * 저널에 기록되는 고정 길이 하트비트 레코드
+ * 문자열 메타데이터는 VideoDictionary의 정수 키로 대체합니다.
+ *
+ * @param videoKey                VideoDictionary 키
+ * @param timestampMillis         수신 시각 (epoch millis)
+ * @param positionSeconds         현재 재생 위치
+ * @param accumulatedStudySeconds 지난 하트비트 이후 누적된 학습 시간
+ * @param durationSeconds         영상 전체 길이
+ */
+record HeartbeatRecord(int videoKey, long timestampMillis, double positionSeconds,
+        double accumulatedStudySeconds, double durationSeconds) {
+
+    VideoProgressDto toDto(VideoDictionary.Entry entry) {
+        return VideoProgressDto.builder()
+                .videoId(entry.videoId())
+                .title(entry.title())
+                .channel(entry.channel())
+                .totalDurationSeconds(durationSeconds)
+                .lastProgressSeconds(positionSeconds)
+                .accumulatedStudySeconds(accumulatedStudySeconds)
+                .build();
+    }
+}
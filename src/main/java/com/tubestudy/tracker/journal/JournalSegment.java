@@ -0,0 +1,122 @@
+package com.tubestudy.tracker.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 메모리 매핑된 고정 크기 저널 세그먼트 파일
+ * 파일을 미리 할당해 두고 레코드를 순차적으로 덧붙입니다.
+ *
+ * 레코드 레이아웃 (40바이트):
+ * [magic int][videoKey int][timestamp long][position double][accumulated double][duration double]
+ * magic은 나머지 필드를 모두 쓴 뒤 마지막에 기록하므로, 쓰는 도중 종료된 레코드는 재시작 시 무시됩니다.
+ */
+final class JournalSegment implements Closeable {
+
+    static final int RECORD_SIZE = 40;
+    private static final int MAGIC = 0x54534842; // "TSHB"
+
+    private final long index;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    // 완전히 기록된 레코드 수. 쓰기는 HeartbeatJournal 모니터 안에서만 일어나고,
+    // volatile 쓰기 이후 컴팩터가 읽으므로 그 이전 레코드 바이트는 모두 보입니다.
+    private volatile int count;
+
+    private JournalSegment(long index, FileChannel channel, MappedByteBuffer buffer, int capacity, int count) {
+        this.index = index;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.count = count;
+    }
+
+    static Path pathOf(Path directory, long index) {
+        return directory.resolve(String.format("segment-%010d.log", index));
+    }
+
+    /**
+     * 세그먼트를 열거나 새로 만듭니다.
+     * 기존 파일은 파일 크기로 용량을 정하고, 유효한 레코드 끝까지 읽어 쓰기 위치를 복원합니다.
+     */
+    static JournalSegment open(Path directory, long index, int defaultCapacity) throws IOException {
+        Path path = pathOf(directory, index);
+        long existingSize = Files.exists(path) ? Files.size(path) : 0;
+        int capacity = existingSize >= RECORD_SIZE ? (int) (existingSize / RECORD_SIZE) : defaultCapacity;
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+
+        int count = 0;
+        while (count < capacity && buffer.getInt(count * RECORD_SIZE) == MAGIC) {
+            count++;
+        }
+        return new JournalSegment(index, channel, buffer, capacity, count);
+    }
+
+    long getIndex() {
+        return index;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * 레코드를 덧붙입니다. 세그먼트가 가득 찼으면 false를 반환합니다.
+     */
+    boolean append(HeartbeatRecord record) {
+        if (count == capacity) {
+            return false;
+        }
+        int offset = count * RECORD_SIZE;
+        buffer.putInt(offset + 4, record.videoKey());
+        buffer.putLong(offset + 8, record.timestampMillis());
+        buffer.putDouble(offset + 16, record.positionSeconds());
+        buffer.putDouble(offset + 24, record.accumulatedStudySeconds());
+        buffer.putDouble(offset + 32, record.durationSeconds());
+        buffer.putInt(offset, MAGIC);
+        count++;
+        return true;
+    }
+
+    /**
+     * [from, to) 범위의 레코드를 읽습니다.
+     */
+    List<HeartbeatRecord> read(int from, int to) {
+        List<HeartbeatRecord> records = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            int offset = i * RECORD_SIZE;
+            records.add(new HeartbeatRecord(
+                    buffer.getInt(offset + 4),
+                    buffer.getLong(offset + 8),
+                    buffer.getDouble(offset + 16),
+                    buffer.getDouble(offset + 24),
+                    buffer.getDouble(offset + 32)));
+        }
+        return records;
+    }
+
+    /**
+     * 매핑된 변경 내용을 디스크에 동기화합니다.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
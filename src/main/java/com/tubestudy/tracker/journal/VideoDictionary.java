@@ -0,0 +1,119 @@
+package com.tubestudy.tracker.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (사용자, videoId)와 메타데이터(제목, 채널)를 정수 키로 매핑하는 추가 전용 딕셔너리 파일
+ * 제목/채널이 바뀌면 같은 키로 새 항목을 덧붙이며, 읽을 때는 마지막 항목이 우선합니다.
+ * 이 클래스는 스레드 안전하지 않으며 HeartbeatJournal 모니터 안에서만 사용됩니다.
+ */
+final class VideoDictionary implements Closeable {
+
+    record Entry(int key, String userId, String videoId, String title, String channel) {
+    }
+
+    // "userId\0videoId" -> 항목
+    private final Map<String, Entry> byVideoId = new HashMap<>();
+    private final List<Entry> byKey = new ArrayList<>();
+    private final DataOutputStream out;
+
+    private VideoDictionary(DataOutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * 딕셔너리 파일을 읽어 복원합니다.
+     * 마지막 항목이 쓰는 도중 잘렸다면 그 부분을 잘라내고 이어서 기록합니다.
+     */
+    static VideoDictionary open(Path file) throws IOException {
+        byte[] bytes = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+        ByteArrayInputStream source = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(source);
+
+        List<Entry> entries = new ArrayList<>();
+        long validLength = 0;
+        try {
+            while (source.available() > 0) {
+                entries.add(new Entry(in.readInt(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF()));
+                validLength = bytes.length - source.available();
+            }
+        } catch (EOFException e) {
+            System.out.println("⚠️ Truncated journal dictionary entry discarded at byte " + validLength);
+        }
+
+        if (validLength < bytes.length) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+
+        VideoDictionary dictionary = new VideoDictionary(new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND))));
+        entries.forEach(dictionary::index);
+        return dictionary;
+    }
+
+    /**
+     * 사용자 영상의 키를 반환합니다. 처음 보는 영상이거나 메타데이터가 바뀌었으면 항목을 기록합니다.
+     */
+    Entry resolve(String userId, String videoId, String title, String channel) throws IOException {
+        String safeTitle = title == null ? "" : title;
+        String safeChannel = channel == null ? "" : channel;
+
+        Entry current = byVideoId.get(lookupKey(userId, videoId));
+        if (current != null && current.title().equals(safeTitle) && current.channel().equals(safeChannel)) {
+            return current;
+        }
+
+        Entry entry = new Entry(current != null ? current.key() : byKey.size(), userId, videoId, safeTitle,
+                safeChannel);
+        out.writeInt(entry.key());
+        out.writeUTF(entry.userId());
+        out.writeUTF(entry.videoId());
+        out.writeUTF(entry.title());
+        out.writeUTF(entry.channel());
+        out.flush();
+        index(entry);
+        return entry;
+    }
+
+    Entry find(String userId, String videoId) {
+        return byVideoId.get(lookupKey(userId, videoId));
+    }
+
+    Entry get(int key) {
+        return byKey.get(key);
+    }
+
+    private void index(Entry entry) {
+        if (entry.key() == byKey.size()) {
+            byKey.add(entry);
+        } else {
+            byKey.set(entry.key(), entry);
+        }
+        byVideoId.put(lookupKey(entry.userId(), entry.videoId()), entry);
+    }
+
+    private static String lookupKey(String userId, String videoId) {
+        return userId + '\0' + videoId;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
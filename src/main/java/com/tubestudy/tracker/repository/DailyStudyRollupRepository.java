@@ -0,0 +1,84 @@
+package com.tubestudy.tracker.repository;
+
+import com.tubestudy.tracker.entity.DailyStudyRollup;
+import com.tubestudy.tracker.repository.projection.BucketStudyTime;
+import com.tubestudy.tracker.repository.projection.DateStudyTime;
+import com.tubestudy.tracker.repository.projection.SubjectStudyTime;
+import com.tubestudy.tracker.repository.projection.UserDateSubjectStudyTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyStudyRollupRepository extends JpaRepository<DailyStudyRollup, Long> {
+
+    // (사용자, 날짜, 과목, 시간대) 버킷에 학습 시간을 더합니다. 버킷이 없으면 새로 만듭니다. (단일 MERGE 문)
+    @Modifying
+    @Query(value = "MERGE INTO daily_study_rollup r "
+            + "USING (VALUES (CAST(:userId AS VARCHAR(64)), CAST(:studyDate AS DATE), CAST(:subject AS VARCHAR(255)), "
+            + "CAST(:studyHour AS INT), CAST(:seconds AS DOUBLE PRECISION))) "
+            + "AS s(user_id, study_date, subject, study_hour, study_seconds) "
+            + "ON r.user_id = s.user_id AND r.study_date = s.study_date AND r.subject = s.subject "
+            + "AND r.study_hour = s.study_hour "
+            + "WHEN MATCHED THEN UPDATE SET study_seconds = r.study_seconds + s.study_seconds "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, study_date, subject, study_hour, study_seconds) "
+            + "VALUES (s.user_id, s.study_date, s.subject, s.study_hour, s.study_seconds)", nativeQuery = true)
+    void addStudySeconds(@Param("userId") String userId, @Param("studyDate") LocalDate studyDate,
+            @Param("subject") String subject, @Param("studyHour") int studyHour, @Param("seconds") double seconds);
+
+    // 버킷에서 학습 시간을 차감합니다. (DB에서 계산하므로 동시에 더해지는 학습 시간이 유실되지 않음, 0 아래로는 내려가지 않음)
+    @Modifying
+    @Query("update DailyStudyRollup r set r.studySeconds = greatest(r.studySeconds - :seconds, 0.0) where r.id = :id")
+    int subtractStudySeconds(@Param("id") Long id, @Param("seconds") double seconds);
+
+    // 특정 과목의 버킷을 최신순으로 조회 (기록 삭제 시 학습 시간 차감용)
+    List<DailyStudyRollup> findByUserIdAndSubjectAndStudyDateLessThanEqualOrderByStudyDateDescStudyHourDesc(
+            String userId, String subject, LocalDate to);
+
+    // 사용자의 집계 버킷 수
+    long countByUserId(String userId);
+
+    // 사용자의 집계 삭제
+    @Modifying
+    @Query("delete from DailyStudyRollup r where r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") String userId);
+
+    // 전체 학습 시간 합계
+    @Query("select coalesce(sum(r.studySeconds), 0) from DailyStudyRollup r where r.userId = :userId")
+    double sumStudySeconds(@Param("userId") String userId);
+
+    // 과목별 학습 시간 합계 (전체 기간)
+    @Query("select new com.tubestudy.tracker.repository.projection.SubjectStudyTime(r.subject, sum(r.studySeconds)) "
+            + "from DailyStudyRollup r where r.userId = :userId group by r.subject")
+    List<SubjectStudyTime> sumBySubject(@Param("userId") String userId);
+
+    // 과목별 학습 시간 합계 (특정 날짜 이후)
+    @Query("select new com.tubestudy.tracker.repository.projection.SubjectStudyTime(r.subject, sum(r.studySeconds)) "
+            + "from DailyStudyRollup r where r.userId = :userId and r.studyDate >= :from group by r.subject")
+    List<SubjectStudyTime> sumBySubjectSince(@Param("userId") String userId, @Param("from") LocalDate from);
+
+    // 날짜별 학습 시간 합계 (특정 날짜 이후)
+    @Query("select new com.tubestudy.tracker.repository.projection.DateStudyTime(r.studyDate, sum(r.studySeconds)) "
+            + "from DailyStudyRollup r where r.userId = :userId and r.studyDate >= :from group by r.studyDate")
+    List<DateStudyTime> sumByDateSince(@Param("userId") String userId, @Param("from") LocalDate from);
+
+    // 시간대(0-23)별 학습 시간 합계
+    @Query("select new com.tubestudy.tracker.repository.projection.BucketStudyTime(r.studyHour, sum(r.studySeconds)) "
+            + "from DailyStudyRollup r where r.userId = :userId group by r.studyHour")
+    List<BucketStudyTime> sumByHour(@Param("userId") String userId);
+
+    // 요일별 학습 시간 합계 (1=일요일 ... 7=토요일)
+    @Query("select new com.tubestudy.tracker.repository.projection.BucketStudyTime("
+            + "extract(day of week from r.studyDate), sum(r.studySeconds)) "
+            + "from DailyStudyRollup r where r.userId = :userId group by extract(day of week from r.studyDate)")
+    List<BucketStudyTime> sumByDayOfWeek(@Param("userId") String userId);
+
+    // 전체 사용자의 날짜·과목별 학습 시간 합계 (구간 분석 색인 구성용)
+    @Query("select new com.tubestudy.tracker.repository.projection.UserDateSubjectStudyTime("
+            + "r.userId, r.studyDate, r.subject, sum(r.studySeconds)) "
+            + "from DailyStudyRollup r group by r.userId, r.studyDate, r.subject")
+    List<UserDateSubjectStudyTime> sumByUserDateAndSubject();
+}
@@ -5,19 +5,33 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
+// 모든 조회는 사용자(userId) 단위로 이루어집니다.
 @Repository
 public interface DistractionKeywordRepository extends JpaRepository<DistractionKeyword, Long> {
 
+    // 사용자의 키워드 조회 (소유자 확인용)
+    Optional<DistractionKeyword> findByIdAndUserId(Long id, String userId);
+
+    // 사용자의 모든 키워드 조회
+    List<DistractionKeyword> findAllByUserId(String userId);
+
     // 활성화된 모든 키워드 조회
-    List<DistractionKeyword> findAllByIsActiveTrue();
+    List<DistractionKeyword> findAllByUserIdAndIsActiveTrue(String userId);
+
+    // 활성화된 키워드를 등록 순서(우선순위)대로 조회 (딴짓 매처 컴파일용)
+    List<DistractionKeyword> findAllByUserIdAndIsActiveTrueOrderByIdAsc(String userId);
+
+    // 사용자의 키워드 수 (기본 키워드 등록 여부 확인용)
+    long countByUserId(String userId);
 
     // 키워드로 검색
-    DistractionKeyword findByKeyword(String keyword);
+    DistractionKeyword findByUserIdAndKeyword(String userId, String keyword);
 
     // 카테고리별 조회
-    List<DistractionKeyword> findByCategory(String category);
+    List<DistractionKeyword> findByUserIdAndCategory(String userId, String category);
 
     // 사용자 커스텀 키워드 조회
-    List<DistractionKeyword> findByIsCustomTrue();
+    List<DistractionKeyword> findByUserIdAndIsCustomTrue(String userId);
 }
@@ -0,0 +1,8 @@
+package com.tubestudy.tracker.repository;
+
+import com.tubestudy.tracker.entity.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, Long> {
+
+}
@@ -0,0 +1,8 @@
+package com.tubestudy.tracker.repository;
+
+import com.tubestudy.tracker.entity.JournalDiscard;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JournalDiscardRepository extends JpaRepository<JournalDiscard, Long> {
+
+}
@@ -3,6 +3,10 @@ package com.tubestudy.tracker.repository;
 import com.tubestudy.tracker.entity.Settings;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface SettingsRepository extends JpaRepository<Settings, Long> {
 
-}
\ No newline at end of file
+    // 사용자별 설정 조회 (사용자당 하나의 레코드)
+    Optional<Settings> findByUserId(String userId);
+}
@@ -2,9 +2,18 @@ package com.tubestudy.tracker.repository;
 
 import com.tubestudy.tracker.entity.StudyStreak;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface StudyStreakRepository extends JpaRepository<StudyStreak, Long> {
-    // 기본 스트릭 조회 (ID = 1로 고정)
-    Optional<StudyStreak> findById(Long id);
+    // 사용자별 스트릭 조회 (사용자당 하나의 레코드)
+    Optional<StudyStreak> findByUserId(String userId);
+
+    // 사용자의 스트릭 삭제
+    @Modifying
+    @Query("delete from StudyStreak s where s.userId = :userId")
+    int deleteAllByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,17 @@
+package com.tubestudy.tracker.repository;
+
+import com.tubestudy.tracker.entity.SubjectRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// 과목 분류 규칙은 모든 사용자가 함께 사용합니다.
+@Repository
+public interface SubjectRuleRepository extends JpaRepository<SubjectRule, Long> {
+
+    // 적용 순서(우선순위, 등록 순)대로 조회 (분류기 컴파일용)
+    List<SubjectRule> findAllByOrderByPriorityAscIdAsc();
+
+    boolean existsBySubject(String subject);
+}
@@ -1,26 +1,82 @@
 package com.tubestudy.tracker.repository;
 
 import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.projection.DateVideoCount;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.Optional;
 import java.time.LocalDateTime;
 import java.util.List;
 
 // <엔티티 타입, ID 타입>
-public interface VideoProgressRepository extends JpaRepository<VideoProgress, Long> {
+// 모든 조회/삭제는 사용자(userId) 단위로 이루어집니다.
+// 하트비트 반영(생성/누적)은 VideoProgressUpsertRepository의 MERGE 업서트를 사용합니다.
+public interface VideoProgressRepository
+        extends JpaRepository<VideoProgress, Long>, VideoProgressUpsertRepository {
     // findById, findAll, save 등은 JpaRepository에서 이미 제공됩니다.
-    Optional<VideoProgress> findByVideoId(String videoId);
+    Optional<VideoProgress> findByUserIdAndVideoId(String userId, String videoId);
 
     // 가장 최근 동기화된 시간을 기준으로 최상위(Top) 1개의 영상을 찾습니다.
-    Optional<VideoProgress> findTopByOrderByLastSyncedAtDesc();
+    Optional<VideoProgress> findTopByUserIdOrderByLastSyncedAtDesc(String userId);
 
-    // 모든 영상을 마지막 동기화 시간 내림차순으로 조회합니다.
-    List<VideoProgress> findAllByOrderByLastSyncedAtDesc();
+    // 사용자의 전체 시청 영상 수
+    long countByUserId(String userId);
 
-    // 특정 기간 내 동기화된 기록만 조회합니다.
-    List<VideoProgress> findByLastSyncedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    // 코스 목록 첫 페이지: 마지막 동기화 시간 내림차순 (완료 여부/채널 필터는 null이면 무시)
+    @Query("select v from VideoProgress v "
+            + "where v.userId = :userId "
+            + "and (:completed is null or v.isCompleted = :completed) "
+            + "and (:channel is null or v.channel = :channel) "
+            + "order by v.lastSyncedAt desc, v.id desc")
+    List<VideoProgress> findCoursePage(@Param("userId") String userId, @Param("completed") Boolean completed,
+            @Param("channel") String channel, Limit limit);
+
+    // 코스 목록 다음 페이지: 커서 (lastSyncedAt, id) 바로 뒤부터 조회합니다. (키셋 페이지네이션)
+    @Query("select v from VideoProgress v "
+            + "where v.userId = :userId "
+            + "and (:completed is null or v.isCompleted = :completed) "
+            + "and (:channel is null or v.channel = :channel) "
+            + "and (v.lastSyncedAt < :cursorAt or (v.lastSyncedAt = :cursorAt and v.id < :cursorId)) "
+            + "order by v.lastSyncedAt desc, v.id desc")
+    List<VideoProgress> findCoursePageAfter(@Param("userId") String userId, @Param("completed") Boolean completed,
+            @Param("channel") String channel, @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId, Limit limit);
+
+    // 특정 시각 이후 동기화된 기록 수를 마지막 동기화 날짜별로 셉니다.
+    @Query("select new com.tubestudy.tracker.repository.projection.DateVideoCount("
+            + "cast(v.lastSyncedAt as LocalDate), count(v)) "
+            + "from VideoProgress v where v.userId = :userId and v.lastSyncedAt >= :from "
+            + "group by cast(v.lastSyncedAt as LocalDate)")
+    List<DateVideoCount> countByLastSyncedDateSince(@Param("userId") String userId,
+            @Param("from") LocalDateTime from);
+
+    // 사용자의 기록을 id 순으로 한 페이지씩 조회합니다. (CSV 내보내기용 키셋 페이지네이션)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<VideoProgress> findByUserIdAndIdGreaterThanOrderByIdAsc(String userId, Long id, Limit limit);
+
+    // 전체 기록을 id 순으로 한 페이지씩 조회합니다. (과목 재분류용 키셋 페이지네이션)
+    List<VideoProgress> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // 과목이 아직 저장되지 않은 기록이 있는지 (과목 컬럼 추가 전 기록)
+    boolean existsBySubjectIsNull();
+
+    // 과목만 변경합니다. (다른 컬럼은 동시에 MERGE로 누적될 수 있으므로 엔티티 전체를 저장하지 않음)
+    @Modifying
+    @Query("update VideoProgress v set v.subject = :subject where v.id = :id")
+    int updateSubject(@Param("id") Long id, @Param("subject") String subject);
 
     // videoId로 모든 기록 삭제합니다.
-    void deleteByVideoId(String videoId);
+    void deleteByUserIdAndVideoId(String userId, String videoId);
+
+    // 사용자의 모든 기록을 한 번의 DELETE로 삭제합니다.
+    @Modifying
+    @Query("delete from VideoProgress v where v.userId = :userId")
+    int deleteAllByUserId(@Param("userId") String userId);
 
-}
\ No newline at end of file
+}
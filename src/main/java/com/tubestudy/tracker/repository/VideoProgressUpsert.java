@@ -0,0 +1,16 @@
+package com.tubestudy.tracker.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * VideoProgress 업서트 한 건에 필요한 값
+ *
+ * @param subject            제목으로 분류한 과목 (신규 생성 시에만 저장)
+ * @param studySeconds       이번에 더할 학습 시간
+ * @param progressPercentage 이번 하트비트(또는 병합된 하트비트)의 최고 진행률 (0~100)
+ * @param syncedAt           동기화 시각 (last_synced_at, 신규 생성 시 created_at)
+ */
+public record VideoProgressUpsert(String userId, String videoId, String title, String channel, String subject,
+        double totalDurationSeconds, double lastProgressSeconds, double studySeconds, int progressPercentage,
+        LocalDateTime syncedAt) {
+}
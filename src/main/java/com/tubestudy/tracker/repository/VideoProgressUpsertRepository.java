@@ -0,0 +1,20 @@
+package com.tubestudy.tracker.repository;
+
+import java.util.List;
+
+/**
+ * VideoProgress 단일 문장 업서트 (VideoProgressRepository 커스텀 프래그먼트)
+ * 조회 후 저장하는 대신 MERGE 한 문장으로 생성/누적하므로, 읽은 값을 덮어써 누적이 유실되는 일이 없습니다.
+ * H2는 같은 키를 동시에 INSERT하는 두 MERGE 중 하나를 유니크 제약 위반으로 실패시키므로,
+ * 한 노드 안에서는 같은 사용자의 업서트를 호출하는 쪽에서 직렬화합니다. (TenantLocks, 또는 단일 플러시/컴팩터 스레드)
+ * 여러 노드 사이의 충돌은 단건 업서트가 한 번 더 실행해 누적 분기로 반영합니다.
+ */
+public interface VideoProgressUpsertRepository {
+
+    // 기록이 없으면 생성하고, 있으면 학습 시간 누적/재생 위치/최고 진도/완료 상태를 반영합니다.
+    // 새로 생성했으면 true를 반환합니다.
+    boolean upsertProgress(VideoProgressUpsert row);
+
+    // 여러 건을 JDBC 배치로 업서트합니다. 같은 영상이 여러 번 나오면 순서대로 누적됩니다.
+    void upsertProgress(List<VideoProgressUpsert> rows);
+}
@@ -0,0 +1,88 @@
+package com.tubestudy.tracker.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * H2 MERGE 문으로 VideoProgress를 업서트합니다.
+ * (user_id, video_id) 유니크 키로 대상 행을 찾고, 최고 진도는 GREATEST로, 완료 상태는 OR로 반영해
+ * 한번 도달한 값이 줄어들지 않습니다. 98% 이상이면 완료로 보고, 신규 생성 시에는 최고 진도를 100으로 보정합니다.
+ * 과목은 신규 생성 시에만 저장합니다. (이후 변경은 분류 규칙이 바뀔 때 SubjectReclassifier가 집계와 함께 옮김)
+ * JdbcTemplate은 JPA 트랜잭션의 커넥션을 그대로 사용하므로 호출한 쪽 트랜잭션에 참여합니다.
+ */
+@RequiredArgsConstructor
+class VideoProgressUpsertRepositoryImpl implements VideoProgressUpsertRepository {
+
+    // JDBC 배치 한 번에 보낼 최대 문장 수
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_SQL = "MERGE INTO video_progress v "
+            + "USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), "
+            + "CAST(? AS DOUBLE PRECISION), CAST(? AS DOUBLE PRECISION), CAST(? AS INT), CAST(? AS TIMESTAMP))) "
+            + "AS s(user_id, video_id, title, channel, subject, total_duration_seconds, last_progress_seconds, "
+            + "study_seconds, progress_percentage, synced_at) "
+            + "ON v.user_id = s.user_id AND v.video_id = s.video_id "
+            + "WHEN MATCHED THEN UPDATE SET "
+            + "study_time_seconds = v.study_time_seconds + s.study_seconds, "
+            + "last_progress_seconds = s.last_progress_seconds, "
+            + "last_synced_at = s.synced_at, "
+            + "highest_progress_percentage = GREATEST(v.highest_progress_percentage, s.progress_percentage), "
+            + "is_completed = v.is_completed OR s.progress_percentage >= 98 "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, video_id, title, channel, subject, total_duration_seconds, "
+            + "last_progress_seconds, study_time_seconds, last_synced_at, created_at, "
+            + "highest_progress_percentage, is_completed) "
+            + "VALUES (s.user_id, s.video_id, s.title, s.channel, s.subject, s.total_duration_seconds, "
+            + "s.last_progress_seconds, s.study_seconds, s.synced_at, s.synced_at, "
+            + "CASE WHEN s.progress_percentage >= 98 THEN 100 ELSE s.progress_percentage END, "
+            + "s.progress_percentage >= 98)";
+
+    // 단건 업서트는 변경 전 행(OLD TABLE)의 수로 신규 생성 여부를 함께 알아냅니다. (0이면 신규)
+    private static final String UPSERT_RETURNING_OLD_COUNT_SQL = "SELECT COUNT(*) FROM OLD TABLE (" + UPSERT_SQL + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean upsertProgress(VideoProgressUpsert row) {
+        try {
+            return upsertReturningOldCount(row) == 0;
+        } catch (DuplicateKeyException e) {
+            // 다른 노드가 같은 영상의 첫 기록을 먼저 만든 경우: 이제 행이 있으므로 다시 실행하면 누적 분기로 반영됩니다.
+            // (H2는 실패한 문장만 되돌리므로 트랜잭션은 그대로 이어집니다.)
+            return upsertReturningOldCount(row) == 0;
+        }
+    }
+
+    @Override
+    public void upsertProgress(List<VideoProgressUpsert> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, BATCH_SIZE, this::bind);
+    }
+
+    private int upsertReturningOldCount(VideoProgressUpsert row) {
+        Integer oldRows = jdbcTemplate.query(UPSERT_RETURNING_OLD_COUNT_SQL, ps -> bind(ps, row),
+                rs -> rs.next() ? rs.getInt(1) : 0);
+        return oldRows == null ? 0 : oldRows;
+    }
+
+    private void bind(PreparedStatement ps, VideoProgressUpsert row) throws SQLException {
+        ps.setString(1, row.userId());
+        ps.setString(2, row.videoId());
+        ps.setString(3, row.title());
+        ps.setString(4, row.channel());
+        ps.setString(5, row.subject());
+        ps.setDouble(6, row.totalDurationSeconds());
+        ps.setDouble(7, row.lastProgressSeconds());
+        ps.setDouble(8, row.studySeconds());
+        ps.setInt(9, row.progressPercentage());
+        ps.setTimestamp(10, Timestamp.valueOf(row.syncedAt()));
+    }
+}
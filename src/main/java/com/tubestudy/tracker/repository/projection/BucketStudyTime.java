@@ -0,0 +1,7 @@
+package com.tubestudy.tracker.repository.projection;
+
+/**
+ * 정수 버킷(시간대, 요일 등)별 학습 시간 합계
+ */
+public record BucketStudyTime(int bucket, double studySeconds) {
+}
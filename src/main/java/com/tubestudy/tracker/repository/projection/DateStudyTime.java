@@ -0,0 +1,9 @@
+package com.tubestudy.tracker.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * 날짜별 학습 시간 합계
+ */
+public record DateStudyTime(LocalDate date, double studySeconds) {
+}
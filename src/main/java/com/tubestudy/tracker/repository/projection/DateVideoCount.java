@@ -0,0 +1,9 @@
+package com.tubestudy.tracker.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * 날짜별 (마지막 동기화 기준) 시청 영상 수
+ */
+public record DateVideoCount(LocalDate date, long videoCount) {
+}
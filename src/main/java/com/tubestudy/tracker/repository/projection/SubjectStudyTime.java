@@ -0,0 +1,7 @@
+package com.tubestudy.tracker.repository.projection;
+
+/**
+ * 과목별 학습 시간 합계
+ */
+public record SubjectStudyTime(String subject, double studySeconds) {
+}
@@ -0,0 +1,9 @@
+package com.tubestudy.tracker.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * 사용자·날짜·과목별 학습 시간 합계
+ */
+public record UserDateSubjectStudyTime(String userId, LocalDate date, String subject, double studySeconds) {
+}
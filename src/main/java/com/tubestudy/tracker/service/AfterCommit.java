@@ -0,0 +1,28 @@
+package com.tubestudy.tracker.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 현재 트랜잭션이 커밋된 뒤에 실행할 작업을 등록하는 헬퍼
+ * 메모리 캐시 무효화처럼 롤백되면 안 되는 부수 효과에 사용합니다.
+ * 트랜잭션 밖에서 호출되면 즉시 실행합니다.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
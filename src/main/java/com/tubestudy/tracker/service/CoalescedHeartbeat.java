@@ -0,0 +1,66 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import lombok.Getter;
+
+/**
+ * 한 사용자의 한 영상에 대해 병합된 하트비트 (불변)
+ * 학습 시간은 합산하고, 재생 위치/메타데이터는 가장 최근 값을, 진행률은 최고값을 유지합니다.
+ * 쓰기 지연 버퍼와 하트비트 저널 컴팩터가 VideoProgressBatchWriter에 넘기는 단위입니다.
+ */
+@Getter
+public final class CoalescedHeartbeat {
+    private final String userId;
+    private final String videoId;
+    private final String title;
+    private final String channel;
+    private final double totalDurationSeconds;
+    private final double lastProgressSeconds;
+    private final double accumulatedStudySeconds;
+    private final int highestPercentage;
+    private final long firstReceivedAt;
+    private final long lastReceivedAt;
+
+    private CoalescedHeartbeat(String userId, String videoId, String title, String channel, double totalDurationSeconds,
+            double lastProgressSeconds, double accumulatedStudySeconds, int highestPercentage,
+            long firstReceivedAt, long lastReceivedAt) {
+        this.userId = userId;
+        this.videoId = videoId;
+        this.title = title;
+        this.channel = channel;
+        this.totalDurationSeconds = totalDurationSeconds;
+        this.lastProgressSeconds = lastProgressSeconds;
+        this.accumulatedStudySeconds = accumulatedStudySeconds;
+        this.highestPercentage = highestPercentage;
+        this.firstReceivedAt = firstReceivedAt;
+        this.lastReceivedAt = lastReceivedAt;
+    }
+
+    public static CoalescedHeartbeat of(String userId, VideoProgressDto dto, int percentage, long receivedAt) {
+        return new CoalescedHeartbeat(userId, dto.getVideoId(), dto.getTitle(), dto.getChannel(),
+                dto.getTotalDurationSeconds(), dto.getLastProgressSeconds(), dto.getAccumulatedStudySeconds(),
+                percentage, receivedAt, receivedAt);
+    }
+
+    // 실패한 배치를 되돌릴 때도 쓰이므로 도착 순서와 무관하게 시각으로 최신 값을 고릅니다.
+    // 같은 시각이면 나중에 병합된 b를 최신으로 봅니다. (일괄 동기화처럼 한 요청 안의 순서를 유지)
+    public static CoalescedHeartbeat merge(CoalescedHeartbeat a, CoalescedHeartbeat b) {
+        CoalescedHeartbeat latest = a.lastReceivedAt > b.lastReceivedAt ? a : b;
+        return new CoalescedHeartbeat(latest.userId, latest.videoId, latest.title, latest.channel,
+                latest.totalDurationSeconds, latest.lastProgressSeconds,
+                a.accumulatedStudySeconds + b.accumulatedStudySeconds,
+                Math.max(a.highestPercentage, b.highestPercentage),
+                Math.min(a.firstReceivedAt, b.firstReceivedAt), latest.lastReceivedAt);
+    }
+
+    public VideoProgressDto toDto() {
+        return VideoProgressDto.builder()
+                .videoId(videoId)
+                .title(title)
+                .channel(channel)
+                .totalDurationSeconds(totalDurationSeconds)
+                .lastProgressSeconds(lastProgressSeconds)
+                .accumulatedStudySeconds(accumulatedStudySeconds)
+                .build();
+    }
+}
@@ -2,55 +2,87 @@ package com.tubestudy.tracker.service;
 
 import com.tubestudy.tracker.entity.VideoProgress;
 import com.tubestudy.tracker.repository.VideoProgressRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+/**
+ * 학습 기록 CSV 내보내기 서비스
+ * 전체 기록을 메모리에 모으지 않고, id 순으로 한 페이지씩 읽어 응답 스트림에 바로 씁니다.
+ * 기록 수와 무관하게 힙 사용량이 일정하고, 헤더는 조회 전에 바로 전송됩니다.
+ *
+ * 페이지마다 짧은 읽기 전용 트랜잭션으로 읽고, 트랜잭션을 닫은 뒤에 응답에 씁니다. (키셋 페이지네이션)
+ * 클라이언트가 느리게 받거나 멈춰도 커넥션은 응답을 쓰는 동안 풀에 반납되어 있으므로,
+ * 내보내기가 여러 개 몰려도 동기화(/sync)가 커넥션을 기다리지 않습니다.
+ */
 @Service
-@RequiredArgsConstructor
 public class CsvExportService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // 한 트랜잭션에서 읽는 행 수
+    private static final int PAGE_SIZE = 500;
+
     private final VideoProgressRepository videoProgressRepository;
 
-    /**
-     * 모든 학습 기록을 CSV 형식으로 내보냅니다 (UTF-8 BOM 포함).
-     */
-    @Transactional(readOnly = true)
-    public byte[] exportStudyRecordsAsCsv() throws IOException {
-        List<VideoProgress> records = videoProgressRepository.findAll();
+    // 스트리밍 응답은 요청 스레드 밖에서 실행되므로 페이지마다 트랜잭션을 직접 엽니다.
+    private final TransactionTemplate readOnlyTransaction;
 
-        StringWriter stringWriter = new StringWriter();
+    public CsvExportService(VideoProgressRepository videoProgressRepository,
+            PlatformTransactionManager transactionManager) {
+        this.videoProgressRepository = videoProgressRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
-        // CSV 헤더
-        stringWriter.append("영상ID,제목,채널명,학습시간(분),마지막 진도,동기화시간\n");
+    /**
+     * 사용자의 모든 학습 기록을 CSV 형식으로 출력 스트림에 씁니다 (UTF-8 BOM 포함).
+     */
+    public void writeStudyRecordsCsv(String userId, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        // UTF-8 BOM + CSV 헤더 (첫 바이트를 바로 내보냄)
+        writer.write('\uFEFF');
+        writer.write("영상ID,제목,채널명,학습시간(분),마지막 진도,동기화시간\n");
+        writer.flush();
 
-        // 데이터 행
-        for (VideoProgress record : records) {
-            stringWriter.append(escapeCsv(record.getVideoId())).append(",");
-            stringWriter.append(escapeCsv(record.getTitle())).append(",");
-            stringWriter.append(escapeCsv(record.getChannel())).append(",");
-            long watchMinutes = Math.round(record.getStudyTimeSeconds() / 60.0);
-            stringWriter.append(String.valueOf(watchMinutes)).append(",");
-            stringWriter.append(String.valueOf(Math.round(record.getLastProgressSeconds()))).append(",");
-            stringWriter.append(record.getLastSyncedAt() != null ? record.getLastSyncedAt().format(formatter) : "")
-                    .append("\n");
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            // 트랜잭션이 끝나면 영속성 컨텍스트도 닫히므로 읽은 행이 쌓이지 않음
+            List<VideoProgress> page = readOnlyTransaction.execute(status -> videoProgressRepository
+                    .findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, Limit.of(PAGE_SIZE)));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (VideoProgress record : page) {
+                writeRow(writer, record);
+            }
+            writer.flush();
+            lastId = page.get(page.size() - 1).getId();
         }
+        writer.flush();
+    }
 
-        // UTF-8 BOM + CSV 내용
-        String csvContent = stringWriter.toString();
-        byte[] utf8Bom = new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
-        byte[] csvBytes = csvContent.getBytes("UTF-8");
-        byte[] result = new byte[utf8Bom.length + csvBytes.length];
-        System.arraycopy(utf8Bom, 0, result, 0, utf8Bom.length);
-        System.arraycopy(csvBytes, 0, result, utf8Bom.length, csvBytes.length);
-
-        return result;
+    // 데이터 행
+    private void writeRow(Writer writer, VideoProgress record) throws IOException {
+        writer.append(escapeCsv(record.getVideoId())).append(",");
+        writer.append(escapeCsv(record.getTitle())).append(",");
+        writer.append(escapeCsv(record.getChannel())).append(",");
+        long watchMinutes = Math.round(record.getStudyTimeSeconds() / 60.0);
+        writer.append(String.valueOf(watchMinutes)).append(",");
+        writer.append(String.valueOf(Math.round(record.getLastProgressSeconds()))).append(",");
+        writer.append(record.getLastSyncedAt() != null ? record.getLastSyncedAt().format(FORMATTER) : "")
+                .append("\n");
     }
 
     /**
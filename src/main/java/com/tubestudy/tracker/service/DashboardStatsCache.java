@@ -0,0 +1,155 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.DashboardStatsDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 대시보드 통계 결과 캐시 (사용자, 기간, 데이터 버전별)
+ * 데이터 버전(DataVersion)이 같고 기간 경계(자정, 월요일, 매월 1일)를 넘지 않았으면 계산한 결과를 그대로 돌려줍니다.
+ * 같은 키를 동시에 요청하면 한 요청만 계산하고 나머지는 그 결과를 기다리므로(single-flight),
+ * 열린 대시보드가 많아도 기간별 계산은 데이터가 바뀔 때마다 한 번입니다.
+ * 결과는 노드마다 메모리에 두지만, 유효성은 매 조회마다 DB의 데이터 버전으로 확인하므로
+ * 여러 노드가 같은 DB를 쓸 때 다른 노드에서 커밋된 변경도 다음 조회에서 바로 반영됩니다.
+ */
+@Component
+public class DashboardStatsCache {
+
+    private final DataVersion dataVersion;
+    private final boolean enabled;
+
+    // userId -> (기간 -> 계산 중이거나 계산된 결과)
+    private final TenantCache<Map<String, Entry>> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public DashboardStatsCache(DataVersion dataVersion,
+            MeterRegistry meterRegistry,
+            @Value("${tracker.dashboard.stats-cache.enabled:true}") boolean enabled,
+            @Value("${tracker.tenant.cache-size:10000}") int cacheSize) {
+        this.dataVersion = dataVersion;
+        this.enabled = enabled;
+        this.entries = new TenantCache<>(cacheSize);
+        this.hits = lookupCounter("hit", meterRegistry);
+        this.misses = lookupCounter("miss", meterRegistry);
+        this.coalesced = lookupCounter("coalesced", meterRegistry);
+    }
+
+    private static Counter lookupCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("tracker.dashboard.stats.cache")
+                .description("Dashboard stats lookups by whether the result was computed, cached or shared")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 통계를 돌려주거나, 없으면 compute로 계산해 캐시합니다.
+     *
+     * @param periodType today / week / month / all (그 외 값은 all과 같음)
+     * @param compute    통계 계산 (캐시가 없을 때 같은 키당 한 번만 호출)
+     */
+    public DashboardStatsDto get(String userId, String periodType, Supplier<DashboardStatsDto> compute) {
+        if (!enabled) {
+            return compute.get();
+        }
+
+        // 계산보다 먼저 버전을 읽어야, 계산 중에 바뀐 데이터가 이전 버전의 결과로 남지 않음
+        long version = dataVersion.current(userId);
+        String period = normalize(periodType);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Entry> periods = entries.get(userId);
+        if (periods == null) {
+            periods = entries.merge(userId, new ConcurrentHashMap<>(), (existing, created) -> existing);
+        }
+
+        Entry fresh = new Entry(version, expiresAt(period, now));
+        Entry entry = periods.compute(period,
+                (key, existing) -> existing != null && existing.isValid(version, now) ? existing : fresh);
+
+        if (entry != fresh) {
+            if (entry.result.isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return await(entry);
+        }
+
+        misses.increment();
+        try {
+            DashboardStatsDto result = compute.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // 실패한 결과는 캐시하지 않음 (기다리던 요청에는 같은 예외를 전달)
+            periods.remove(period, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static DashboardStatsDto await(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // TrackerService.calculateTimeRange와 같이 알 수 없는 기간은 전체로 취급
+    static String normalize(String periodType) {
+        String period = periodType == null ? "all" : periodType.toLowerCase(Locale.ROOT);
+        return switch (period) {
+            case "today", "week", "month" -> period;
+            default -> "all";
+        };
+    }
+
+    /**
+     * 기간 통계가 바뀌는 다음 경계 (전체 기간은 경계 없음)
+     */
+    static LocalDateTime expiresAt(String period, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        return switch (period) {
+            case "today" -> today.plusDays(1).atStartOfDay();
+            case "week" -> today.with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay();
+            case "month" -> today.with(TemporalAdjusters.firstDayOfNextMonth()).atStartOfDay();
+            default -> LocalDateTime.MAX;
+        };
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final LocalDateTime expiresAt;
+        private final CompletableFuture<DashboardStatsDto> result = new CompletableFuture<>();
+
+        Entry(long version, LocalDateTime expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isValid(long currentVersion, LocalDateTime now) {
+            // 더 새 버전으로 계산된 결과는 이전 버전을 읽은 요청에도 그대로 사용
+            return version >= currentVersion && now.isBefore(expiresAt) && !result.isCompletedExceptionally();
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.LiveUpdateDto;
+import com.tubestudy.tracker.dto.StudyStreakDto;
+import com.tubestudy.tracker.repository.VideoProgressUpsert;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 대시보드 실시간 스트림 (Server-Sent Events)
+ * 하트비트가 DB에 반영될 때마다 변경분(과목별 학습 시간 증가, 영상 진도, 스트릭, 딴짓 감지)을
+ * 사용자별로 모아 두었다가, flush-interval-ms마다 그 사용자의 열린 대시보드로 한 번에 보냅니다.
+ * 같은 주기 안의 학습 시간은 과목별로 합치고 진도는 영상별 마지막 상태만 보내므로, 전송 횟수가 하트비트 수와 무관합니다.
+ * 대시보드를 열어 둔 사용자가 없으면 변경분을 모으지 않으므로 동기화 경로의 추가 비용은 맵 조회 한 번입니다.
+ *
+ * 주기 스레드는 변경분을 모아 넘기기만 하고, 실제 전송(SseEmitter.send)은 전송 스레드 풀(send-threads)에서 스트림마다 따로 합니다.
+ * 전송은 느리거나 멈춘 클라이언트의 소켓에서 막힐 수 있으므로, 스트림마다 진행 중인 전송은 하나만 두고
+ * 앞선 전송이 끝나지 않은 스트림은 그 주기를 건너뛰었다가 다음 전송에서 reset으로 전체 재조회를 알립니다.
+ * send-timeout-ms가 지나도 전송이 끝나지 않은 스트림은 닫으므로, 한 탭이 다른 사용자의 실시간 갱신을 늦추지 않습니다.
+ */
+@Slf4j
+@Component
+public class DashboardStream {
+
+    public static final String STUDY_EVENT = "study";
+    public static final String PROGRESS_EVENT = "progress";
+    public static final String STREAK_EVENT = "streak";
+    public static final String DISTRACTION_EVENT = "distraction";
+    public static final String RESET_EVENT = "reset";
+
+    // 한 주기에 보낼 딴짓 감지 이벤트 최대 수 (나머지는 버림)
+    private static final int MAX_DISTRACTIONS_PER_FLUSH = 10;
+
+    private final long timeoutMs;
+    private final int maxSubscribersPerUser;
+    private final long keepAliveMs;
+    private final long sendTimeoutMs;
+
+    // userId -> 열린 대시보드와 아직 보내지 않은 변경분
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher;
+    // 스트림마다 진행 중인 전송은 최대 하나이므로 대기열 길이는 열린 스트림 수를 넘지 않음
+    private final ExecutorService sender;
+    private long lastKeepAliveAt = System.currentTimeMillis();
+
+    public DashboardStream(MeterRegistry meterRegistry,
+            @Value("${tracker.stream.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${tracker.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${tracker.stream.keep-alive-ms:15000}") long keepAliveMs,
+            @Value("${tracker.stream.max-subscribers-per-user:10}") int maxSubscribersPerUser,
+            @Value("${tracker.stream.send-threads:4}") int sendThreads,
+            @Value("${tracker.stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.timeoutMs = timeoutMs;
+        this.keepAliveMs = keepAliveMs;
+        this.maxSubscribersPerUser = maxSubscribersPerUser;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        Gauge.builder("tracker.stream.subscribers", this, DashboardStream::subscriberCount)
+                .description("Open dashboard event streams")
+                .register(meterRegistry);
+
+        AtomicInteger senderCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, sendThreads), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 사용자의 대시보드 스트림을 엽니다.
+     * 한 사용자가 열 수 있는 스트림 수를 넘으면 가장 오래된 스트림을 닫습니다.
+     * (시간이 지나 닫힌 스트림은 브라우저 EventSource가 다시 연결합니다.)
+     */
+    public SseEmitter subscribe(String userId) {
+        return subscribe(userId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(String userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        Subscription subscription = subscriptions.compute(userId, (id, existing) -> {
+            Subscription target = existing != null ? existing : new Subscription();
+            target.subscribers.add(subscriber);
+            return target;
+        });
+
+        Runnable remove = () -> unsubscribe(userId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        while (subscription.subscribers.size() > maxSubscribersPerUser) {
+            Subscriber oldest = subscription.subscribers.remove(0);
+            oldest.emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * 하트비트(또는 병합된 하트비트) 반영이 커밋된 뒤 학습 시간 증가분과 영상 진도를 모읍니다.
+     */
+    public void applied(VideoProgressUpsert row) {
+        Subscription subscription = subscriptions.get(row.userId());
+        if (subscription == null) {
+            return;
+        }
+        if (row.studySeconds() > 0) {
+            subscription.addStudy(row.syncedAt().toLocalDate(), row.subject(), row.studySeconds());
+        }
+        subscription.setProgress(LiveUpdateDto.ProgressDelta.builder()
+                .videoId(row.videoId())
+                .title(row.title())
+                .channel(row.channel())
+                .subject(row.subject())
+                .lastProgressSeconds(row.lastProgressSeconds())
+                .totalDurationSeconds(row.totalDurationSeconds())
+                .build());
+    }
+
+    public void streakChanged(String userId, StudyStreakDto streak) {
+        Subscription subscription = subscriptions.get(userId);
+        if (subscription != null) {
+            subscription.setStreak(streak);
+        }
+    }
+
+    public void distracted(String userId, String title, DistractionMatcher.Match match) {
+        Subscription subscription = subscriptions.get(userId);
+        if (subscription != null) {
+            subscription.addDistraction(LiveUpdateDto.DistractionHit.builder()
+                    .title(title)
+                    .keyword(match.getKeyword())
+                    .category(match.getCategory())
+                    .message(match.getAlertMessage())
+                    .build());
+        }
+    }
+
+    /**
+     * 변경분으로 표현할 수 없는 변경(기록 삭제 등)이 생겨 대시보드가 전체를 다시 조회해야 함을 알립니다.
+     * 아직 보내지 않은 변경분은 다시 조회하면 포함되므로 버립니다.
+     */
+    public void reset(String userId) {
+        Subscription subscription = subscriptions.get(userId);
+        if (subscription != null) {
+            subscription.markReset();
+        }
+    }
+
+    /**
+     * 모든 사용자의 대시보드에 전체 재조회를 알립니다. (과목 재분류처럼 모든 사용자의 집계가 바뀐 경우)
+     */
+    public void resetAll() {
+        subscriptions.values().forEach(Subscription::markReset);
+    }
+
+    public boolean hasSubscribers(String userId) {
+        return subscriptions.containsKey(userId);
+    }
+
+    private int subscriberCount() {
+        int count = 0;
+        for (Subscription subscription : subscriptions.values()) {
+            count += subscription.subscribers.size();
+        }
+        return count;
+    }
+
+    private void unsubscribe(String userId, Subscriber subscriber) {
+        subscriptions.computeIfPresent(userId, (id, subscription) -> {
+            subscription.subscribers.remove(subscriber);
+            return subscription.subscribers.isEmpty() ? null : subscription;
+        });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Dashboard stream flush failed", e);
+        }
+    }
+
+    /**
+     * 사용자마다 모인 변경분을 이벤트로 만들어 열린 스트림마다 전송 스레드 풀에 넘깁니다.
+     * 보낼 것이 없는 주기가 keep-alive-ms 동안 이어지면 주석 한 줄을 보내 끊어진 연결을 정리합니다.
+     */
+    void flush() {
+        long now = System.currentTimeMillis();
+        boolean keepAlive = now - lastKeepAliveAt >= keepAliveMs;
+        if (keepAlive) {
+            lastKeepAliveAt = now;
+        }
+
+        subscriptions.forEach((userId, subscription) -> {
+            List<PendingEvent> events = subscription.drain();
+            for (Subscriber subscriber : subscription.subscribers) {
+                long sendingSince = subscriber.sendingSince.get();
+                if (sendingSince != 0) {
+                    if (now - sendingSince >= sendTimeoutMs) {
+                        // 멈춘 연결: 더 보내지 않고 닫음 (막힌 쓰기는 서블릿 컨테이너의 쓰기 제한 시간에 풀림)
+                        unsubscribe(userId, subscriber);
+                        subscriber.emitter.completeWithError(new TimeoutException("Dashboard stream send stalled"));
+                    } else if (!events.isEmpty()) {
+                        // 이번 변경분은 받지 못하므로 다음 전송에서 전체 재조회를 알림
+                        subscriber.missed = true;
+                    }
+                    continue;
+                }
+                if (!events.isEmpty() || keepAlive || subscriber.missed) {
+                    dispatch(userId, subscriber, events);
+                }
+            }
+        });
+    }
+
+    private void dispatch(String userId, Subscriber subscriber, List<PendingEvent> events) {
+        List<PendingEvent> batch = events;
+        if (subscriber.missed) {
+            // 건너뛴 변경분 대신 reset을 보내고, 재조회에 포함되지 않는 스트릭/딴짓 이벤트만 함께 보냄
+            subscriber.missed = false;
+            batch = new ArrayList<>();
+            batch.add(new PendingEvent(RESET_EVENT, Map.of()));
+            for (PendingEvent event : events) {
+                if (!event.name().equals(STUDY_EVENT) && !event.name().equals(PROGRESS_EVENT)
+                        && !event.name().equals(RESET_EVENT)) {
+                    batch.add(event);
+                }
+            }
+        }
+
+        List<PendingEvent> toSend = batch;
+        subscriber.sendingSince.set(System.currentTimeMillis());
+        try {
+            sender.execute(() -> send(userId, subscriber, toSend));
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            subscriber.sendingSince.set(0);
+        }
+    }
+
+    private void send(String userId, Subscriber subscriber, List<PendingEvent> events) {
+        SseEmitter emitter = subscriber.emitter;
+        try {
+            if (events.isEmpty()) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+            // 이벤트 빌더는 한 번 보내면 다시 쓸 수 없으므로 스트림마다 새로 만듦
+            for (PendingEvent event : events) {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 닫힌 연결: 목록에서 빼고 서블릿 쪽 정리는 완료 콜백에 맡김
+            unsubscribe(userId, subscriber);
+            emitter.completeWithError(e);
+        } finally {
+            subscriber.sendingSince.set(0);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        sender.shutdownNow();
+        subscriptions.values().forEach(subscription -> subscription.subscribers
+                .forEach(subscriber -> subscriber.emitter.complete()));
+        subscriptions.clear();
+    }
+
+    /**
+     * 열린 스트림 하나와 진행 중인 전송 상태
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        // 진행 중인 전송을 시작한 시각 (0이면 전송 중이 아님)
+        private final AtomicLong sendingSince = new AtomicLong();
+        // 전송 중이라 건너뛴 변경분이 있는지 (주기 스레드에서만 읽고 씀)
+        private boolean missed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * 한 사용자의 열린 스트림과 다음 주기에 보낼 변경분
+     * 변경분은 동기화 스레드가 넣고 주기 스레드가 꺼내므로 이 객체의 잠금으로 보호합니다.
+     */
+    private static final class Subscription {
+
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        // 날짜 -> (과목 -> 늘어난 학습 시간), 자정을 넘기는 주기를 위해 날짜별로 나눔
+        private Map<LocalDate, Map<String, Double>> study = new TreeMap<>();
+        // videoId -> 마지막 진도
+        private Map<String, LiveUpdateDto.ProgressDelta> progress = new LinkedHashMap<>();
+        private List<LiveUpdateDto.DistractionHit> distractions = new ArrayList<>();
+        private StudyStreakDto streak;
+        private boolean reset;
+
+        synchronized void addStudy(LocalDate date, String subject, double seconds) {
+            study.computeIfAbsent(date, d -> new LinkedHashMap<>()).merge(subject, seconds, Double::sum);
+        }
+
+        synchronized void setProgress(LiveUpdateDto.ProgressDelta delta) {
+            progress.remove(delta.getVideoId()); // 마지막으로 바뀐 영상이 마지막에 오도록
+            progress.put(delta.getVideoId(), delta);
+        }
+
+        synchronized void setStreak(StudyStreakDto streak) {
+            this.streak = streak;
+        }
+
+        synchronized void addDistraction(LiveUpdateDto.DistractionHit hit) {
+            if (distractions.size() < MAX_DISTRACTIONS_PER_FLUSH) {
+                distractions.add(hit);
+            }
+        }
+
+        synchronized void markReset() {
+            reset = true;
+        }
+
+        // 모인 변경분을 이벤트로 바꾸고 비움
+        List<PendingEvent> drain() {
+            Map<LocalDate, Map<String, Double>> study;
+            Map<String, LiveUpdateDto.ProgressDelta> progress;
+            List<LiveUpdateDto.DistractionHit> distractions;
+            StudyStreakDto streak;
+            boolean reset;
+            synchronized (this) {
+                study = this.study;
+                progress = this.progress;
+                distractions = this.distractions;
+                streak = this.streak;
+                reset = this.reset;
+                if (!study.isEmpty()) {
+                    this.study = new TreeMap<>();
+                }
+                if (!progress.isEmpty()) {
+                    this.progress = new LinkedHashMap<>();
+                }
+                if (!distractions.isEmpty()) {
+                    this.distractions = new ArrayList<>();
+                }
+                this.streak = null;
+                this.reset = false;
+            }
+
+            List<PendingEvent> events = new ArrayList<>();
+            if (reset) {
+                events.add(new PendingEvent(RESET_EVENT, Map.of()));
+            } else {
+                study.forEach((date, subjectSeconds) -> events.add(new PendingEvent(STUDY_EVENT,
+                        LiveUpdateDto.StudyDelta.builder()
+                                .date(date)
+                                .subjectSeconds(subjectSeconds)
+                                .totalSeconds(subjectSeconds.values().stream().mapToDouble(Double::doubleValue).sum())
+                                .build())));
+                progress.values().forEach(delta -> events.add(new PendingEvent(PROGRESS_EVENT, delta)));
+            }
+            if (streak != null) {
+                events.add(new PendingEvent(STREAK_EVENT, streak));
+            }
+            distractions.forEach(hit -> events.add(new PendingEvent(DISTRACTION_EVENT, hit)));
+            return events;
+        }
+    }
+
+    private record PendingEvent(String name, Object data) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.tubestudy.tracker.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 사용자별 데이터 버전 (대시보드 조회 API의 ETag와 통계 캐시에 사용)
+ * 동기화 반영, 기록 삭제, 설정/딴짓 키워드 변경이 커밋될 때마다 증가하며, 버전이 같으면 응답도 같으므로
+ * 조회 API는 If-None-Match가 현재 버전과 같을 때 DB를 조회하지 않고 304로 응답합니다.
+ *
+ * 버전은 DB(user_data_version)에 저장하고 변경과 같은 트랜잭션에서 올리므로, 여러 노드가 같은 DB를 쓸 때도
+ * 어느 노드에서 바뀐 데이터든 모든 노드가 같은 버전을 보고, 재시작해도 버전이 되돌아가지 않습니다.
+ * 모든 버전은 한 시퀀스(data_version_seq)에서 나오므로 단조 증가하며,
+ * 과목 규칙처럼 모든 사용자에게 영향을 주는 변경은 전체 버전('*' 행)을 올리고 현재 버전은 둘 중 큰 값입니다.
+ * (사용자 ID에는 '*'가 올 수 없음, TenantIdArgumentResolver)
+ */
+@Component
+public class DataVersion {
+
+    private static final String ALL_USERS = "*";
+
+    private static final String BUMP_SQL = "MERGE INTO user_data_version v "
+            + "USING (VALUES (CAST(? AS VARCHAR(64)))) AS s(user_id) "
+            + "ON v.user_id = s.user_id "
+            + "WHEN MATCHED THEN UPDATE SET version = NEXT VALUE FOR data_version_seq "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, version) VALUES (s.user_id, NEXT VALUE FOR data_version_seq)";
+
+    private static final String CURRENT_SQL = "SELECT COALESCE(MAX(version), 0) FROM user_data_version "
+            + "WHERE user_id IN (?, '" + ALL_USERS + "')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataVersion(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void createSchema() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS user_data_version ("
+                + "user_id VARCHAR(64) PRIMARY KEY, version BIGINT NOT NULL)");
+        // 메모리 버전을 쓰던 이전 실행이 준 ETag(시작 시각 ms에서 출발)와 겹치지 않도록 현재 시각에서 출발
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS data_version_seq START WITH " + System.currentTimeMillis());
+    }
+
+    /**
+     * 사용자의 현재 데이터 버전 (PK 조회 한 번)
+     * 응답을 만들기 전에 읽어야 합니다. (읽은 뒤에 바뀐 데이터는 다음 요청에서 다른 버전으로 보임)
+     */
+    public long current(String userId) {
+        Long version = jdbcTemplate.queryForObject(CURRENT_SQL, Long.class, userId);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * 사용자의 데이터가 바뀌었음을 기록합니다.
+     * 트랜잭션 안이면 같은 트랜잭션에서 올리므로 커밋될 때 함께 보이고, 롤백되면 함께 되돌아갑니다.
+     * 같은 사용자의 다른 쓰기 트랜잭션은 커밋될 때까지 이 행에서 기다립니다.
+     */
+    public void changed(String userId) {
+        bump(userId);
+    }
+
+    /**
+     * 모든 사용자의 데이터가 바뀌었음을 기록합니다. (과목 규칙 변경, 재분류)
+     */
+    public void changedAll() {
+        bump(ALL_USERS);
+    }
+
+    private void bump(String userId) {
+        try {
+            jdbcTemplate.update(BUMP_SQL, userId);
+        } catch (DuplicateKeyException e) {
+            // 다른 트랜잭션(노드)이 같은 사용자의 첫 행을 먼저 만든 경우: 다시 실행하면 갱신 분기로 반영됩니다.
+            jdbcTemplate.update(BUMP_SQL, userId);
+        }
+    }
+}
@@ -1,32 +1,22 @@
-package com.tubestudy.tracker.config;
+package com.tubestudy.tracker.service;
 
 import com.tubestudy.tracker.entity.DistractionKeyword;
-import com.tubestudy.tracker.repository.DistractionKeywordRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.List;
 
 /**
- * 애플리케이션 시작 시 기본 딴짓 키워드를 초기화합니다.
+ * 새 사용자에게 등록되는 기본 딴짓 키워드 목록
  */
-@Component
-@RequiredArgsConstructor
-public class DistractionKeywordInitializer implements CommandLineRunner {
+final class DefaultDistractionKeywords {
 
-    private final DistractionKeywordRepository repository;
-
-    @Override
-    public void run(String... args) throws Exception {
-        // 이미 키워드가 있으면 초기화하지 않음
-        if (repository.count() > 0) {
-            return;
-        }
+    private DefaultDistractionKeywords() {
+    }
 
-        List<DistractionKeyword> defaultKeywords = Arrays.asList(
+    static List<DistractionKeyword> create(String userId) {
+        return Arrays.asList(
                 DistractionKeyword.builder()
+                        .userId(userId)
                         .keyword("vlog")
                         .category("Entertainment")
                         .isActive(true)
@@ -35,6 +25,7 @@ public class DistractionKeywordInitializer implements CommandLineRunner {
                         .build(),
 
                 DistractionKeyword.builder()
+                        .userId(userId)
                         .keyword("브이로그")
                         .category("Entertainment")
                         .isActive(true)
@@ -43,6 +34,7 @@ public class DistractionKeywordInitializer implements CommandLineRunner {
                         .build(),
 
                 DistractionKeyword.builder()
+                        .userId(userId)
                         .keyword("게임")
                         .category("Game")
                         .isActive(true)
@@ -51,6 +43,7 @@ public class DistractionKeywordInitializer implements CommandLineRunner {
                         .build(),
 
                 DistractionKeyword.builder()
+                        .userId(userId)
                         .keyword("gameplay")
                         .category("Game")
                         .isActive(true)
@@ -59,6 +52,7 @@ public class DistractionKeywordInitializer implements CommandLineRunner {
                         .build(),
 
                 DistractionKeyword.builder()
+                        .userId(userId)
                         .keyword("asmr")
                         .category("Entertainment")
                         .isActive(true)
@@ -67,14 +61,12 @@ public class DistractionKeywordInitializer implements CommandLineRunner {
                         .build(),
 
                 DistractionKeyword.builder()
+                        .userId(userId)
                         .keyword("예능")
                         .category("Entertainment")
                         .isActive(true)
                         .alertMessage("휴식 시간에는 좋습니다. 하지만 지금은 강의를 시청 중인 것 같아요! 🎧")
                         .isCustom(false)
                         .build());
-
-        repository.saveAll(defaultKeywords);
-        System.out.println("✅ Default distraction keywords initialized: " + defaultKeywords.size() + " keywords");
     }
 }
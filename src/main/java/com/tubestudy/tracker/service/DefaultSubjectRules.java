@@ -0,0 +1,40 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.SubjectRule;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 규칙 테이블이 비어 있을 때 등록되는 기본 과목 분류 규칙
+ * (기존 하드코딩 분류와 같은 과목/단어/색상, "javascript"는 Frontend로 분류)
+ */
+final class DefaultSubjectRules {
+
+    private DefaultSubjectRules() {
+    }
+
+    static List<SubjectRule> create() {
+        return Arrays.asList(
+                SubjectRule.builder()
+                        .subject("Java / Backend")
+                        .terms("spring,java,jpa,서버")
+                        .color("red-500")
+                        .priority(0)
+                        .build(),
+
+                SubjectRule.builder()
+                        .subject("Frontend")
+                        .terms("react,js,javascript,css,프론트")
+                        .color("blue-500")
+                        .priority(1)
+                        .build(),
+
+                SubjectRule.builder()
+                        .subject("CS 지식")
+                        .terms("알고리즘,cs,자료구조,네트워크")
+                        .color("green-500")
+                        .priority(2)
+                        .build());
+    }
+}
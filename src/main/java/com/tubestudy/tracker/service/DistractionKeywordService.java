@@ -3,30 +3,112 @@ package com.tubestudy.tracker.service;
 import com.tubestudy.tracker.dto.DistractionKeywordDto;
 import com.tubestudy.tracker.entity.DistractionKeyword;
 import com.tubestudy.tracker.repository.DistractionKeywordRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * 딴짓 키워드 관리 서비스
- * 사용자가 커스텀 딴짓 키워드를 추가/수정/삭제할 수 있습니다.
+ * 사용자가 커스텀 딴짓 키워드를 추가/수정/삭제할 수 있습니다. 키워드와 매처는 사용자별로 분리됩니다.
  */
 @Service
-@RequiredArgsConstructor
 public class DistractionKeywordService {
 
     private final DistractionKeywordRepository repository;
+    private final SettingsService settingsService;
+    private final TenantLocks tenantLocks;
+    private final DataVersion dataVersion;
+    private final TransactionTemplate transactionTemplate;
+
+    // 사용자별로 컴파일된 매처 (키워드 변경이 커밋되면 제거되고, 다음 조회 시 다시 컴파일)
+    private final TenantCache<DistractionMatcher> matchers;
+
+    // 매처 컴파일 횟수 (매처 버전으로 사용)
+    private final AtomicLong compileCount = new AtomicLong();
+
+    public DistractionKeywordService(DistractionKeywordRepository repository,
+            SettingsService settingsService,
+            TenantLocks tenantLocks,
+            DataVersion dataVersion,
+            TransactionTemplate transactionTemplate,
+            @Value("${tracker.tenant.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.settingsService = settingsService;
+        this.tenantLocks = tenantLocks;
+        this.dataVersion = dataVersion;
+        this.transactionTemplate = transactionTemplate;
+        this.matchers = new TenantCache<>(cacheSize);
+    }
+
+    // ========================================================
+    // 딴짓 감지 (동기화 경로)
+    // ========================================================
+
+    /**
+     * 영상 제목에서 딴짓 키워드를 찾습니다.
+     * 키워드가 바뀌지 않았다면 DB 조회 없이 컴파일된 매처만 사용합니다.
+     *
+     * @param userId 사용자 ID
+     * @param title  영상 제목
+     * @return 일치한 키워드 (딴짓이 아니면 null)
+     */
+    public DistractionMatcher.Match findDistraction(String userId, String title) {
+        return currentMatcher(userId).find(title);
+    }
+
+    /**
+     * 사용자의 현재 매처 (키워드가 바뀌면 버전이 다른 새 매처)
+     * 압축 동기화에서 영상별로 기억해 둔 판정이 최신인지 버전으로 확인할 때 사용합니다.
+     */
+    public DistractionMatcher currentMatcher(String userId) {
+        DistractionMatcher current = matchers.get(userId);
+        if (current != null) {
+            return current;
+        }
+
+        // 키워드 변경과 같은 잠금 안에서 컴파일하므로, 커밋 전 데이터로 컴파일된 매처가 캐시에 남지 않습니다.
+        return tenantLocks.call(userId, () -> {
+            DistractionMatcher loaded = matchers.get(userId);
+            if (loaded == null) {
+                settingsService.getSettings(userId); // 처음 보는 사용자면 기본 키워드 등록
+                loaded = DistractionMatcher.compile(
+                        repository.findAllByUserIdAndIsActiveTrueOrderByIdAsc(userId),
+                        compileCount.incrementAndGet());
+                matchers.put(userId, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * 키워드 변경을 사용자 잠금 안에서 한 트랜잭션으로 실행하고,
+     * 커밋된 뒤에 해당 사용자의 매처를 버립니다.
+     */
+    private <T> T mutate(String userId, Supplier<T> action) {
+        return tenantLocks.call(userId, () -> transactionTemplate.execute(status -> {
+            T result = action.get();
+            AfterCommit.run(() -> matchers.remove(userId));
+            dataVersion.changed(userId);
+            return result;
+        }));
+    }
+
+    // ========================================================
+    // 키워드 관리
+    // ========================================================
 
     /**
      * 모든 활성 키워드 조회
      */
-    @Transactional(readOnly = true)
-    public List<DistractionKeywordDto> getAllActiveKeywords() {
-        return repository.findAllByIsActiveTrue()
+    public List<DistractionKeywordDto> getAllActiveKeywords(String userId) {
+        settingsService.getSettings(userId); // 처음 보는 사용자면 기본 키워드 등록
+        return repository.findAllByUserIdAndIsActiveTrue(userId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -35,9 +117,9 @@ public class DistractionKeywordService {
     /**
      * 모든 키워드 조회 (활성/비활성 포함)
      */
-    @Transactional(readOnly = true)
-    public List<DistractionKeywordDto> getAllKeywords() {
-        return repository.findAll()
+    public List<DistractionKeywordDto> getAllKeywords(String userId) {
+        settingsService.getSettings(userId); // 처음 보는 사용자면 기본 키워드 등록
+        return repository.findAllByUserId(userId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
@@ -46,69 +128,76 @@ public class DistractionKeywordService {
     /**
      * 새로운 키워드 추가
      */
-    @Transactional
-    public DistractionKeywordDto addKeyword(DistractionKeywordDto dto) {
-        DistractionKeyword keyword = DistractionKeyword.builder()
-                .keyword(dto.getKeyword())
-                .category(dto.getCategory() != null ? dto.getCategory() : "custom")
-                .isActive(true)
-                .alertMessage(dto.getAlertMessage() != null ? dto.getAlertMessage() : "집중을 잃지 마세요!")
-                .isCustom(true)
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        DistractionKeyword saved = repository.save(keyword);
-        return toDto(saved);
+    public DistractionKeywordDto addKeyword(String userId, DistractionKeywordDto dto) {
+        settingsService.getSettings(userId); // 기본 키워드가 커스텀 키워드보다 앞서도록 먼저 등록
+        return mutate(userId, () -> {
+            DistractionKeyword keyword = DistractionKeyword.builder()
+                    .userId(userId)
+                    .keyword(dto.getKeyword())
+                    .category(dto.getCategory() != null ? dto.getCategory() : "custom")
+                    .isActive(true)
+                    .alertMessage(dto.getAlertMessage() != null ? dto.getAlertMessage() : "집중을 잃지 마세요!")
+                    .isCustom(true)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+
+            return toDto(repository.save(keyword));
+        });
     }
 
     /**
      * 기존 키워드 수정
      */
-    @Transactional
-    public DistractionKeywordDto updateKeyword(Long id, DistractionKeywordDto dto) {
-        DistractionKeyword keyword = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("키워드를 찾을 수 없습니다: " + id));
-
-        if (dto.getKeyword() != null) {
-            keyword.setKeyword(dto.getKeyword());
-        }
-        if (dto.getCategory() != null) {
-            keyword.setCategory(dto.getCategory());
-        }
-        if (dto.getAlertMessage() != null) {
-            keyword.setAlertMessage(dto.getAlertMessage());
-        }
-
-        DistractionKeyword updated = repository.save(keyword);
-        return toDto(updated);
+    public DistractionKeywordDto updateKeyword(String userId, Long id, DistractionKeywordDto dto) {
+        return mutate(userId, () -> {
+            DistractionKeyword keyword = findOwnedKeyword(userId, id);
+
+            if (dto.getKeyword() != null) {
+                keyword.setKeyword(dto.getKeyword());
+            }
+            if (dto.getCategory() != null) {
+                keyword.setCategory(dto.getCategory());
+            }
+            if (dto.getAlertMessage() != null) {
+                keyword.setAlertMessage(dto.getAlertMessage());
+            }
+
+            return toDto(repository.save(keyword));
+        });
     }
 
     /**
      * 키워드 활성화/비활성화 토글
      */
-    @Transactional
-    public DistractionKeywordDto toggleKeywordActive(Long id) {
-        DistractionKeyword keyword = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("키워드를 찾을 수 없습니다: " + id));
+    public DistractionKeywordDto toggleKeywordActive(String userId, Long id) {
+        return mutate(userId, () -> {
+            DistractionKeyword keyword = findOwnedKeyword(userId, id);
 
-        keyword.setActive(!keyword.isActive());
-        DistractionKeyword updated = repository.save(keyword);
-        return toDto(updated);
+            keyword.setActive(!keyword.isActive());
+            return toDto(repository.save(keyword));
+        });
     }
 
     /**
      * 키워드 삭제 (커스텀 키워드만 삭제 가능)
      */
-    @Transactional
-    public void deleteKeyword(Long id) {
-        DistractionKeyword keyword = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("키워드를 찾을 수 없습니다: " + id));
+    public void deleteKeyword(String userId, Long id) {
+        mutate(userId, () -> {
+            DistractionKeyword keyword = findOwnedKeyword(userId, id);
 
-        if (!keyword.isCustom()) {
-            throw new IllegalArgumentException("기본 키워드는 삭제할 수 없습니다.");
-        }
+            if (!keyword.isCustom()) {
+                throw new IllegalArgumentException("기본 키워드는 삭제할 수 없습니다.");
+            }
+
+            repository.delete(keyword);
+            return null;
+        });
+    }
 
-        repository.deleteById(id);
+    // 다른 사용자의 키워드는 존재하지 않는 것으로 취급
+    private DistractionKeyword findOwnedKeyword(String userId, Long id) {
+        return repository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new IllegalArgumentException("키워드를 찾을 수 없습니다: " + id));
     }
 
     /**
@@ -129,9 +218,10 @@ public class DistractionKeywordService {
     /**
      * DTO를 Entity로 변환
      */
-    public DistractionKeyword toEntity(DistractionKeywordDto dto) {
+    public DistractionKeyword toEntity(String userId, DistractionKeywordDto dto) {
         return DistractionKeyword.builder()
                 .id(dto.getId())
+                .userId(userId)
                 .keyword(dto.getKeyword())
                 .category(dto.getCategory())
                 .isActive(dto.getIsActive() != null ? dto.getIsActive() : true)
@@ -0,0 +1,177 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.DistractionKeyword;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 활성 딴짓 키워드로 컴파일된 Aho-Corasick 매처 (불변)
+ * 제목을 한 번만 훑어서 포함된 키워드를 모두 찾고, 그중 키워드 목록 순서상 가장 앞선 키워드를 반환합니다.
+ * (기존의 "목록 순서대로 contains 검사 후 첫 번째 일치" 규칙과 같은 결과)
+ */
+public final class DistractionMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NO_MATCH = -1;
+
+    private final Map<Character, Integer>[] transitions;
+    private final int[] failure;
+    // 노드에서 끝나는(실패 링크를 따라가며 포함되는) 키워드 중 우선순위가 가장 높은 것의 인덱스
+    private final int[] output;
+    private final Match[] matches;
+    private final long version;
+
+    private DistractionMatcher(Map<Character, Integer>[] transitions, int[] failure, int[] output,
+            Match[] matches, long version) {
+        this.transitions = transitions;
+        this.failure = failure;
+        this.output = output;
+        this.matches = matches;
+        this.version = version;
+    }
+
+    /**
+     * 키워드 목록으로 오토마톤을 만듭니다. 목록 순서가 곧 우선순위입니다.
+     *
+     * @param keywords 활성 키워드 (우선순위 순)
+     * @param version  컴파일 기준이 된 키워드 버전
+     */
+    @SuppressWarnings("unchecked")
+    public static DistractionMatcher compile(List<DistractionKeyword> keywords, long version) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        List<Match> matches = new ArrayList<>();
+        trie.add(new HashMap<>());
+        terminal.add(NO_MATCH);
+
+        // 1. 트라이 구성
+        for (DistractionKeyword keyword : keywords) {
+            String pattern = keyword.getKeyword() == null ? "" : keyword.getKeyword().toLowerCase();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+
+            int priority = matches.size();
+            matches.add(new Match(keyword.getKeyword(), keyword.getCategory(), keyword.getAlertMessage()));
+
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    terminal.add(NO_MATCH);
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            // 같은 키워드가 여러 번 있으면 먼저 나온 것을 유지
+            if (terminal.get(node) == NO_MATCH) {
+                terminal.set(node, priority);
+            }
+        }
+
+        // 2. BFS로 실패 링크 및 출력 계산
+        int size = trie.size();
+        int[] failure = new int[size];
+        int[] output = new int[size];
+        for (int i = 0; i < size; i++) {
+            output[i] = terminal.get(i);
+        }
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>(trie.get(ROOT).values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : trie.get(node).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                if (node != ROOT) {
+                    int fallback = failure[node];
+                    while (fallback != ROOT && !trie.get(fallback).containsKey(c)) {
+                        fallback = failure[fallback];
+                    }
+                    Integer target = trie.get(fallback).get(c);
+                    failure[child] = target != null ? target : ROOT;
+                }
+                output[child] = higherPriority(output[child], output[failure[child]]);
+                queue.add(child);
+            }
+        }
+
+        Map<Character, Integer>[] transitions = new Map[size];
+        for (int i = 0; i < size; i++) {
+            transitions[i] = Map.copyOf(trie.get(i));
+        }
+
+        return new DistractionMatcher(transitions, failure, output, matches.toArray(new Match[0]), version);
+    }
+
+    /**
+     * 제목에서 딴짓 키워드를 찾습니다.
+     *
+     * @param title 영상 제목
+     * @return 우선순위가 가장 높은 일치 키워드 (없으면 null)
+     */
+    public Match find(String title) {
+        if (title == null || matches.length == 0) {
+            return null;
+        }
+
+        String text = title.toLowerCase();
+        int node = ROOT;
+        int best = NO_MATCH;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Integer next;
+            while ((next = transitions[node].get(c)) == null && node != ROOT) {
+                node = failure[node];
+            }
+            node = next != null ? next : ROOT;
+
+            best = higherPriority(best, output[node]);
+            if (best == 0) {
+                break; // 최우선 키워드를 찾았으면 더 볼 필요 없음
+            }
+        }
+
+        return best == NO_MATCH ? null : matches[best];
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return matches.length;
+    }
+
+    private static int higherPriority(int a, int b) {
+        if (a == NO_MATCH) {
+            return b;
+        }
+        if (b == NO_MATCH) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * 일치한 키워드 정보
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Match {
+        private final String keyword;
+        private final String category;
+        private final String alertMessage;
+    }
+}
@@ -0,0 +1,203 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 하트비트 쓰기 지연(write-behind) 버퍼
+ * /sync 하트비트를 (사용자, videoId)별로 메모리에서 병합해 두었다가, 일정 주기마다(또는 버퍼가 가득 차면)
+ * 한 번의 트랜잭션으로 VideoProgressRepository에 일괄 반영합니다.
+ * DB 쓰기 횟수가 요청 수가 아니라 시청 중인 영상 수에 비례하게 됩니다.
+ */
+@Slf4j
+@Component
+public class HeartbeatCoalescer {
+
+    private final VideoProgressBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int maxPendingVideos;
+
+    // (userId, videoId) -> 아직 DB에 반영되지 않은 병합 하트비트
+    private final Map<PendingKey, CoalescedHeartbeat> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher;
+    private final Timer flushTimer;
+
+    public HeartbeatCoalescer(VideoProgressBatchWriter batchWriter,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${tracker.sync.write-behind.enabled:false}") boolean enabled,
+            @Value("${tracker.sync.write-behind.flush-interval-ms:2000}") long flushIntervalMs,
+            @Value("${tracker.sync.write-behind.max-pending-videos:500}") int maxPendingVideos) {
+        this.batchWriter = batchWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxPendingVideos = maxPendingVideos;
+
+        // 가장 오래된 미반영 하트비트가 버퍼에 머문 시간 (플러시 지연)
+        TimeGauge.builder("tracker.sync.write_behind.lag", this, TimeUnit.MILLISECONDS,
+                HeartbeatCoalescer::currentLagMillis)
+                .description("Age of the oldest heartbeat not yet flushed to the database")
+                .register(meterRegistry);
+        Gauge.builder("tracker.sync.write_behind.pending", pending, Map::size)
+                .description("Number of videos with unflushed heartbeats")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("tracker.sync.write_behind.flush")
+                .description("Time spent writing one coalesced batch")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "heartbeat-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 하트비트를 버퍼에 병합합니다.
+     * 버퍼에 쌓인 영상 수가 한도를 넘으면 주기를 기다리지 않고 플러시를 요청합니다.
+     *
+     * @param userId            사용자 ID
+     * @param dto               익스텐션으로부터 받은 하트비트
+     * @param currentPercentage 이번 하트비트 기준 진행률
+     */
+    public void offer(String userId, VideoProgressDto dto, int currentPercentage) {
+        CoalescedHeartbeat heartbeat = CoalescedHeartbeat.of(userId, dto, currentPercentage,
+                System.currentTimeMillis());
+        pending.merge(new PendingKey(userId, dto.getVideoId()), heartbeat, CoalescedHeartbeat::merge);
+
+        if (pending.size() >= maxPendingVideos && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 버퍼가 찬 정도 (미반영 영상 수 / 한도, 비활성화면 0)
+     */
+    public double backlogRatio() {
+        return enabled ? (double) pending.size() / maxPendingVideos : 0;
+    }
+
+    /**
+     * 특정 영상의 미반영 하트비트를 버립니다. (기록 삭제 시 사용)
+     */
+    public void discard(String userId, String videoId) {
+        flushLock.lock();
+        try {
+            pending.remove(new PendingKey(userId, videoId));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 사용자의 모든 미반영 하트비트를 버립니다. (전체 삭제 시 사용)
+     */
+    public void discardAll(String userId) {
+        flushLock.lock();
+        try {
+            pending.keySet().removeIf(key -> key.userId().equals(userId));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 버퍼에 쌓인 하트비트를 한 번의 트랜잭션으로 DB에 반영합니다.
+     * 반영에 실패하면 꺼냈던 하트비트를 버퍼로 되돌려 다음 주기에 다시 시도합니다.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            // 키 단위로 꺼내므로, 꺼내는 도중 들어온 하트비트는 다음 배치로 넘어갑니다.
+            List<CoalescedHeartbeat> batch = new ArrayList<>(pending.size());
+            for (PendingKey key : pending.keySet()) {
+                CoalescedHeartbeat heartbeat = pending.remove(key);
+                if (heartbeat != null) {
+                    batch.add(heartbeat);
+                }
+            }
+
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> batchWriter.write(batch)));
+            } catch (RuntimeException e) {
+                for (CoalescedHeartbeat heartbeat : batch) {
+                    pending.merge(new PendingKey(heartbeat.getUserId(), heartbeat.getVideoId()), heartbeat,
+                            CoalescedHeartbeat::merge);
+                }
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Write-behind flush failed, will retry", e);
+        }
+    }
+
+    private double currentLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (CoalescedHeartbeat heartbeat : pending.values()) {
+            oldest = Math.min(oldest, heartbeat.getFirstReceivedAt());
+        }
+        return oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    /**
+     * 종료 시 남은 하트비트를 모두 반영합니다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    private record PendingKey(String userId, String videoId) {
+    }
+}
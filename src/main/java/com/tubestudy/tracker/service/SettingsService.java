@@ -2,37 +2,148 @@ package com.tubestudy.tracker.service;
 
 import com.tubestudy.tracker.dto.SettingsDto;
 import com.tubestudy.tracker.entity.Settings;
+import com.tubestudy.tracker.repository.DistractionKeywordRepository;
 import com.tubestudy.tracker.repository.SettingsRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * 사용자별 설정 서비스
+ * 설정 레코드가 없는 사용자는 처음 조회될 때 기본 설정과 기본 딴짓 키워드로 등록됩니다.
+ */
 @Service
-@RequiredArgsConstructor
 public class SettingsService {
     private final SettingsRepository settingsRepository;
+    private final DistractionKeywordRepository keywordRepository;
+    private final TenantLocks tenantLocks;
+    private final DataVersion dataVersion;
+    private final TransactionTemplate transactionTemplate;
+
+    // 새 사용자 등록은 호출한 쪽 트랜잭션(읽기 전용일 수 있음)과 별도로 커밋합니다.
+    private final TransactionTemplate provisioningTransaction;
 
     private static final int DEFAULT_GOAL_HOURS = 20; // 기본 목표 시간
 
+    // 사용자별 설정의 불변 스냅샷 (처음 조회 시 로드, updateGoal 커밋 시 통째로 교체, 조회는 잠금 없이 읽음)
+    private final TenantCache<SettingsDto> snapshots;
+
+    public SettingsService(SettingsRepository settingsRepository,
+            DistractionKeywordRepository keywordRepository,
+            TenantLocks tenantLocks,
+            DataVersion dataVersion,
+            PlatformTransactionManager transactionManager,
+            @Value("${tracker.tenant.cache-size:10000}") int cacheSize) {
+        this.settingsRepository = settingsRepository;
+        this.keywordRepository = keywordRepository;
+        this.tenantLocks = tenantLocks;
+        this.dataVersion = dataVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.provisioningTransaction = new TransactionTemplate(transactionManager);
+        this.provisioningTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshots = new TenantCache<>(cacheSize);
+    }
+
+    /**
+     * 사용자의 현재 설정 값을 조회합니다.
+     * 동기화/대시보드 요청마다 호출되므로 캐시에 있으면 DB를 조회하지 않고 메모리 스냅샷을 반환합니다.
+     */
+    public SettingsDto getSettings(String userId) {
+        SettingsDto current = snapshots.get(userId);
+        return current != null ? current : tenantLocks.call(userId, () -> reloadSnapshot(userId));
+    }
+
+    /**
+     * 주간 목표 시간을 업데이트합니다.
+     * 사용자 잠금 안에서 커밋하고 스냅샷을 교체하므로, 동시에 다시 로드된 이전 값이 덮어쓰지 않습니다.
+     * 다른 노드가 같은 설정을 동시에 변경하면 버전 충돌(OptimisticLockingFailureException)로 실패합니다.
+     */
+    public SettingsDto updateGoal(String userId, SettingsDto dto) {
+        getSettings(userId); // 처음 보는 사용자면 먼저 등록
+
+        return tenantLocks.call(userId, () -> transactionTemplate.execute(status -> {
+            Settings settings = settingsRepository.findByUserId(userId)
+                    .orElseThrow(() -> new IllegalStateException("설정이 없습니다: " + userId));
+
+            // 목표 시간 업데이트
+            settings.updateGoal(dto.getWeeklyGoalHours());
+
+            // 알림 설정 업데이트
+            settings.setDistractionAlertEnabled(dto.isDistractionAlertEnabled());
+            settings.setAchievementAlertEnabled(dto.isAchievementAlertEnabled());
+
+            // UI/UX 개선 설정 업데이트
+            settings.setDarkModeEnabled(dto.isDarkModeEnabled());
+            settings.setVoiceNotificationEnabled(dto.isVoiceNotificationEnabled());
+            settings.setAnimationEnabled(dto.isAnimationEnabled());
+
+            Settings updatedSettings = settingsRepository.save(settings);
+            SettingsDto updated = toDto(updatedSettings);
+
+            // 커밋이 끝난 뒤에 스냅샷을 교체 (롤백 시 메모리 값이 앞서가지 않도록)
+            AfterCommit.run(() -> snapshots.put(userId, updated));
+            dataVersion.changed(userId); // 주간 목표 달성률이 바뀜
+
+            return updated;
+        }));
+    }
+
+    /**
+     * DB에서 설정을 읽어 스냅샷을 다시 만듭니다. 없으면 새 사용자로 등록합니다. (사용자 잠금 안에서 호출)
+     */
+    private SettingsDto reloadSnapshot(String userId) {
+        SettingsDto current = snapshots.get(userId);
+        if (current != null) {
+            return current; // 잠금을 기다리는 동안 다른 요청이 이미 로드함
+        }
+
+        Settings settings = settingsRepository.findByUserId(userId).orElseGet(() -> provisionOrReload(userId));
+
+        SettingsDto loaded = toDto(settings);
+        snapshots.put(userId, loaded);
+        return loaded;
+    }
+
     /**
-     * 현재 설정 값을 조회합니다. 없으면 기본값으로 생성 후 반환합니다.
+     * 새 사용자를 별도 트랜잭션으로 등록합니다.
+     * 다른 노드가 같은 사용자를 먼저 등록했으면(유니크 제약 위반) 그 설정을 다시 읽습니다.
      */
-    @Transactional(readOnly = true)
-    public SettingsDto getSettings() {
-        // ID 1번으로 조회하여 설정 레코드가 있는지 확인합니다.
-        Settings settings = settingsRepository.findById(1L).orElseGet(() -> {
-            // 없으면 기본값으로 새로운 Settings 엔티티를 생성하고 저장합니다.
-            Settings newSettings = Settings.builder()
-                    .weeklyGoalHours(DEFAULT_GOAL_HOURS)
-                    .distractionAlertEnabled(true)
-                    .achievementAlertEnabled(true)
-                    .darkModeEnabled(true)
-                    .voiceNotificationEnabled(false)
-                    .animationEnabled(true)
-                    .build();
-            return settingsRepository.save(newSettings);
-        });
+    private Settings provisionOrReload(String userId) {
+        try {
+            return provisioningTransaction.execute(status -> provision(userId));
+        } catch (DataIntegrityViolationException e) {
+            return settingsRepository.findByUserId(userId).orElseThrow(() -> e);
+        }
+    }
 
+    /**
+     * 새 사용자를 등록합니다: 기본 설정과 기본 딴짓 키워드를 만듭니다.
+     */
+    private Settings provision(String userId) {
+        Settings settings = settingsRepository.save(defaultSettings(userId));
+        // 예전 단일 사용자 데이터처럼 키워드만 먼저 있는 경우에는 기본 키워드를 다시 넣지 않음
+        if (keywordRepository.countByUserId(userId) == 0) {
+            keywordRepository.saveAll(DefaultDistractionKeywords.create(userId));
+        }
+        return settings;
+    }
+
+    private Settings defaultSettings(String userId) {
+        return Settings.builder()
+                .userId(userId)
+                .weeklyGoalHours(DEFAULT_GOAL_HOURS)
+                .distractionAlertEnabled(true)
+                .achievementAlertEnabled(true)
+                .darkModeEnabled(true)
+                .voiceNotificationEnabled(false)
+                .animationEnabled(true)
+                .build();
+    }
+
+    private SettingsDto toDto(Settings settings) {
         return SettingsDto.builder()
                 .weeklyGoalHours(settings.getWeeklyGoalHours())
                 .distractionAlertEnabled(settings.isDistractionAlertEnabled())
@@ -42,45 +153,4 @@ public class SettingsService {
                 .animationEnabled(settings.isAnimationEnabled())
                 .build();
     }
-
-    /**
-     * 주간 목표 시간을 업데이트합니다.
-     */
-    @Transactional
-    public SettingsDto updateGoal(SettingsDto dto) {
-        // ID 1번으로 조회하거나, 없으면 기본값으로 생성합니다.
-        Settings settings = settingsRepository.findById(1L).orElseGet(() -> {
-            return Settings.builder()
-                    .weeklyGoalHours(DEFAULT_GOAL_HOURS)
-                    .distractionAlertEnabled(true)
-                    .achievementAlertEnabled(true)
-                    .darkModeEnabled(true)
-                    .voiceNotificationEnabled(false)
-                    .animationEnabled(true)
-                    .build();
-        });
-
-        // 목표 시간 업데이트
-        settings.updateGoal(dto.getWeeklyGoalHours());
-
-        // 알림 설정 업데이트
-        settings.setDistractionAlertEnabled(dto.isDistractionAlertEnabled());
-        settings.setAchievementAlertEnabled(dto.isAchievementAlertEnabled());
-
-        // UI/UX 개선 설정 업데이트
-        settings.setDarkModeEnabled(dto.isDarkModeEnabled());
-        settings.setVoiceNotificationEnabled(dto.isVoiceNotificationEnabled());
-        settings.setAnimationEnabled(dto.isAnimationEnabled());
-
-        Settings updatedSettings = settingsRepository.save(settings);
-
-        return SettingsDto.builder()
-                .weeklyGoalHours(updatedSettings.getWeeklyGoalHours())
-                .distractionAlertEnabled(updatedSettings.isDistractionAlertEnabled())
-                .achievementAlertEnabled(updatedSettings.isAchievementAlertEnabled())
-                .darkModeEnabled(updatedSettings.isDarkModeEnabled())
-                .voiceNotificationEnabled(updatedSettings.isVoiceNotificationEnabled())
-                .animationEnabled(updatedSettings.isAnimationEnabled())
-                .build();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.DailyStudyRollup;
+import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.DailyStudyRollupRepository;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import com.tubestudy.tracker.timeseries.StudyTimeSeries;
+import com.tubestudy.tracker.timeseries.SubjectRangeIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 일별 학습 시간 집계(DailyStudyRollup) 관리 서비스
+ * 동기화 경로에서 증분으로 갱신되며, 대시보드/분석은 이 집계만 읽습니다.
+ * 분 단위 시계열(StudyTimeSeries)과 구간 분석 색인(SubjectRangeIndex)도 같은 변경을 커밋 후에 반영합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudyRollupService {
+
+    private final DailyStudyRollupRepository rollupRepository;
+    private final VideoProgressRepository videoProgressRepository;
+    private final SubjectClassifier subjectClassifier;
+    private final StudyTimeSeries studyTimeSeries;
+    private final SubjectRangeIndex subjectRangeIndex;
+
+    /**
+     * 누적된 학습 시간을 해당 시각의 (사용자, 날짜, 과목, 시간대) 버킷에 더합니다.
+     * 호출한 쪽(동기화/일괄 반영)의 트랜잭션에 참여합니다.
+     *
+     * @param userId  사용자 ID
+     * @param subject 영상의 과목 (SubjectClassifier 분류 결과)
+     * @param seconds 이번에 누적된 학습 시간
+     * @param at      학습 시각
+     */
+    @Transactional
+    public void record(String userId, String subject, double seconds, LocalDateTime at) {
+        if (seconds <= 0) {
+            return;
+        }
+        rollupRepository.addStudySeconds(userId, at.toLocalDate(), subject, at.getHour(), seconds);
+        AfterCommit.run(() -> {
+            studyTimeSeries.record(userId, seconds, at);
+            subjectRangeIndex.add(userId, subject, at.toLocalDate(), seconds);
+        });
+    }
+
+    /**
+     * 삭제되는 영상의 학습 시간을 집계에서 차감합니다.
+     * 집계에는 영상 단위 정보가 없으므로, 마지막 동기화 시점부터 거슬러 올라가며 같은 과목 버킷에서 차감합니다.
+     */
+    @Transactional
+    public void remove(VideoProgress video) {
+        drain(video, subjectOf(video), (bucket, removed) -> {
+        });
+        AfterCommit.run(() -> studyTimeSeries.remove(video.getUserId(), video.getStudyTimeSeconds(),
+                video.getLastSyncedAt()));
+    }
+
+    /**
+     * 과목이 바뀐 영상의 학습 시간을 이전 과목의 버킷에서 새 과목의 같은 날짜/시간대 버킷으로 옮깁니다.
+     * (분류 규칙 변경 후 재분류에서 사용, 차감 방식은 remove와 같음)
+     */
+    @Transactional
+    public void reassign(VideoProgress video, String fromSubject, String toSubject) {
+        drain(video, fromSubject, (bucket, moved) -> {
+            rollupRepository.addStudySeconds(video.getUserId(), bucket.getStudyDate(), toSubject,
+                    bucket.getStudyHour(), moved);
+            AfterCommit.run(() -> subjectRangeIndex.add(video.getUserId(), toSubject, bucket.getStudyDate(), moved));
+        });
+    }
+
+    // 영상의 학습 시간만큼 해당 과목 버킷에서 차감하고, 버킷마다 차감한 양을 알려줍니다.
+    private void drain(VideoProgress video, String subject, BiConsumer<DailyStudyRollup, Double> onRemoved) {
+        double remaining = video.getStudyTimeSeconds();
+        if (remaining <= 0 || video.getLastSyncedAt() == null) {
+            return;
+        }
+
+        LocalDateTime lastSyncedAt = video.getLastSyncedAt();
+        List<DailyStudyRollup> buckets = rollupRepository
+                .findByUserIdAndSubjectAndStudyDateLessThanEqualOrderByStudyDateDescStudyHourDesc(
+                        video.getUserId(), subject, lastSyncedAt.toLocalDate());
+
+        for (DailyStudyRollup bucket : buckets) {
+            if (remaining <= 0) {
+                break;
+            }
+            // 마지막 동기화 당일의 이후 시간대는 건너뜀
+            if (bucket.getStudyDate().equals(lastSyncedAt.toLocalDate())
+                    && bucket.getStudyHour() > lastSyncedAt.getHour()) {
+                continue;
+            }
+            double removed = Math.min(bucket.getStudySeconds(), remaining);
+            if (removed > 0) {
+                rollupRepository.subtractStudySeconds(bucket.getId(), removed);
+                AfterCommit.run(() -> subjectRangeIndex.add(video.getUserId(), subject, bucket.getStudyDate(),
+                        -removed));
+                onRemoved.accept(bucket, removed);
+                remaining -= removed;
+            }
+        }
+    }
+
+    // 저장된 과목 (과목 컬럼 추가 전 기록이면 제목으로 분류)
+    private String subjectOf(VideoProgress video) {
+        return video.getSubject() != null ? video.getSubject() : subjectClassifier.classify(video.getTitle());
+    }
+
+    /**
+     * 사용자의 모든 집계를 삭제합니다.
+     */
+    @Transactional
+    public void clearAll(String userId) {
+        rollupRepository.deleteAllByUserId(userId);
+        AfterCommit.run(() -> {
+            studyTimeSeries.clear(userId);
+            subjectRangeIndex.clear(userId);
+        });
+    }
+
+    /**
+     * 집계 테이블이 비어 있고 기존 학습 기록이 있으면, 기존 기록으로 집계를 한 번 채웁니다.
+     * 과거 기록은 시청 시점별 정보가 없으므로 각 영상의 전체 학습 시간을 마지막 동기화 시각의 버킷에 넣습니다.
+     * 동기화와 동시에 실행되면 안 되므로 웹 서버가 요청을 받기 전에만 호출합니다. (DailyStudyRollupInitializer)
+     *
+     * @return 생성된 버킷 수 (백필하지 않았으면 0)
+     */
+    @Transactional
+    public int backfillIfEmpty() {
+        if (rollupRepository.count() > 0 || videoProgressRepository.count() == 0) {
+            return 0;
+        }
+
+        Map<BucketKey, Double> buckets = new HashMap<>();
+        for (VideoProgress video : videoProgressRepository.findAll()) {
+            if (video.getStudyTimeSeconds() <= 0 || video.getLastSyncedAt() == null) {
+                continue;
+            }
+            BucketKey key = new BucketKey(video.getUserId(), video.getLastSyncedAt().toLocalDate(),
+                    subjectOf(video), video.getLastSyncedAt().getHour());
+            buckets.merge(key, video.getStudyTimeSeconds(), Double::sum);
+        }
+
+        List<DailyStudyRollup> rollups = new ArrayList<>(buckets.size());
+        buckets.forEach((key, seconds) -> rollups.add(DailyStudyRollup.builder()
+                .userId(key.userId())
+                .studyDate(key.studyDate())
+                .subject(key.subject())
+                .studyHour(key.studyHour())
+                .studySeconds(seconds)
+                .build()));
+
+        rollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+
+    /**
+     * 시계열 스냅샷이 아직 없으면 일별 집계로 한 번 채웁니다.
+     * 집계는 시간대 단위이므로 각 버킷의 학습 시간을 그 시간의 60분에 고르게 나눕니다.
+     * 채우는 동안 반영된 하트비트는 집계와 시계열에 두 번 더해지므로, 웹 서버가 요청을 받기 전에만 호출합니다.
+     * (DailyStudyRollupInitializer, 하트비트 저널 재생은 웹 서버가 시작된 뒤에 실행됨)
+     *
+     * @return 채운 버킷 수 (백필하지 않았으면 0)
+     */
+    @Transactional(readOnly = true)
+    public int backfillTimeSeriesIfEmpty() {
+        if (!studyTimeSeries.needsBackfill()) {
+            return 0;
+        }
+        List<DailyStudyRollup> rollups = rollupRepository.findAll();
+        for (DailyStudyRollup rollup : rollups) {
+            studyTimeSeries.seed(rollup.getUserId(), rollup.getStudyDate(), rollup.getStudyHour(),
+                    rollup.getStudySeconds());
+        }
+        if (!rollups.isEmpty()) {
+            studyTimeSeries.backfilled();
+        }
+        return rollups.size();
+    }
+
+    /**
+     * 구간 분석 색인을 일별 집계 전체로 다시 만듭니다. (시작 시, 집계 백필 후)
+     */
+    @Transactional(readOnly = true)
+    public int rebuildRangeIndex() {
+        List<SubjectRangeIndex.Row> rows = rollupRepository.sumByUserDateAndSubject().stream()
+                .map(total -> new SubjectRangeIndex.Row(total.userId(), total.date(), total.subject(),
+                        total.studySeconds()))
+                .toList();
+        subjectRangeIndex.rebuild(rows);
+        return rows.size();
+    }
+
+    private record BucketKey(String userId, LocalDate studyDate, String subject, int studyHour) {
+    }
+}
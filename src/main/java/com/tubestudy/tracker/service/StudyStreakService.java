@@ -0,0 +1,180 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.StudyStreakDto;
+import com.tubestudy.tracker.entity.StudyStreak;
+import com.tubestudy.tracker.repository.StudyStreakRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * 학습 스트릭 관리 서비스 (사용자당 하나의 스트릭)
+ * StudyStreak는 날짜가 바뀐 첫 학습에서만 상태가 변하므로, 사용자별로 마지막으로 반영한 날짜를 메모리에 두고
+ * 같은 날의 이후 동기화에서는 DB를 건드리지 않습니다.
+ */
+@Service
+public class StudyStreakService {
+
+    // 다른 노드와 동시에 갱신해 버전 충돌이 났을 때 다시 읽어 반영하는 최대 횟수
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    private final StudyStreakRepository studyStreakRepository;
+    private final TenantLocks tenantLocks;
+    private final DashboardStream dashboardStream;
+    private final DataVersion dataVersion;
+
+    // 스트릭 반영은 동기화 트랜잭션과 별도로 커밋해야 캐시된 날짜를 안전하게 올릴 수 있습니다.
+    private final TransactionTemplate requiresNewTransaction;
+
+    // 사용자별로 마지막으로 DB에 반영한 학습 날짜 (앞으로만 이동, 캐시에서 밀려나면 DB에서 다시 판단)
+    private final TenantCache<LocalDate> lastAppliedDates;
+
+    public StudyStreakService(StudyStreakRepository studyStreakRepository,
+            TenantLocks tenantLocks,
+            DashboardStream dashboardStream,
+            DataVersion dataVersion,
+            PlatformTransactionManager transactionManager,
+            @Value("${tracker.tenant.cache-size:10000}") int cacheSize) {
+        this.studyStreakRepository = studyStreakRepository;
+        this.tenantLocks = tenantLocks;
+        this.dashboardStream = dashboardStream;
+        this.dataVersion = dataVersion;
+        this.lastAppliedDates = new TenantCache<>(cacheSize);
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 오늘 학습이 감지되었음을 기록합니다.
+     * 오늘 이미 반영했다면 DB 조회 없이 바로 반환합니다.
+     */
+    public void recordStudy(String userId) {
+        LocalDate today = LocalDate.now();
+        if (today.equals(lastAppliedDates.get(userId))) {
+            return;
+        }
+
+        // 자정 직후 같은 사용자의 동기화가 동시에 들어와도 DB 반영은 한 번만 일어나도록 직렬화
+        tenantLocks.run(userId, () -> {
+            LocalDate applied = lastAppliedDates.get(userId);
+            if (applied != null && !today.isAfter(applied)) {
+                return; // 다른 요청이 이미 반영했거나, 자정 이전에 계산된 날짜
+            }
+
+            applyWithRetry(userId, today);
+            lastAppliedDates.put(userId, today);
+            dataVersion.changed(userId);
+
+            // 스트릭은 하루에 한 번만 바뀌므로, 열린 대시보드가 있을 때만 새 상태를 조회해 보냄
+            if (dashboardStream.hasSubscribers(userId)) {
+                dashboardStream.streakChanged(userId, getStudyStreak(userId));
+            }
+        });
+    }
+
+    /**
+     * 스트릭 갱신을 별도 트랜잭션으로 커밋합니다.
+     * 다른 노드가 먼저 갱신(버전 충돌)하거나 먼저 생성(유니크 제약)했으면 다시 읽어서 반영합니다.
+     * 같은 날짜로 여러 번 반영해도 결과가 같으므로 재시도해도 안전합니다.
+     */
+    private void applyWithRetry(String userId, LocalDate today) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                requiresNewTransaction.executeWithoutResult(status -> findOrCreateStreak(userId).updateStreak(today));
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 현재 학습 스트릭 정보를 반환합니다.
+     */
+    @Transactional(readOnly = true)
+    public StudyStreakDto getStudyStreak(String userId) {
+        // 아직 학습 기록이 없는 사용자는 저장하지 않은 빈 스트릭으로 응답 (읽기 전용 트랜잭션)
+        StudyStreak streak = studyStreakRepository.findByUserId(userId).orElseGet(() -> emptyStreak(userId));
+
+        // 알림 로직 추가
+        String notificationMessage = null;
+        String notificationType = null;
+        boolean shouldNotify = false;
+
+        // 마일스톤 체크 (7일, 14일, 30일, 100일)
+        int currentStreak = streak.getCurrentStreak();
+        if (currentStreak == 7) {
+            notificationMessage = "🎉 축하합니다! 7일 연속 학습을 달성했어요!";
+            notificationType = "milestone";
+            shouldNotify = true;
+        } else if (currentStreak == 14) {
+            notificationMessage = "🔥 놀라워요! 14일 연속 학습 달성!";
+            notificationType = "milestone";
+            shouldNotify = true;
+        } else if (currentStreak == 30) {
+            notificationMessage = "⭐ 최고예요! 1개월 연속 학습! 당신은 학습 챔피언입니다!";
+            notificationType = "milestone";
+            shouldNotify = true;
+        } else if (currentStreak == 100) {
+            notificationMessage = "👑 전설이 되었어요! 100일 연속 학습 달성! 🏆";
+            notificationType = "milestone";
+            shouldNotify = true;
+        }
+
+        // 스트릭 끝남 감지
+        if (streak.isStreakBroken() && currentStreak == 1) {
+            notificationMessage = "💪 새로운 시작입니다! 오늘부터 다시 연속 학습을 시작하세요!";
+            notificationType = "encouragement";
+            shouldNotify = true;
+        }
+
+        return StudyStreakDto.builder()
+                .currentStreak(streak.getCurrentStreak())
+                .longestStreak(streak.getLongestStreak())
+                .lastStudyDate(streak.getLastStudyDate())
+                .streakStartDate(streak.getStreakStartDate())
+                .longestStreakDate(streak.getLongestStreakDate())
+                .streakBroken(streak.isStreakBroken())
+                .notificationMessage(notificationMessage)
+                .notificationType(notificationType)
+                .shouldNotify(shouldNotify)
+                .build();
+    }
+
+    /**
+     * 사용자의 스트릭 기록을 삭제하고 메모리에 캐시된 날짜도 초기화합니다.
+     */
+    @Transactional
+    public void clearAll(String userId) {
+        studyStreakRepository.deleteAllByUserId(userId);
+        AfterCommit.run(() -> lastAppliedDates.remove(userId));
+        dataVersion.changed(userId);
+    }
+
+    // 사용자의 스트릭 레코드 조회 또는 생성
+    private StudyStreak findOrCreateStreak(String userId) {
+        return studyStreakRepository.findByUserId(userId)
+                .orElseGet(() -> studyStreakRepository.save(emptyStreak(userId)));
+    }
+
+    private StudyStreak emptyStreak(String userId) {
+        return StudyStreak.builder()
+                .userId(userId)
+                .currentStreak(0)
+                .longestStreak(0)
+                .lastStudyDate(null)
+                .streakStartDate(null)
+                .longestStreakDate(null)
+                .streakBroken(false)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.SubjectRule;
+import com.tubestudy.tracker.repository.SubjectRuleRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 영상 제목 기반 과목 분류기
+ * 대시보드 통계와 일별 집계(롤업) 갱신에서 같은 규칙을 사용하도록 분리했습니다.
+ * 규칙은 SubjectRule 테이블에 저장되며, 컴파일된 단어 트라이(SubjectIndex)로 분류하므로 DB를 조회하지 않습니다.
+ * 규칙이 바뀌면 reload()로 다시 컴파일합니다.
+ *
+ * 규칙은 웹 서버가 요청을 받기 전에 미리 컴파일합니다.
+ * 분류는 하트비트 반영 트랜잭션 안에서도 호출되는데, 그때 처음 컴파일하면 규칙을 읽는 별도 트랜잭션(REQUIRES_NEW)이
+ * 커넥션을 하나 더 요구하므로, 동시 요청이 풀 크기만큼 몰리면 서로의 커넥션을 기다리다 타임아웃됩니다.
+ */
+@Component
+public class SubjectClassifier implements SmartInitializingSingleton {
+
+    public static final String DEFAULT_SUBJECT = "기타";
+
+    private final SubjectRuleRepository ruleRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicLong compileCount = new AtomicLong();
+    private volatile SubjectIndex index;
+
+    public SubjectClassifier(SubjectRuleRepository ruleRepository, PlatformTransactionManager transactionManager) {
+        this.ruleRepository = ruleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 호출한 쪽 트랜잭션과 무관하게 규칙을 읽고, 기본 규칙 등록이 실패해도 호출한 쪽이 롤백되지 않도록 분리
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * 영상 제목을 기준으로 과목 분류
+     */
+    public String classify(String title) {
+        String subject = currentIndex().classify(title);
+        return subject != null ? subject : DEFAULT_SUBJECT;
+    }
+
+    /**
+     * 과목별 색상 지정 (프런트엔드 Tailwind CSS 색상 코드)
+     */
+    public String colorOf(String subject) {
+        return currentIndex().colorOf(subject);
+    }
+
+    /**
+     * 현재 적용 중인 규칙 버전 (다시 컴파일할 때마다 증가)
+     */
+    public long currentVersion() {
+        return currentIndex().getVersion();
+    }
+
+    /**
+     * 규칙을 DB에서 다시 읽어 컴파일합니다. (규칙 변경이 커밋된 뒤 호출)
+     */
+    public void reload() {
+        loadLock.lock();
+        try {
+            index = load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private SubjectIndex currentIndex() {
+        SubjectIndex current = index;
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            if (index == null) {
+                index = load();
+            }
+            return index;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // 규칙 테이블이 비어 있으면 기본 규칙을 등록한 뒤 컴파일
+    private SubjectIndex load() {
+        List<SubjectRule> rules = transactionTemplate.execute(status -> {
+            List<SubjectRule> found = ruleRepository.findAllByOrderByPriorityAscIdAsc();
+            if (found.isEmpty()) {
+                ruleRepository.saveAll(DefaultSubjectRules.create());
+                System.out.println("✅ Default subject rules created");
+                found = ruleRepository.findAllByOrderByPriorityAscIdAsc();
+            }
+            return found;
+        });
+        return SubjectIndex.compile(rules, compileCount.incrementAndGet());
+    }
+}
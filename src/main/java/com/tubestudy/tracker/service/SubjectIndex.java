@@ -0,0 +1,198 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.SubjectRule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 과목 분류 규칙으로 컴파일된 단어 트라이 (불변)
+ * 제목을 단어(같은 종류의 글자가 이어진 구간: 한글 / 그 외 글자·숫자)로 나누고,
+ * 각 단어를 트라이로 한 번씩만 훑어 규칙의 단어와 비교합니다. ("JPA강의"는 "jpa"와 "강의"로 나뉨)
+ * 단어 단위로 비교하므로 "js"가 "jsonl"이나 "djs" 안에서, "cs"가 "physics" 안에서 일치하지 않습니다.
+ * 한글로 끝나는 단어는 조사가 붙는 경우("알고리즘을", "서버는")를 위해 단어의 앞부분과 일치해도 인정합니다.
+ */
+public final class SubjectIndex {
+
+    private static final int ROOT = 0;
+    private static final int NO_MATCH = -1;
+    private static final String DEFAULT_COLOR = "gray-500";
+
+    // 단어를 이루는 글자 종류
+    private static final int SEPARATOR = 0;
+    private static final int LETTER_OR_DIGIT = 1;
+    private static final int HANGUL = 2;
+
+    private final Map<Character, Integer>[] transitions;
+    // 노드에서 끝나는 단어를 가진 규칙 중 우선순위가 가장 높은 규칙의 인덱스
+    private final int[] terminal;
+    // 노드에서 끝나는 단어가 단어의 앞부분 일치를 허용하는지 (한글로 끝나는 단어)
+    private final boolean[] prefixMatch;
+    private final String[] subjects;
+    private final Map<String, String> colors;
+    private final long version;
+
+    private SubjectIndex(Map<Character, Integer>[] transitions, int[] terminal, boolean[] prefixMatch,
+            String[] subjects, Map<String, String> colors, long version) {
+        this.transitions = transitions;
+        this.terminal = terminal;
+        this.prefixMatch = prefixMatch;
+        this.subjects = subjects;
+        this.colors = colors;
+        this.version = version;
+    }
+
+    /**
+     * 규칙 목록으로 트라이를 만듭니다. 목록 순서가 곧 우선순위입니다.
+     *
+     * @param rules   분류 규칙 (우선순위 순)
+     * @param version 컴파일 기준이 된 규칙 버전
+     */
+    @SuppressWarnings("unchecked")
+    public static SubjectIndex compile(List<SubjectRule> rules, long version) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        List<Boolean> prefixMatch = new ArrayList<>();
+        trie.add(new HashMap<>());
+        terminal.add(NO_MATCH);
+        prefixMatch.add(false);
+
+        String[] subjects = new String[rules.size()];
+        Map<String, String> colors = new HashMap<>();
+
+        for (int priority = 0; priority < rules.size(); priority++) {
+            SubjectRule rule = rules.get(priority);
+            subjects[priority] = rule.getSubject();
+            colors.putIfAbsent(rule.getSubject(), rule.getColor());
+
+            for (String term : splitTerms(rule.getTerms())) {
+                int node = ROOT;
+                for (int i = 0; i < term.length(); i++) {
+                    char c = term.charAt(i);
+                    Integer next = trie.get(node).get(c);
+                    if (next == null) {
+                        next = trie.size();
+                        trie.add(new HashMap<>());
+                        terminal.add(NO_MATCH);
+                        prefixMatch.add(false);
+                        trie.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+                // 같은 단어가 여러 규칙에 있으면 먼저 나온 규칙을 유지
+                if (terminal.get(node) == NO_MATCH) {
+                    terminal.set(node, priority);
+                    prefixMatch.set(node, isHangulSyllable(term.charAt(term.length() - 1)));
+                }
+            }
+        }
+
+        int size = trie.size();
+        int[] terminalArray = new int[size];
+        boolean[] prefixArray = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            terminalArray[i] = terminal.get(i);
+            prefixArray[i] = prefixMatch.get(i);
+        }
+        return new SubjectIndex(trie.toArray(new Map[0]), terminalArray, prefixArray, subjects, colors, version);
+    }
+
+    /**
+     * 쉼표로 구분된 단어 목록을 정규화(소문자, 공백 제거)해서 나눕니다.
+     */
+    public static List<String> splitTerms(String terms) {
+        List<String> result = new ArrayList<>();
+        if (terms == null) {
+            return result;
+        }
+        for (String term : terms.split(",")) {
+            String normalized = term.trim().toLowerCase(Locale.ROOT);
+            if (!normalized.isEmpty()) {
+                result.add(normalized);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 단어가 제목에서 하나의 단어로 인식될 수 있는지 (한글만, 또는 한글이 아닌 글자/숫자만으로 구성)
+     */
+    public static boolean isSingleToken(String term) {
+        if (term == null || term.isEmpty()) {
+            return false;
+        }
+        int kind = kindOf(term.charAt(0));
+        for (int i = 0; i < term.length(); i++) {
+            if (kindOf(term.charAt(i)) == SEPARATOR || kindOf(term.charAt(i)) != kind) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 제목의 과목을 찾습니다.
+     *
+     * @return 일치한 규칙 중 우선순위가 가장 높은 규칙의 과목 (없으면 null)
+     */
+    public String classify(String title) {
+        if (title == null) {
+            return null;
+        }
+
+        int best = Integer.MAX_VALUE;
+        int length = title.length();
+        int i = 0;
+        while (i < length && best > 0) {
+            int kind = kindOf(title.charAt(i));
+            if (kind == SEPARATOR) {
+                i++;
+                continue;
+            }
+
+            // 단어 하나를 트라이로 훑음
+            int tokenEnd = i + 1;
+            while (tokenEnd < length && kindOf(title.charAt(tokenEnd)) == kind) {
+                tokenEnd++;
+            }
+            int node = ROOT;
+            for (int j = i; j < tokenEnd; j++) {
+                Integer next = transitions[node].get(Character.toLowerCase(title.charAt(j)));
+                if (next == null) {
+                    break;
+                }
+                node = next;
+                if (terminal[node] != NO_MATCH && (j == tokenEnd - 1 || prefixMatch[node])) {
+                    best = Math.min(best, terminal[node]);
+                }
+            }
+            i = tokenEnd;
+        }
+        return best == Integer.MAX_VALUE ? null : subjects[best];
+    }
+
+    /**
+     * 과목의 대시보드 색상 (규칙에 없는 과목이면 회색)
+     */
+    public String colorOf(String subject) {
+        return colors.getOrDefault(subject, DEFAULT_COLOR);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    private static int kindOf(char c) {
+        if (isHangulSyllable(c)) {
+            return HANGUL;
+        }
+        return Character.isLetterOrDigit(c) ? LETTER_OR_DIGIT : SEPARATOR;
+    }
+
+    private static boolean isHangulSyllable(char c) {
+        return c >= '가' && c <= '힣';
+    }
+}
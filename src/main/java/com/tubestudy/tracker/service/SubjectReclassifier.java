@@ -0,0 +1,142 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 과목 재분류 작업
+ * 분류 규칙이 바뀌면 모든 기록의 제목을 새 규칙으로 다시 분류하고, 과목이 바뀐 기록은
+ * 저장된 과목과 함께 일별 집계의 학습 시간도 새 과목으로 옮깁니다. (StudyRollupService.reassign)
+ * 백그라운드 스레드 하나에서 id 순으로 한 페이지씩, 페이지마다 한 트랜잭션으로 처리합니다.
+ * 재분류가 끝나기 전에 동기화된 학습 시간은 이미 새 규칙으로 집계되므로, 그 사이 옮겨지는 시간에는 오차가 있을 수 있습니다.
+ */
+@Component
+public class SubjectReclassifier {
+
+    // 한 트랜잭션에서 재분류할 기록 수
+    private static final int PAGE_SIZE = 500;
+
+    private final VideoProgressRepository repository;
+    private final StudyRollupService studyRollupService;
+    private final SubjectClassifier subjectClassifier;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardStream dashboardStream;
+    private final DataVersion dataVersion;
+
+    private final AtomicBoolean requested = new AtomicBoolean(false);
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "subject-reclassifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SubjectReclassifier(VideoProgressRepository repository, StudyRollupService studyRollupService,
+            SubjectClassifier subjectClassifier, TransactionTemplate transactionTemplate,
+            DashboardStream dashboardStream, DataVersion dataVersion) {
+        this.repository = repository;
+        this.studyRollupService = studyRollupService;
+        this.subjectClassifier = subjectClassifier;
+        this.transactionTemplate = transactionTemplate;
+        this.dashboardStream = dashboardStream;
+        this.dataVersion = dataVersion;
+    }
+
+    /**
+     * 과목 컬럼이 추가되기 전의 기록이 있으면 시작할 때 한 번 채웁니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reclassifyLegacyRecords() {
+        if (repository.existsBySubjectIsNull()) {
+            requestReclassification();
+        }
+    }
+
+    /**
+     * 재분류를 요청합니다. 이미 대기 중인 요청이 있으면 하나로 합쳐집니다.
+     */
+    public void requestReclassification() {
+        if (requested.compareAndSet(false, true)) {
+            worker.execute(this::reclassifyQuietly);
+        }
+    }
+
+    private void reclassifyQuietly() {
+        // 실행 중에 들어온 요청은 다음 실행으로 넘어가도록 시작할 때 해제
+        requested.set(false);
+        try {
+            int changed = reclassifyAll();
+            System.out.println("✅ Subject reclassification finished: " + changed + " videos changed");
+            if (changed > 0) {
+                // 과목별 집계가 바뀌었으므로 열린 대시보드는 전체를 다시 조회
+                dataVersion.changedAll();
+                dashboardStream.resetAll();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ Subject reclassification failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 모든 기록을 현재 규칙으로 재분류합니다.
+     *
+     * @return 과목이 바뀐 기록 수
+     */
+    public int reclassifyAll() {
+        int changed = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            PageResult result = transactionTemplate.execute(status -> {
+                List<VideoProgress> page = repository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(PAGE_SIZE));
+                if (page.isEmpty()) {
+                    return null;
+                }
+                int count = 0;
+                for (VideoProgress video : page) {
+                    if (reclassify(video)) {
+                        count++;
+                    }
+                }
+                return new PageResult(page.get(page.size() - 1).getId(), count);
+            });
+            if (result == null) {
+                return changed;
+            }
+            changed += result.changed();
+            lastId = result.lastId();
+        }
+    }
+
+    private boolean reclassify(VideoProgress video) {
+        String subject = subjectClassifier.classify(video.getTitle());
+        String previous = video.getSubject();
+        if (subject.equals(previous)) {
+            return false;
+        }
+        // 과목 컬럼 추가 전 기록은 이미 집계에 반영된 과목을 알 수 없으므로 과목만 채움
+        if (previous != null) {
+            studyRollupService.reassign(video, previous, subject);
+        }
+        repository.updateSubject(video.getId(), subject);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private record PageResult(long lastId, int changed) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.SubjectRuleDto;
+import com.tubestudy.tracker.entity.SubjectRule;
+import com.tubestudy.tracker.repository.SubjectRuleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 과목 분류 규칙 관리 서비스
+ * 규칙은 모든 사용자가 함께 사용하며, 변경이 커밋되면 분류기를 다시 컴파일하고 기존 기록의 재분류를 요청합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubjectRuleService {
+
+    private static final String DEFAULT_COLOR = "gray-500";
+
+    private final SubjectRuleRepository repository;
+    private final SubjectClassifier subjectClassifier;
+    private final SubjectReclassifier subjectReclassifier;
+    private final TransactionTemplate transactionTemplate;
+    private final DataVersion dataVersion;
+
+    /**
+     * 모든 규칙 조회 (적용 순서대로)
+     */
+    public List<SubjectRuleDto> getAllRules() {
+        subjectClassifier.currentVersion(); // 규칙이 없으면 기본 규칙 등록
+        return repository.findAllByOrderByPriorityAscIdAsc()
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 새로운 규칙 추가 (우선순위를 생략하면 맨 뒤)
+     */
+    public SubjectRuleDto addRule(SubjectRuleDto dto) {
+        subjectClassifier.currentVersion(); // 기본 규칙이 새 규칙보다 앞서도록 먼저 등록
+        String subject = requireSubject(dto.getSubject());
+        String terms = normalizeTerms(dto.getTerms());
+
+        return mutate(() -> {
+            if (repository.existsBySubject(subject)) {
+                throw new IllegalArgumentException("이미 있는 과목입니다: " + subject);
+            }
+            SubjectRule rule = SubjectRule.builder()
+                    .subject(subject)
+                    .terms(terms)
+                    .color(dto.getColor() != null ? dto.getColor() : DEFAULT_COLOR)
+                    .priority(dto.getPriority() != null ? dto.getPriority() : (int) repository.count())
+                    .build();
+            return toDto(repository.save(rule));
+        });
+    }
+
+    /**
+     * 기존 규칙 수정 (보낸 값만 변경)
+     */
+    public SubjectRuleDto updateRule(Long id, SubjectRuleDto dto) {
+        String subject = dto.getSubject() != null ? requireSubject(dto.getSubject()) : null;
+        String terms = dto.getTerms() != null ? normalizeTerms(dto.getTerms()) : null;
+
+        return mutate(() -> {
+            SubjectRule rule = findRule(id);
+            if (subject != null && !subject.equals(rule.getSubject())) {
+                if (repository.existsBySubject(subject)) {
+                    throw new IllegalArgumentException("이미 있는 과목입니다: " + subject);
+                }
+                rule.setSubject(subject);
+            }
+            if (terms != null) {
+                rule.setTerms(terms);
+            }
+            if (dto.getColor() != null) {
+                rule.setColor(dto.getColor());
+            }
+            if (dto.getPriority() != null) {
+                rule.setPriority(dto.getPriority());
+            }
+            return toDto(repository.save(rule));
+        });
+    }
+
+    /**
+     * 규칙 삭제 (해당 과목의 기록은 재분류 후 다른 과목 또는 "기타"로 옮겨짐)
+     */
+    public void deleteRule(Long id) {
+        mutate(() -> {
+            repository.delete(findRule(id));
+            return null;
+        });
+    }
+
+    /**
+     * 규칙 변경을 한 트랜잭션으로 실행하고, 커밋된 뒤에 분류기를 다시 컴파일하고 재분류를 요청합니다.
+     */
+    private <T> T mutate(Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            T result = action.get();
+            AfterCommit.run(() -> {
+                subjectClassifier.reload();
+                subjectReclassifier.requestReclassification();
+            });
+            dataVersion.changedAll(); // 과목 색상이 바뀔 수 있음
+            return result;
+        });
+    }
+
+    private SubjectRule findRule(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("과목 규칙을 찾을 수 없습니다: " + id));
+    }
+
+    private String requireSubject(String subject) {
+        if (subject == null || subject.isBlank()) {
+            throw new IllegalArgumentException("과목 이름이 없습니다.");
+        }
+        String trimmed = subject.trim();
+        if (trimmed.equals(SubjectClassifier.DEFAULT_SUBJECT)) {
+            throw new IllegalArgumentException("\"" + SubjectClassifier.DEFAULT_SUBJECT + "\"는 분류되지 않은 영상에 쓰는 과목입니다.");
+        }
+        return trimmed;
+    }
+
+    // 단어를 소문자로 정규화해 쉼표로 이어 붙임 (각 단어는 제목에서 한 단어로 인식될 수 있어야 함)
+    private String normalizeTerms(List<String> terms) {
+        List<String> normalized = SubjectIndex.splitTerms(terms == null ? null : String.join(",", terms));
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("단어가 하나 이상 필요합니다.");
+        }
+        for (String term : normalized) {
+            if (!SubjectIndex.isSingleToken(term)) {
+                throw new IllegalArgumentException("단어는 공백/기호 없이 한글만, 또는 영문/숫자만으로 입력해 주세요: " + term);
+            }
+        }
+        return String.join(",", normalized);
+    }
+
+    /**
+     * Entity를 DTO로 변환
+     */
+    private SubjectRuleDto toDto(SubjectRule rule) {
+        return SubjectRuleDto.builder()
+                .id(rule.getId())
+                .subject(rule.getSubject())
+                .terms(SubjectIndex.splitTerms(rule.getTerms()))
+                .color(rule.getColor())
+                .priority(rule.getPriority())
+                .build();
+    }
+}
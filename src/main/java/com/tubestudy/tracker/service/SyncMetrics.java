@@ -0,0 +1,130 @@
+package com.tubestudy.tracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 동기화(/sync) 처리 단계별 Micrometer 계측
+ * 단계별 소요 시간(tracker.sync.stage)과 딴짓 감지/신규 영상/거부된 하트비트 카운터를 기록합니다.
+ * Actuator의 /actuator/prometheus로 노출되며, p99가 늘었을 때 어느 단계 때문인지 구분하는 데 사용합니다.
+ */
+@Component
+public class SyncMetrics {
+
+    /**
+     * 동기화 처리 단계
+     * (조회 후 갱신하던 단계는 MERGE 한 문장(UPSERT)으로 합쳐졌으므로 따로 나누지 않습니다.)
+     */
+    public enum Stage {
+        // 제목의 딴짓 키워드 검사
+        DISTRACTION,
+        // 진도 MERGE (조회 + 생성/누적)
+        UPSERT,
+        // 일별 집계 반영
+        ROLLUP,
+        // 트랜잭션 커밋 (JPA flush 포함)
+        COMMIT,
+        // write-behind 버퍼/저널에 넣기 (직접 반영하지 않는 모드)
+        ENQUEUE,
+        // 스트릭 갱신
+        STREAK,
+        // 설정 조회
+        SETTINGS
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Counter newVideos;
+    private final Counter existingVideos;
+
+    public SyncMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("tracker.sync.stage")
+                    .description("Time spent in one stage of the sync pipeline")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.newVideos = videoCounter("new", meterRegistry);
+        this.existingVideos = videoCounter("existing", meterRegistry);
+    }
+
+    private static Counter videoCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("tracker.sync.videos")
+                .description("Heartbeats written directly, by whether the video record was created")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> action) {
+        return stageTimers.get(stage).record(action);
+    }
+
+    public void time(Stage stage, Runnable action) {
+        stageTimers.get(stage).record(action);
+    }
+
+    /**
+     * 현재 트랜잭션의 커밋 시간을 COMMIT 단계로 기록하도록 등록합니다.
+     * (커밋 직전부터 완료까지. 트랜잭션 밖이면 아무것도 하지 않습니다.)
+     */
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Timer.Sample sample;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sample = Timer.start(meterRegistry);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (sample != null) {
+                    sample.stop(stageTimers.get(Stage.COMMIT));
+                }
+            }
+        });
+    }
+
+    /**
+     * 딴짓 감지를 키워드/카테고리별로 셉니다.
+     * (키워드 태그 값의 가짓수는 MetricsConfig의 한도로 제한됩니다.)
+     */
+    public void recordDistraction(DistractionMatcher.Match match) {
+        Counter.builder("tracker.sync.distraction.hits")
+                .description("Distraction keyword matches on synced video titles")
+                .tag("keyword", String.valueOf(match.getKeyword()))
+                .tag("category", String.valueOf(match.getCategory()))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordVideo(boolean created) {
+        (created ? newVideos : existingVideos).increment();
+    }
+
+    /**
+     * 검증에 실패해 거부된 하트비트를 셉니다.
+     *
+     * @param endpoint sync(단건) 또는 batch(일괄)
+     */
+    public void recordRejected(String endpoint) {
+        Counter.builder("tracker.sync.rejected")
+                .description("Heartbeats rejected by validation")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+    }
+}
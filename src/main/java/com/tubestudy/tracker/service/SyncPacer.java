@@ -0,0 +1,115 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 익스텐션의 다음 동기화 시점(nextSyncAfterMs)을 정합니다.
+ * 익스텐션은 학습 시간을 전송 주기와 무관하게 짧은 주기로 쌓아 두었다가 보내므로, 전송 간격을 늘려도 학습 시간은 정확합니다.
+ * - 같은 영상을 끊김 없이 재생 중이면 하트비트마다 간격을 두 배로 늘림 (최대 max-interval-ms)
+ *   재생 상태는 (사용자, 영상)별로 두므로, 한 사용자가 여러 탭에서 다른 영상을 재생해도 탭마다 따로 늘어남
+ * - 새 영상, 탐색/일시정지 직후, 딴짓 판정 직후에는 최소 간격
+ * - 완료(98%) 시점이 다음 간격 안에 있으면 그 시점에 맞춰 줄임
+ * - 처리 중인 /sync 요청이나 write-behind 버퍼가 한도에 가까우면 간격을 늘리고, 넘으면 overload-interval-ms로 크게 늘림
+ * 여러 탭이 같은 시각에 몰리지 않도록 ±10% 흔들어 보냅니다.
+ */
+@Component
+public class SyncPacer {
+
+    // 완료로 처리되는 진도 (VideoProgressDto.toEntity와 같은 기준)
+    private static final double COMPLETION_RATIO = 0.98;
+    private static final double JITTER = 0.1;
+
+    private final HeartbeatCoalescer heartbeatCoalescer;
+
+    private final boolean enabled;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final long overloadIntervalMs;
+    private final int overloadInFlight;
+
+    // (사용자, 영상)별 연속 재생 횟수 (지금 재생 중인 영상만 필요하므로 오래 안 온 영상부터 제거)
+    private final TenantCache<Integer> steadyBeats;
+    // 처리 중인 /sync 요청 수
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public SyncPacer(HeartbeatCoalescer heartbeatCoalescer,
+            MeterRegistry meterRegistry,
+            @Value("${tracker.sync.pacing.enabled:true}") boolean enabled,
+            @Value("${tracker.sync.pacing.min-interval-ms:5000}") long minIntervalMs,
+            @Value("${tracker.sync.pacing.max-interval-ms:30000}") long maxIntervalMs,
+            @Value("${tracker.sync.pacing.overload-interval-ms:120000}") long overloadIntervalMs,
+            @Value("${tracker.sync.pacing.overload-in-flight:20}") int overloadInFlight,
+            @Value("${tracker.tenant.cache-size:10000}") int cacheSize) {
+        this.heartbeatCoalescer = heartbeatCoalescer;
+        this.enabled = enabled;
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+        this.overloadIntervalMs = overloadIntervalMs;
+        this.overloadInFlight = overloadInFlight;
+        this.steadyBeats = new TenantCache<>(cacheSize);
+
+        Gauge.builder("tracker.sync.in_flight", inFlight, AtomicInteger::get)
+                .description("Sync requests currently being processed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * /sync 요청 처리 시작 (끝나면 반드시 finished 호출)
+     */
+    public void started() {
+        inFlight.incrementAndGet();
+    }
+
+    public void finished() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 이번 하트비트에 대한 다음 동기화까지의 간격
+     *
+     * @param distraction 이번 하트비트가 딴짓으로 판정되었는지
+     */
+    public long nextSyncAfterMs(String userId, VideoProgressDto dto, boolean distraction) {
+        if (!enabled) {
+            return minIntervalMs;
+        }
+
+        // 1. 재생 상태: 같은 영상을 이어서 재생했으면 간격을 늘림
+        boolean continued = dto.getAccumulatedStudySeconds() > 0;
+        int beats = steadyBeats.merge(playbackKey(userId, dto.getVideoId()), 0,
+                (previous, reset) -> continued ? previous + 1 : reset);
+
+        long interval = distraction ? minIntervalMs
+                : Math.min(maxIntervalMs, minIntervalMs << Math.min(beats, 16));
+
+        // 2. 완료 시점이 다음 간격 안에 있으면 그때 동기화
+        double untilCompletionMs = (dto.getTotalDurationSeconds() * COMPLETION_RATIO - dto.getLastProgressSeconds())
+                * 1000;
+        if (untilCompletionMs > 0 && untilCompletionMs < interval) {
+            interval = Math.max(minIntervalMs, (long) untilCompletionMs);
+        }
+
+        // 3. 서버 부하: 한도의 절반을 넘으면 두 배, 한도를 넘으면 과부하 간격
+        double load = Math.max((double) inFlight.get() / overloadInFlight, heartbeatCoalescer.backlogRatio());
+        if (load >= 1) {
+            interval = Math.max(interval, overloadIntervalMs);
+        } else if (load >= 0.5) {
+            interval = Math.min(maxIntervalMs, interval * 2);
+        }
+
+        double jitter = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Math.max(minIntervalMs, Math.round(interval * jitter));
+    }
+
+    // 사용자 ID에는 ':'가 올 수 없으므로 (TenantIdArgumentResolver) 키가 겹치지 않음
+    private static String playbackKey(String userId, String videoId) {
+        return userId + ":" + videoId;
+    }
+}
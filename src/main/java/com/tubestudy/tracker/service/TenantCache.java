@@ -0,0 +1,116 @@
+package com.tubestudy.tracker.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+
+/**
+ * 사용자(테넌트)별 값을 담는 크기 제한 캐시
+ * 조회는 ConcurrentHashMap 읽기와 항목의 volatile 사용 시각 기록뿐이므로 잠금을 잡지 않습니다.
+ * 한도를 넘으면 값을 넣은 스레드가 (다른 스레드가 제거 중이 아니면) 오래 사용되지 않은 항목부터 한꺼번에 제거합니다.
+ * 사용 시각은 쓰기마다 올라가는 시계 값이라, 같은 쓰기 사이에 읽힌 항목끼리는 순서를 구분하지 않는 근사 LRU입니다.
+ */
+public final class TenantCache<V> {
+
+    // 한 번 제거할 때 한도보다 이만큼(비율) 더 비워서 제거가 매번 일어나지 않도록 함
+    private static final double EVICTION_SLACK = 0.1;
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final AtomicLong clock = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public TenantCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    public V get(String userId) {
+        Entry<V> entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        entry.touch(clock.get());
+        return entry.value;
+    }
+
+    public void put(String userId, V value) {
+        entries.put(userId, new Entry<>(value, clock.incrementAndGet()));
+        evictIfFull();
+    }
+
+    /**
+     * 값이 없으면 value를 넣고, 있으면 기존 값과 합친 값으로 바꿉니다. (Map.merge와 같음)
+     *
+     * @return 캐시에 남은 값
+     */
+    public V merge(String userId, V value, BinaryOperator<V> remapping) {
+        long now = clock.incrementAndGet();
+        Entry<V> merged = entries.merge(userId, new Entry<>(value, now), (existing, added) -> {
+            V result = remapping.apply(existing.value, added.value);
+            return result == null ? null : new Entry<>(result, now);
+        });
+        evictIfFull();
+        return merged == null ? null : merged.value;
+    }
+
+    public void remove(String userId) {
+        entries.remove(userId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int excess = entries.size() - maxEntries;
+            if (excess <= 0) {
+                return;
+            }
+            int target = excess + (int) (maxEntries * EVICTION_SLACK);
+            // 정렬 도중 사용 시각이 바뀌지 않도록 먼저 읽어 둠
+            List<Candidate<V>> candidates = new ArrayList<>(entries.size());
+            entries.forEach((userId, entry) -> candidates.add(new Candidate<>(userId, entry, entry.lastUsed)));
+            candidates.sort(Comparator.comparingLong(Candidate::lastUsed));
+            for (int i = 0; i < target && i < candidates.size(); i++) {
+                Candidate<V> candidate = candidates.get(i);
+                // 정렬한 뒤에 교체된 항목은 남김
+                entries.remove(candidate.userId(), candidate.entry());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record Candidate<V>(String userId, Entry<V> entry, long lastUsed) {
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastUsed;
+
+        Entry(V value, long lastUsed) {
+            this.value = value;
+            this.lastUsed = lastUsed;
+        }
+
+        // 이미 최신이면 쓰지 않아 자주 읽히는 항목의 캐시 라인을 더럽히지 않음
+        void touch(long now) {
+            if (lastUsed != now) {
+                lastUsed = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.tubestudy.tracker.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 사용자(테넌트)별 변경 작업을 직렬화하는 잠금
+ * 사용자마다 따로 잠그므로 서로 다른 사용자는 서로를 기다리지 않습니다.
+ * 잠금은 그 사용자의 작업이 잡고 있거나 기다리는 동안에만 맵에 남고 마지막 작업이 끝나면 제거되므로,
+ * 맵 크기는 전체 사용자 수가 아니라 동시에 처리 중인 사용자 수로 제한됩니다.
+ *
+ * 트랜잭션을 잠금 안에서 열고 닫아야 커밋까지 직렬화되므로,
+ * 호출하는 쪽은 잠금 → 트랜잭션 → 커밋 → 캐시 반영 → 잠금 해제 순서를 지킵니다.
+ * 그래서 같은 사용자의 요청은 앞선 요청이 커넥션을 얻고 커밋할 때까지 기다리지만,
+ * 다른 사용자의 요청은 커넥션 풀에서만 경쟁합니다.
+ */
+@Component
+public class TenantLocks {
+
+    // userId -> 잠금과 잡고 있거나 기다리는 작업 수
+    private final Map<String, Holder> locks = new ConcurrentHashMap<>();
+
+    public <T> T call(String userId, Supplier<T> action) {
+        Holder holder = locks.compute(userId, (key, current) -> {
+            Holder acquired = current != null ? current : new Holder();
+            acquired.users++;
+            return acquired;
+        });
+        holder.lock.lock();
+        try {
+            return action.get();
+        } finally {
+            holder.lock.unlock();
+            locks.computeIfPresent(userId, (key, current) -> --current.users == 0 ? null : current);
+        }
+    }
+
+    public void run(String userId, Runnable action) {
+        call(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 잠금을 잡고 있거나 기다리는 사용자 수
+     */
+    int activeUsers() {
+        return locks.size();
+    }
+
+    // users는 ConcurrentHashMap.compute 안에서만 바뀜
+    private static final class Holder {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users;
+    }
+}
@@ -1,30 +1,48 @@
 package com.tubestudy.tracker.service;
 
+import com.tubestudy.tracker.dto.CompactHeartbeatDto;
 import com.tubestudy.tracker.dto.ContinueWatchingDto;
 import com.tubestudy.tracker.dto.SyncResponseDto;
+import com.tubestudy.tracker.dto.SyncVerdictDto;
 import com.tubestudy.tracker.dto.VideoProgressDto;
 import com.tubestudy.tracker.dto.CourseItemDto;
+import com.tubestudy.tracker.dto.CoursePageDto;
 import com.tubestudy.tracker.dto.DashboardStatsDto;
-import com.tubestudy.tracker.dto.StudyStreakDto;
 import com.tubestudy.tracker.dto.AnalyticsDto;
+import com.tubestudy.tracker.dto.RangeAnalyticsDto;
 import com.tubestudy.tracker.dto.SettingsDto;
 import com.tubestudy.tracker.entity.VideoProgress;
-import com.tubestudy.tracker.entity.StudyStreak;
+import com.tubestudy.tracker.journal.HeartbeatJournal;
+import com.tubestudy.tracker.repository.DailyStudyRollupRepository;
 import com.tubestudy.tracker.repository.VideoProgressRepository;
-import com.tubestudy.tracker.repository.StudyStreakRepository;
-import com.tubestudy.tracker.repository.DistractionKeywordRepository;
+import com.tubestudy.tracker.repository.VideoProgressUpsert;
+import com.tubestudy.tracker.repository.projection.BucketStudyTime;
+import com.tubestudy.tracker.repository.projection.DateStudyTime;
+import com.tubestudy.tracker.repository.projection.DateVideoCount;
+import com.tubestudy.tracker.repository.projection.SubjectStudyTime;
+import com.tubestudy.tracker.timeseries.StudyTimeSeries;
+import com.tubestudy.tracker.timeseries.SubjectRangeIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Map;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Comparator;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 // import java.util.*;
 import java.util.stream.Collectors;
 
@@ -32,10 +50,35 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TrackerService {
 
+    // 코스 목록 한 페이지의 최대 크기
+    private static final int MAX_COURSE_PAGE_SIZE = 100;
+
+    // 일괄 동기화 한 번에 받을 수 있는 최대 하트비트 수
+    private static final int MAX_SYNC_BATCH_SIZE = 1000;
+
+    // 구간 분석 한 번에 돌려줄 수 있는 최대 단위 구간 수
+    private static final int MAX_RANGE_BUCKETS = 1000;
+
     private final VideoProgressRepository repository;
-    private final StudyStreakRepository studyStreakRepository;
+    private final StudyStreakService studyStreakService;
     private final SettingsService settingsService;
-    private final DistractionKeywordRepository distractionKeywordRepository;
+    private final DistractionKeywordService distractionKeywordService;
+    private final HeartbeatCoalescer heartbeatCoalescer;
+    private final HeartbeatJournal heartbeatJournal;
+    private final VideoProgressBatchWriter batchWriter;
+    private final DailyStudyRollupRepository rollupRepository;
+    private final StudyRollupService studyRollupService;
+    private final SubjectClassifier subjectClassifier;
+    private final TenantLocks tenantLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final SyncMetrics syncMetrics;
+    private final DashboardStream dashboardStream;
+    private final DataVersion dataVersion;
+    private final DashboardStatsCache dashboardStatsCache;
+    private final SyncPacer syncPacer;
+    private final VideoMetadataCache videoMetadataCache;
+    private final StudyTimeSeries studyTimeSeries;
+    private final SubjectRangeIndex subjectRangeIndex;
 
     // ========================================================
     // [Core Logic] 1. 동기화 및 기록 저장/응답
@@ -44,76 +87,94 @@ public class TrackerService {
     /**
      * 데이터를 저장하고 익스텐션에 보낼 응답을 생성합니다.
      * 이 메서드에서 DB 저장/업데이트와 딴짓 분석 로직을 모두 처리합니다.
-     * * @param dto 익스텐션으로부터 받은 데이터 (accumulatedStudySeconds 포함)
+     * * @param userId 사용자 ID
+     * @param dto 익스텐션으로부터 받은 데이터 (accumulatedStudySeconds 포함)
      * 
      * @return 익스텐션에게 보낼 SyncResponseDto
      */
-    @Transactional
-    public SyncResponseDto saveAndGenerateResponse(VideoProgressDto dto) {
-
-        // 1. 기존 기록 찾기
-        Optional<VideoProgress> existingProgressOpt = repository.findByVideoId(dto.getVideoId());
-
-        // 2. 딴짓 분석
-        String distractionMessage = analyzeDistraction(dto.getTitle());
-
-        // 3. 진도 및 완료 상태 계산
-        double ratio = dto.getLastProgressSeconds() / dto.getTotalDurationSeconds();
-        int currentPercentage = (int) (ratio * 100);
-
-        VideoProgress progress;
-
-        if (existingProgressOpt.isPresent()) {
-            progress = existingProgressOpt.get();
-
-            // 3-1. 기록이 있으면 업데이트
-
-            // ✅ A. 실제 시청 시간 누적 및 최종 진도 업데이트
-            progress.update(dto.getAccumulatedStudySeconds(), dto.getLastProgressSeconds()); // 💡 update 메서드 시그니처 조정 필요
+    public SyncResponseDto saveAndGenerateResponse(String userId, VideoProgressDto dto) {
+        // 처리 중인 요청 수는 다음 동기화 간격을 정할 때 서버 부하로 사용
+        syncPacer.started();
+        try {
+            return saveAndRespond(userId, dto, null);
+        } finally {
+            syncPacer.finished();
+        }
+    }
 
-        } else {
-            // 3-2. 기록이 없으면 신규 생성
-
-            // ✅ B. 신규 생성 시 초기 최고 진도 및 완료 상태 설정
-            int initialHighestPercentage = (currentPercentage >= 98) ? 100 : currentPercentage;
-            boolean initialIsCompleted = (currentPercentage >= 98);
-
-            progress = VideoProgress.builder()
-                    .videoId(dto.getVideoId())
-                    .title(dto.getTitle())
-                    .channel(dto.getChannel())
-                    .totalDurationSeconds(dto.getTotalDurationSeconds())
-                    .lastProgressSeconds(dto.getLastProgressSeconds())
-                    .studyTimeSeconds(dto.getAccumulatedStudySeconds())
-                    .highestProgressPercentage(initialHighestPercentage) // ✅ 최고 진도 초기값
-                    .isCompleted(initialIsCompleted) // ✅ 완료 상태 초기값
+    /**
+     * 압축 하트비트를 저장하고 응답을 생성합니다.
+     * 영상 정보와 판정(과목, 딴짓)은 영상의 첫 하트비트에서 기억해 둔 것을 사용합니다.
+     * 서버가 영상 정보를 모르면(재시작, 캐시에서 제거) 저장하지 않고 metadataRequired로 응답하며,
+     * 익스텐션은 같은 학습 시간을 영상 정보와 함께 바로 다시 보냅니다.
+     *
+     * @param userId  사용자 ID
+     * @param compact 압축 하트비트 (영상 정보는 처음이나 바뀌었을 때만 포함)
+     */
+    public SyncResponseDto saveCompactAndGenerateResponse(String userId, CompactHeartbeatDto compact) {
+        VideoMetadataCache.Resolved resolved = videoMetadataCache.resolve(userId, compact);
+        if (resolved == null) {
+            return SyncResponseDto.builder()
+                    .requiresNotification(false)
+                    .message("Video metadata required.")
+                    .metadataRequired(true)
                     .build();
+        }
 
-            repository.save(progress);
+        syncPacer.started();
+        try {
+            return saveAndRespond(userId, resolved.heartbeat(), resolved);
+        } finally {
+            syncPacer.finished();
         }
+    }
 
-        // ************ ✅ 4. 최고 진도 및 완료 상태 공통 업데이트 로직 (새로 추가) ************
+    /**
+     * @param verdict 압축 하트비트에서 기억해 둔 판정 (null이면 제목으로 판정)
+     */
+    private SyncResponseDto saveAndRespond(String userId, VideoProgressDto dto, VideoMetadataCache.Resolved verdict) {
 
-        // C. 최고 진도 업데이트: 현재 진도가 저장된 최고 진도보다 높으면 업데이트
-        if (currentPercentage > progress.getHighestProgressPercentage()) {
-            progress.setHighestProgressPercentage(currentPercentage);
+        // 0. 하트비트 검증 (거부되면 400)
+        String rejection = validateHeartbeat(dto);
+        if (rejection != null) {
+            syncMetrics.recordRejected("sync");
+            throw new IllegalArgumentException(rejection);
         }
 
-        // D. 완료 상태 업데이트: 98% 이상 도달하면 isCompleted를 true로 설정 (한번 true가 되면 유지됨)
-        if (currentPercentage >= 98) {
-            progress.setCompleted(true);
+        // 1. 딴짓 분석
+        String distractionMessage = syncMetrics.time(SyncMetrics.Stage.DISTRACTION,
+                () -> verdict != null
+                        ? reportDistraction(userId, dto.getTitle(), verdict.distraction())
+                        : analyzeDistraction(userId, dto.getTitle()));
+
+        // 2. 진도 계산
+        int currentPercentage = dto.calculatePercentage();
+
+        if (heartbeatJournal.isEnabled()) {
+            // 3-A. 저널 모드: 세그먼트 파일에 순차 기록 후 컴팩터가 주기적으로 반영
+            syncMetrics.time(SyncMetrics.Stage.ENQUEUE, () -> heartbeatJournal.append(userId, dto));
+        } else if (heartbeatCoalescer.isEnabled()) {
+            // 3-B. write-behind 모드: 메모리에서 병합 후 주기적으로 일괄 반영
+            syncMetrics.time(SyncMetrics.Stage.ENQUEUE, () -> heartbeatCoalescer.offer(userId, dto, currentPercentage));
+        } else {
+            // 3-C. 직접 반영: 단일 MERGE 문으로 생성/누적
+            // (H2의 MERGE는 같은 키의 동시 INSERT를 막지 못하므로, 같은 사용자의 쓰기는 잠금으로 직렬화)
+            tenantLocks.run(userId, () -> transactionTemplate.executeWithoutResult(
+                    status -> applyHeartbeat(userId, dto, currentPercentage,
+                            verdict != null ? verdict.subject() : subjectClassifier.classify(dto.getTitle()))));
         }
 
-        // (JPA의 변경 감지(Dirty Checking) 덕분에 기존 기록 업데이트 시에는 별도 save 호출 불필요)
-
-        // ✅ 5. 스트릭 업데이트 (오늘 학습이 감지되었을 때)
-        updateStudyStreak();
+        // ✅ 6. 스트릭 업데이트 (오늘 첫 동기화일 때만 DB 반영)
+        syncMetrics.time(SyncMetrics.Stage.STREAK, () -> studyStreakService.recordStudy(userId));
 
-        // ✅ 6. 설정에서 딴짓 알림 활성화 여부 확인
-        SettingsDto settings = settingsService.getSettings();
+        // ✅ 7. 설정에서 딴짓 알림 활성화 여부 확인
+        SettingsDto settings = syncMetrics.time(SyncMetrics.Stage.SETTINGS, () -> settingsService.getSettings(userId));
         boolean distractionAlertEnabled = settings.isDistractionAlertEnabled();
 
-        // ************ ✅ 7. 응답 DTO 생성 (딴짓 설정 적용) ************
+        // 7-1. 다음 동기화 시점 (재생 상태, 딴짓 판정, 서버 부하 기준)
+        long nextSyncAfterMs = syncPacer.nextSyncAfterMs(userId, dto, distractionMessage != null);
+
+        // ************ ✅ 8. 응답 DTO 생성 (딴짓 설정 적용) ************
         if (distractionMessage != null && distractionAlertEnabled) {
             // 딴짓 감지 + 알림 활성화 → 알림 전송
             return SyncResponseDto.builder()
@@ -122,6 +183,7 @@ public class TrackerService {
                     .isDistraction(true)
                     .distractionMessage(distractionMessage)
                     .distractionAlertEnabled(true)
+                    .nextSyncAfterMs(nextSyncAfterMs)
                     .build();
         } else if (distractionMessage != null) {
             // 딴짓 감지 but 알림 비활성화 → 알림 미전송 (경고만 기록)
@@ -131,6 +193,7 @@ public class TrackerService {
                     .isDistraction(true)
                     .distractionMessage(distractionMessage)
                     .distractionAlertEnabled(false)
+                    .nextSyncAfterMs(nextSyncAfterMs)
                     .build();
         } else {
             // 정상 콘텐츠
@@ -139,70 +202,191 @@ public class TrackerService {
                     .message("Sync successful.")
                     .isDistraction(false)
                     .distractionAlertEnabled(distractionAlertEnabled)
+                    .nextSyncAfterMs(nextSyncAfterMs)
                     .build();
         }
     }
 
     /**
-     * 영상 제목을 분석하여 딴짓 여부를 판단하는 로직
-     * DB에 저장된 활성화된 키워드를 사용합니다.
-     * 
-     * @param title 영상 제목
-     * @return 딴짓 알림 메시지 (딴짓이 아니면 null)
+     * 하트비트 하나를 DB에 직접 반영합니다. (직접 반영 모드, 사용자 잠금과 트랜잭션 안에서 호출)
+     * 기존 기록 조회 없이 MERGE 한 문장으로 생성하거나 학습 시간/최고 진도/완료 상태를 누적합니다.
+     */
+    private void applyHeartbeat(String userId, VideoProgressDto dto, int currentPercentage, String subject) {
+        LocalDateTime now = LocalDateTime.now();
+
+        VideoProgressUpsert row = new VideoProgressUpsert(userId, dto.getVideoId(), dto.getTitle(), dto.getChannel(),
+                subject, dto.getTotalDurationSeconds(), dto.getLastProgressSeconds(), dto.getAccumulatedStudySeconds(),
+                currentPercentage, now);
+        boolean created = syncMetrics.time(SyncMetrics.Stage.UPSERT, () -> repository.upsertProgress(row));
+        syncMetrics.recordVideo(created);
+
+        // 일별 집계에 이번 학습 시간 반영
+        syncMetrics.time(SyncMetrics.Stage.ROLLUP,
+                () -> studyRollupService.record(userId, subject, dto.getAccumulatedStudySeconds(), now));
+        syncMetrics.timeCommit();
+
+        // 열린 대시보드에 변경분 전달
+        AfterCommit.run(() -> dashboardStream.applied(row));
+        dataVersion.changed(userId);
+    }
+
+    /**
+     * 여러 하트비트를 한 번의 트랜잭션으로 반영하고 항목별 결과를 반환합니다.
+     * 오프라인이었거나 큐에 쌓인 하트비트를 한 번에 따라잡기 위한 경로입니다.
+     * 같은 영상의 하트비트는 요청 순서대로 병합한 뒤 영상당 한 번만 반영하며,
+     * 검증에 실패한 항목만 거부되고 나머지는 그대로 반영됩니다.
+     *
+     * @param userId     사용자 ID
+     * @param heartbeats 순서가 있는 하트비트 배열 (여러 영상 가능)
+     * @return 요청과 같은 순서의 항목별 결과
      */
-    private String analyzeDistraction(String title) {
-        String lowerTitle = title.toLowerCase();
+    public List<SyncVerdictDto> saveBatchAndGenerateVerdicts(String userId, List<VideoProgressDto> heartbeats) {
+        if (heartbeats == null || heartbeats.isEmpty()) {
+            throw new IllegalArgumentException("하트비트 배열이 비어 있습니다.");
+        }
+        if (heartbeats.size() > MAX_SYNC_BATCH_SIZE) {
+            throw new IllegalArgumentException("한 번에 최대 " + MAX_SYNC_BATCH_SIZE + "개까지 보낼 수 있습니다.");
+        }
 
-        // DB에서 활성화된 키워드 조회
-        List<com.tubestudy.tracker.entity.DistractionKeyword> activeKeywords = distractionKeywordRepository
-                .findAllByIsActiveTrue();
+        boolean distractionAlertEnabled = settingsService.getSettings(userId).isDistractionAlertEnabled();
+        long receivedAt = System.currentTimeMillis();
+
+        // videoId -> 이번 요청에서 병합된 하트비트 (직접 반영 모드에서 사용)
+        Map<String, CoalescedHeartbeat> folded = new LinkedHashMap<>();
+        List<SyncVerdictDto> verdicts = new ArrayList<>(heartbeats.size());
+        boolean anyAccepted = false;
+
+        for (int i = 0; i < heartbeats.size(); i++) {
+            VideoProgressDto dto = heartbeats.get(i);
+            String rejection = validateHeartbeat(dto);
+            if (rejection != null) {
+                syncMetrics.recordRejected("batch");
+                verdicts.add(SyncVerdictDto.rejected(i, rejection));
+                continue;
+            }
 
-        // 각 키워드에 대해 제목에 포함되는지 확인
-        for (com.tubestudy.tracker.entity.DistractionKeyword keyword : activeKeywords) {
-            if (lowerTitle.contains(keyword.getKeyword().toLowerCase())) {
-                return keyword.getAlertMessage();
+            int currentPercentage = dto.calculatePercentage();
+            if (heartbeatJournal.isEnabled()) {
+                heartbeatJournal.append(userId, dto);
+            } else if (heartbeatCoalescer.isEnabled()) {
+                heartbeatCoalescer.offer(userId, dto, currentPercentage);
+            } else {
+                folded.merge(dto.getVideoId(), CoalescedHeartbeat.of(userId, dto, currentPercentage, receivedAt),
+                        CoalescedHeartbeat::merge);
             }
+            anyAccepted = true;
+
+            String distractionMessage = analyzeDistraction(userId, dto.getTitle());
+            boolean notify = distractionMessage != null && distractionAlertEnabled;
+            verdicts.add(SyncVerdictDto.builder()
+                    .index(i)
+                    .accepted(true)
+                    .requiresNotification(notify)
+                    .distraction(distractionMessage != null)
+                    .message(notify ? distractionMessage : null)
+                    .build());
         }
 
-        return null; // 딴짓 키워드가 없으면 null 반환
+        // 영상당 한 번의 MERGE로 반영 (JDBC 배치, 사용자 잠금 안에서 한 트랜잭션)
+        if (!folded.isEmpty()) {
+            tenantLocks.run(userId, () -> batchWriter.write(new ArrayList<>(folded.values())));
+        }
+        if (anyAccepted) {
+            studyStreakService.recordStudy(userId);
+        }
+        return verdicts;
+    }
+
+    /**
+     * 하트비트 값을 검증합니다.
+     *
+     * @return 거부 사유 (정상이면 null)
+     */
+    private String validateHeartbeat(VideoProgressDto dto) {
+        if (dto == null) {
+            return "빈 항목입니다.";
+        }
+        if (dto.getVideoId() == null || dto.getVideoId().isBlank()) {
+            return "videoId가 없습니다.";
+        }
+        if (!Double.isFinite(dto.getTotalDurationSeconds()) || dto.getTotalDurationSeconds() <= 0) {
+            return "totalDurationSeconds는 0보다 커야 합니다.";
+        }
+        if (!Double.isFinite(dto.getLastProgressSeconds()) || dto.getLastProgressSeconds() < 0) {
+            return "lastProgressSeconds는 0 이상이어야 합니다.";
+        }
+        if (!Double.isFinite(dto.getAccumulatedStudySeconds()) || dto.getAccumulatedStudySeconds() < 0) {
+            return "accumulatedStudySeconds는 0 이상이어야 합니다.";
+        }
+        return null;
+    }
+
+    /**
+     * 영상 제목을 분석하여 딴짓 여부를 판단하는 로직
+     * 활성 키워드로 컴파일된 매처를 사용하므로 DB를 조회하지 않습니다.
+     * 
+     * @param userId 사용자 ID
+     * @param title  영상 제목
+     * @return 딴짓 알림 메시지 (딴짓이 아니면 null)
+     */
+    private String analyzeDistraction(String userId, String title) {
+        return reportDistraction(userId, title, distractionKeywordService.findDistraction(userId, title));
+    }
+
+    /**
+     * 딴짓 판정 결과를 기록하고 열린 대시보드에 알립니다.
+     *
+     * @return 딴짓 알림 메시지 (딴짓이 아니면 null)
+     */
+    private String reportDistraction(String userId, String title, DistractionMatcher.Match match) {
+        if (match == null) {
+            return null; // 딴짓 키워드가 없으면 null 반환
+        }
+        syncMetrics.recordDistraction(match);
+        dashboardStream.distracted(userId, title, match);
+        return match.getAlertMessage();
     }
 
     // ========================================================
     // [Dashboard] 2. 통계 데이터 조회 (Stats)
     // ========================================================
 
-    @Transactional(readOnly = true)
-    public DashboardStatsDto getDashboardStats(String periodType) {
+    /**
+     * 기간별 대시보드 통계 (데이터 버전과 기간 경계 기준으로 캐시, 같은 통계를 동시에 요청하면 한 번만 계산)
+     */
+    public DashboardStatsDto getDashboardStats(String userId, String periodType) {
+        return dashboardStatsCache.get(userId, periodType, () -> computeDashboardStats(userId, periodType));
+    }
+
+    // 집계 쿼리 하나와 캐시된 설정만 사용하므로 별도 트랜잭션 없이 계산
+    private DashboardStatsDto computeDashboardStats(String userId, String periodType) {
 
-        // 1. 조회 기간 결정 및 기록 조회
+        // 1. 조회 기간 결정 및 일별 집계에서 과목별 학습 시간 조회
         LocalDateTime[] range = calculateTimeRange(periodType);
         LocalDateTime startDate = range[0];
-        // LocalDateTime endDate = range[1]; // 사용하지 않음
 
-        List<VideoProgress> allVideos;
+        List<SubjectStudyTime> subjectTotals;
         if (startDate != null) {
-            // 기간이 설정되면 LastSyncedAt을 기준으로 조회
-            allVideos = repository.findByLastSyncedAtBetween(startDate, range[1]);
+            // 기간이 설정되면 해당 날짜 이후의 집계만 합산
+            subjectTotals = rollupRepository.sumBySubjectSince(userId, startDate.toLocalDate());
         } else {
-            // "all" 또는 잘못된 값이 들어오면 기존대로 전체 조회
-            allVideos = repository.findAll();
+            // "all" 또는 잘못된 값이 들어오면 전체 집계 합산
+            subjectTotals = rollupRepository.sumBySubject(userId);
         }
 
         // ✅ 2. 목표 시간 동적 조회
-        int weeklyGoalHours = settingsService.getSettings().getWeeklyGoalHours();
+        int weeklyGoalHours = settingsService.getSettings(userId).getWeeklyGoalHours();
 
         // 3. 총 학습 시간 계산 및 과목별 누적 시간 계산
         double totalStudySeconds = 0;
         Map<String, Double> subjectAccumulatedSeconds = new HashMap<>();
 
-        for (VideoProgress video : allVideos) {
-            // ⚠️ 변경됨: LastProgressSeconds 대신 studyTimeSeconds를 통계 기준으로 사용
-            double studyTimeForVideo = video.getStudyTimeSeconds();
-            totalStudySeconds += studyTimeForVideo;
-
-            // 과목 분류
-            String subject = classifySubject(video.getTitle());
-            subjectAccumulatedSeconds.merge(subject, studyTimeForVideo, Double::sum);
+        for (SubjectStudyTime subjectTotal : subjectTotals) {
+            if (subjectTotal.studySeconds() <= 0) {
+                continue; // 기록 삭제로 0이 된 과목은 제외
+            }
+            totalStudySeconds += subjectTotal.studySeconds();
+            subjectAccumulatedSeconds.merge(subjectTotal.subject(), subjectTotal.studySeconds(), Double::sum);
         }
 
         final double finalTotalStudySeconds = totalStudySeconds;
@@ -213,11 +397,12 @@ public class TrackerService {
                     String subjectName = entry.getKey();
                     double seconds = entry.getValue();
                     double percentage = (finalTotalStudySeconds > 0) ? (seconds / finalTotalStudySeconds) * 100 : 0;
-                    String color = getSubjectColor(subjectName);
+                    String color = subjectClassifier.colorOf(subjectName);
 
                     return DashboardStatsDto.SubjectStatDto.builder()
                             .subjectName(subjectName)
                             .percentage(Math.round(percentage * 100.0) / 100.0)
+                            .studySeconds(seconds)
                             .color(color)
                             .build();
                 })
@@ -240,8 +425,8 @@ public class TrackerService {
                 .build();
     }
 
-    // ... (calculateTimeRange, classifySubject, getSubjectColor, formatTotalSeconds
-    // 등 기존 헬퍼 메서드는 유지)
+    // ... (calculateTimeRange, formatTotalSeconds 등 기존 헬퍼 메서드는 유지)
+    // (과목 분류/색상은 SubjectClassifier로 이동)
 
     /**
      * 기간 유형에 따른 시작 시간과 종료 시간을 계산합니다.
@@ -277,43 +462,6 @@ public class TrackerService {
         return new LocalDateTime[] { startDate, endDate };
     }
 
-    /**
-     * 영상 제목을 기준으로 과목 분류 (시뮬레이션)
-     */
-    private String classifySubject(String title) {
-        String lowerTitle = title.toLowerCase();
-
-        if (lowerTitle.contains("spring") || lowerTitle.contains("java") || lowerTitle.contains("jpa")
-                || lowerTitle.contains("서버")) {
-            return "Java / Backend";
-        }
-        if (lowerTitle.contains("react") || lowerTitle.contains("js") || lowerTitle.contains("css")
-                || lowerTitle.contains("프론트")) {
-            return "Frontend";
-        }
-        if (lowerTitle.contains("알고리즘") || lowerTitle.contains("cs") || lowerTitle.contains("자료구조")
-                || lowerTitle.contains("네트워크")) {
-            return "CS 지식";
-        }
-        return "기타";
-    }
-
-    /**
-     * 과목별 색상 지정 (프런트엔드 Tailwind CSS 색상 코드)
-     */
-    private String getSubjectColor(String subject) {
-        switch (subject) {
-            case "Java / Backend":
-                return "red-500";
-            case "Frontend":
-                return "blue-500";
-            case "CS 지식":
-                return "green-500";
-            default:
-                return "gray-500";
-        }
-    }
-
     /**
      * 총 초를 시:분 형식으로 변환하는 헬퍼 함수
      */
@@ -334,9 +482,9 @@ public class TrackerService {
     // ========================================================
 
     @Transactional(readOnly = true)
-    public ContinueWatchingDto getContinueWatchingData() {
+    public ContinueWatchingDto getContinueWatchingData(String userId) {
         // 1. 가장 최근에 동기화된 영상을 1개 찾습니다.
-        Optional<VideoProgress> latestVideoOpt = repository.findTopByOrderByLastSyncedAtDesc();
+        Optional<VideoProgress> latestVideoOpt = repository.findTopByUserIdOrderByLastSyncedAtDesc(userId);
 
         if (latestVideoOpt.isEmpty()) {
             return null;
@@ -376,34 +524,100 @@ public class TrackerService {
         return String.format("%02d:%02d", minutes, secs);
     }
 
-    // 코스 목록 조회 API 로직
+    // 코스 목록 조회 API 로직 (키셋 페이지네이션)
+    /**
+     * 코스 목록을 마지막 동기화 시간 내림차순으로 한 페이지씩 조회합니다.
+     * OFFSET 대신 직전 페이지 마지막 항목의 (lastSyncedAt, id)를 커서로 사용하므로,
+     * 전체 기록 수와 무관하게 페이지당 비용이 일정합니다.
+     *
+     * @param userId  사용자 ID
+     * @param size    페이지 크기 (1~100)
+     * @param cursor  이전 페이지의 nextCursor (첫 페이지면 null)
+     * @param status  "all", "completed", "in-progress"
+     * @param channel 채널명 필터 (null이면 전체)
+     */
     @Transactional(readOnly = true)
-    public List<CourseItemDto> getAllCourseItems() {
-        // 1. 모든 시청 기록을 마지막 동기화 시간 내림차순으로 가져옵니다.
-        List<VideoProgress> allVideos = repository.findAllByOrderByLastSyncedAtDesc();
+    public CoursePageDto getCoursePage(String userId, int size, String cursor, String status, String channel) {
+        if (size < 1 || size > MAX_COURSE_PAGE_SIZE) {
+            throw new IllegalArgumentException("size는 1~" + MAX_COURSE_PAGE_SIZE + " 사이여야 합니다.");
+        }
+        Boolean completed = parseCourseStatus(status);
+        String channelFilter = (channel == null || channel.isBlank()) ? null : channel;
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회
+        Limit limit = Limit.of(size + 1);
+        List<VideoProgress> videos;
+        if (cursor == null || cursor.isBlank()) {
+            videos = repository.findCoursePage(userId, completed, channelFilter, limit);
+        } else {
+            CourseCursor after = CourseCursor.decode(cursor);
+            videos = repository.findCoursePageAfter(userId, completed, channelFilter, after.lastSyncedAt(),
+                    after.id(), limit);
+        }
+
+        boolean hasNext = videos.size() > size;
+        List<VideoProgress> page = hasNext ? videos.subList(0, size) : videos;
 
-        // 2. Entity 리스트를 DTO 리스트로 변환
-        return allVideos.stream()
-                .map(this::convertToCourseItemDto)
+        LocalDateTime now = LocalDateTime.now();
+        List<CourseItemDto> items = page.stream()
+                .map(video -> convertToCourseItemDto(video, now))
                 .collect(Collectors.toList());
+
+        VideoProgress last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CoursePageDto.builder()
+                .items(items)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new CourseCursor(last.getLastSyncedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    private Boolean parseCourseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case "all" -> null;
+            case "completed" -> true;
+            case "in-progress" -> false;
+            default -> throw new IllegalArgumentException("status는 all, completed, in-progress 중 하나여야 합니다.");
+        };
+    }
+
+    // 코스 목록 커서: 마지막 항목의 (lastSyncedAt, id)를 URL-safe Base64로 인코딩
+    private record CourseCursor(LocalDateTime lastSyncedAt, Long id) {
+
+        String encode() {
+            String raw = lastSyncedAt + "," + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CourseCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int comma = raw.indexOf(',');
+                return new CourseCursor(LocalDateTime.parse(raw.substring(0, comma)),
+                        Long.parseLong(raw.substring(comma + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
     }
 
     // Entity to DTO 변환 헬퍼 메서드
-    private CourseItemDto convertToCourseItemDto(VideoProgress video) {
+    private CourseItemDto convertToCourseItemDto(VideoProgress video, LocalDateTime now) {
         // 진도율 계산 (추출된 메서드 사용)
         int percentage = calculateProgressPercentage(video);
 
         // 유튜브 이어보기 링크 생성
-        String continueUrl = String.format("https://www.youtube.com/watch?v=%s&t=%ds",
-                video.getVideoId(),
-                (int) video.getLastProgressSeconds());
+        String continueUrl = "https://www.youtube.com/watch?v=" + video.getVideoId()
+                + "&t=" + (int) video.getLastProgressSeconds() + "s";
 
         return CourseItemDto.builder()
                 .videoId(video.getVideoId())
                 .title(video.getTitle())
                 .channel(video.getChannel())
                 .percentage(percentage)
-                .lastProgressTimeAgo(formatTimeAgo(video.getLastSyncedAt())) // 시간 포맷팅
+                .lastProgressTimeAgo(formatTimeAgo(video.getLastSyncedAt(), now)) // 시간 포맷팅
                 .continueWatchUrl(continueUrl)
                 .build();
     }
@@ -424,8 +638,7 @@ public class TrackerService {
     }
 
     // 시간 포맷팅 헬퍼 메서드 (방금 전, 5분 전, 2일 전 등으로 표시)
-    private String formatTimeAgo(LocalDateTime pastTime) {
-        LocalDateTime now = LocalDateTime.now();
+    private String formatTimeAgo(LocalDateTime pastTime, LocalDateTime now) {
         long seconds = ChronoUnit.SECONDS.between(pastTime, now);
 
         if (seconds < 60)
@@ -447,135 +660,55 @@ public class TrackerService {
         return pastTime.toLocalDate().toString();
     }
 
-    // ========================================================
-    // [Gamification] 4. 학습 스트릭 관리
-    // ========================================================
-
-    /**
-     * 학습 스트릭을 업데이트합니다.
-     * 매번 학습이 감지될 때 호출되어 연속 학습일 수를 추적합니다.
-     */
-    @Transactional
-    public void updateStudyStreak() {
-        // ID = 1인 스트릭 레코드 조회 또는 생성
-        StudyStreak streak = studyStreakRepository.findById(1L).orElseGet(() -> {
-            StudyStreak newStreak = StudyStreak.builder()
-                    .currentStreak(0)
-                    .longestStreak(0)
-                    .lastStudyDate(null)
-                    .streakStartDate(null)
-                    .longestStreakDate(null)
-                    .streakBroken(false)
-                    .build();
-            return studyStreakRepository.save(newStreak);
-        });
-
-        // 스트릭 업데이트
-        streak.updateStreak();
-    }
-
-    /**
-     * 현재 학습 스트릭 정보를 반환합니다.
-     */
-    @Transactional(readOnly = true)
-    public StudyStreakDto getStudyStreak() {
-        StudyStreak streak = studyStreakRepository.findById(1L).orElseGet(() -> {
-            StudyStreak newStreak = StudyStreak.builder()
-                    .currentStreak(0)
-                    .longestStreak(0)
-                    .lastStudyDate(null)
-                    .streakStartDate(null)
-                    .longestStreakDate(null)
-                    .streakBroken(false)
-                    .build();
-            return studyStreakRepository.save(newStreak);
-        });
-
-        // 알림 로직 추가
-        String notificationMessage = null;
-        String notificationType = null;
-        boolean shouldNotify = false;
-
-        // 마일스톤 체크 (7일, 14일, 30일, 100일)
-        int currentStreak = streak.getCurrentStreak();
-        if (currentStreak == 7) {
-            notificationMessage = "🎉 축하합니다! 7일 연속 학습을 달성했어요!";
-            notificationType = "milestone";
-            shouldNotify = true;
-        } else if (currentStreak == 14) {
-            notificationMessage = "🔥 놀라워요! 14일 연속 학습 달성!";
-            notificationType = "milestone";
-            shouldNotify = true;
-        } else if (currentStreak == 30) {
-            notificationMessage = "⭐ 최고예요! 1개월 연속 학습! 당신은 학습 챔피언입니다!";
-            notificationType = "milestone";
-            shouldNotify = true;
-        } else if (currentStreak == 100) {
-            notificationMessage = "👑 전설이 되었어요! 100일 연속 학습 달성! 🏆";
-            notificationType = "milestone";
-            shouldNotify = true;
-        }
-
-        // 스트릭 끝남 감지
-        if (streak.isStreakBroken() && currentStreak == 1) {
-            notificationMessage = "💪 새로운 시작입니다! 오늘부터 다시 연속 학습을 시작하세요!";
-            notificationType = "encouragement";
-            shouldNotify = true;
-        }
-
-        return StudyStreakDto.builder()
-                .currentStreak(streak.getCurrentStreak())
-                .longestStreak(streak.getLongestStreak())
-                .lastStudyDate(streak.getLastStudyDate())
-                .streakStartDate(streak.getStreakStartDate())
-                .longestStreakDate(streak.getLongestStreakDate())
-                .streakBroken(streak.isStreakBroken())
-                .notificationMessage(notificationMessage)
-                .notificationType(notificationType)
-                .shouldNotify(shouldNotify)
-                .build();
-    }
-
     // ========================================================
     // [Advanced Analytics] 고급 통계 분석
     // ========================================================
     @Transactional(readOnly = true)
-    public AnalyticsDto getAnalytics() {
+    public AnalyticsDto getAnalytics(String userId) {
         LocalDate today = LocalDate.now();
         LocalDate weekAgo = today.minusDays(7);
         LocalDate monthAgo = today.minusDays(30);
 
-        List<VideoProgress> allRecords = repository.findAll();
-
-        // 시간별 통계
-        long totalStudyTimeSeconds = (long) allRecords.stream()
-                .mapToDouble(VideoProgress::getStudyTimeSeconds)
-                .sum();
+        // 최근 30일 날짜별 합계 (시계열의 날짜별 블록, 꺼져 있으면 집계에서 최대 31행)
+        Map<LocalDate, Double> secondsByDay = new HashMap<>();
+        if (studyTimeSeries.isEnabled()) {
+            double[] daily = studyTimeSeries.dailySeconds(userId, monthAgo, today);
+            for (int i = 0; i < daily.length; i++) {
+                secondsByDay.put(monthAgo.plusDays(i), daily[i]);
+            }
+        } else {
+            for (DateStudyTime dayTotal : rollupRepository.sumByDateSince(userId, monthAgo)) {
+                secondsByDay.put(dayTotal.date(), dayTotal.studySeconds());
+            }
+        }
 
-        long weeklyStudyTimeSeconds = (long) allRecords.stream()
-                .filter(v -> !v.getLastSyncedAt().toLocalDate().isBefore(weekAgo))
-                .mapToDouble(VideoProgress::getStudyTimeSeconds)
-                .sum();
+        // 최근 7일 날짜별 시청 영상 수 (최대 7행)
+        Map<LocalDate, Long> videosByDay = new HashMap<>();
+        for (DateVideoCount dayCount : repository.countByLastSyncedDateSince(userId, today.minusDays(6).atStartOfDay())) {
+            videosByDay.put(dayCount.date(), dayCount.videoCount());
+        }
 
-        long monthlyStudyTimeSeconds = (long) allRecords.stream()
-                .filter(v -> !v.getLastSyncedAt().toLocalDate().isBefore(monthAgo))
-                .mapToDouble(VideoProgress::getStudyTimeSeconds)
-                .sum();
+        // 시간별 통계
+        long totalStudyTimeSeconds = (long) (studyTimeSeries.isEnabled() ? studyTimeSeries.totalSeconds(userId)
+                : rollupRepository.sumStudySeconds(userId));
+        double weeklySeconds = 0;
+        double monthlySeconds = 0;
+        for (Map.Entry<LocalDate, Double> dayTotal : secondsByDay.entrySet()) {
+            monthlySeconds += dayTotal.getValue();
+            if (!dayTotal.getKey().isBefore(weekAgo)) {
+                weeklySeconds += dayTotal.getValue();
+            }
+        }
+        long weeklyStudyTimeSeconds = (long) weeklySeconds;
+        long monthlyStudyTimeSeconds = (long) monthlySeconds;
 
         // 일별 통계 (최근 7일)
         AnalyticsDto.DaylyAnalytics[] dailyStats = new AnalyticsDto.DaylyAnalytics[7];
         for (int i = 0; i < 7; i++) {
-            LocalDate dayDate = today.minusDays(6 - i);
-            final LocalDate currentDay = dayDate;
+            LocalDate currentDay = today.minusDays(6 - i);
 
-            long dayStudyTime = (long) allRecords.stream()
-                    .filter(v -> v.getLastSyncedAt().toLocalDate().equals(currentDay))
-                    .mapToDouble(VideoProgress::getStudyTimeSeconds)
-                    .sum();
-
-            long videoCount = allRecords.stream()
-                    .filter(v -> v.getLastSyncedAt().toLocalDate().equals(currentDay))
-                    .count();
+            long dayStudyTime = (long) (double) secondsByDay.getOrDefault(currentDay, 0.0);
+            long videoCount = videosByDay.getOrDefault(currentDay, 0L);
 
             String dayOfWeek = currentDay.getDayOfWeek().toString();
             String koreanDay = translateDayOfWeek(dayOfWeek);
@@ -589,16 +722,24 @@ public class TrackerService {
                     .build();
         }
 
-        // 가장 생산적인 요일 찾기
+        // 가장 생산적인 요일 찾기 (집계에서 요일별 합계, 1=일요일 ... 7=토요일)
         Map<String, Double> dayStudyMap = new HashMap<>();
         String[] daysOfWeek = { "월요일", "화요일", "수요일", "목요일", "금요일", "토요일", "일요일" };
         for (String day : daysOfWeek) {
             dayStudyMap.put(day, 0.0);
         }
 
-        for (VideoProgress v : allRecords) {
-            String dayOfWeek = translateDayOfWeek(v.getLastSyncedAt().toLocalDate().getDayOfWeek().toString());
-            dayStudyMap.put(dayOfWeek, dayStudyMap.getOrDefault(dayOfWeek, 0.0) + v.getStudyTimeSeconds());
+        if (studyTimeSeries.isEnabled()) {
+            double[] weekdaySeconds = studyTimeSeries.dayOfWeekSeconds(userId);
+            for (int i = 0; i < weekdaySeconds.length; i++) {
+                dayStudyMap.merge(daysOfWeek[i], weekdaySeconds[i], Double::sum);
+            }
+        } else {
+            for (BucketStudyTime dayTotal : rollupRepository.sumByDayOfWeek(userId)) {
+                String dayOfWeek = translateDayOfWeek(
+                        java.time.DayOfWeek.SUNDAY.plus(dayTotal.bucket() - 1).toString());
+                dayStudyMap.merge(dayOfWeek, dayTotal.studySeconds(), Double::sum);
+            }
         }
 
         String mostProductiveDay = dayStudyMap.entrySet().stream()
@@ -612,9 +753,15 @@ public class TrackerService {
             hourStudyMap.put(h, 0.0);
         }
 
-        for (VideoProgress v : allRecords) {
-            int hour = v.getLastSyncedAt().getHour();
-            hourStudyMap.put(hour, hourStudyMap.getOrDefault(hour, 0.0) + v.getStudyTimeSeconds());
+        if (studyTimeSeries.isEnabled()) {
+            double[] hourSeconds = studyTimeSeries.hourOfDaySeconds(userId);
+            for (int h = 0; h < hourSeconds.length; h++) {
+                hourStudyMap.merge(h, hourSeconds[h], Double::sum);
+            }
+        } else {
+            for (BucketStudyTime hourTotal : rollupRepository.sumByHour(userId)) {
+                hourStudyMap.merge(hourTotal.bucket(), hourTotal.studySeconds(), Double::sum);
+            }
         }
 
         int mostProductiveHour = hourStudyMap.entrySet().stream()
@@ -623,8 +770,9 @@ public class TrackerService {
                 .orElse(0);
 
         // 평균 세션 시간
-        double averageSessionDuration = allRecords.isEmpty() ? 0
-                : totalStudyTimeSeconds / (double) allRecords.size();
+        long totalWatchedVideos = repository.countByUserId(userId);
+        double averageSessionDuration = totalWatchedVideos == 0 ? 0
+                : totalStudyTimeSeconds / (double) totalWatchedVideos;
 
         return AnalyticsDto.builder()
                 .totalStudyTimeSeconds(totalStudyTimeSeconds)
@@ -633,11 +781,86 @@ public class TrackerService {
                 .dailyStats(dailyStats)
                 .mostProductiveDay(mostProductiveDay)
                 .mostProductiveHour(mostProductiveHour)
-                .totalWatchedVideos(allRecords.size())
+                .totalWatchedVideos(totalWatchedVideos)
                 .averageSessionDuration(averageSessionDuration)
                 .build();
     }
 
+    /**
+     * 임의 날짜 구간의 과목별 학습 시간과 단위 구간별 추이
+     * 과목별 일일 학습 시간의 Fenwick 트리 색인에서 계산하므로 DB를 조회하지 않습니다.
+     * (단위 구간마다 과목 수 × O(log 일수))
+     *
+     * @param fromDate    시작 날짜 (포함, yyyy-MM-dd)
+     * @param toDate      끝 날짜 (포함, yyyy-MM-dd)
+     * @param granularity day / week(월요일 시작) / month / year / total(구간 전체를 한 구간으로)
+     */
+    public RangeAnalyticsDto getRangeAnalytics(String userId, String fromDate, String toDate, String granularity) {
+        LocalDate from = parseRangeDate("from", fromDate);
+        LocalDate to = parseRangeDate("to", toDate);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from은 to보다 늦을 수 없습니다.");
+        }
+        String unit = granularity == null ? "day" : granularity.toLowerCase(Locale.ROOT);
+        nextRangeBoundary(from, unit); // 단위 검증
+
+        List<RangeAnalyticsDto.Bucket> buckets = new ArrayList<>();
+        for (LocalDate start = from; !start.isAfter(to);) {
+            if (buckets.size() == MAX_RANGE_BUCKETS) {
+                throw new IllegalArgumentException(
+                        "한 번에 최대 " + MAX_RANGE_BUCKETS + "개 구간까지 조회할 수 있습니다. 더 큰 단위를 사용하세요.");
+            }
+            LocalDate next = nextRangeBoundary(start, unit);
+            LocalDate end = next.isAfter(to) ? to : next.minusDays(1);
+
+            Map<String, Double> subjectSeconds = subjectRangeIndex.sumBySubject(userId, start, end);
+            buckets.add(RangeAnalyticsDto.Bucket.builder()
+                    .start(start)
+                    .end(end)
+                    .totalSeconds(subjectSeconds.values().stream().mapToDouble(Double::doubleValue).sum())
+                    .subjectSeconds(subjectSeconds)
+                    .build());
+            start = end.plusDays(1);
+        }
+
+        Map<String, Double> subjectSeconds = new LinkedHashMap<>();
+        subjectRangeIndex.sumBySubject(userId, from, to).entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .forEach(entry -> subjectSeconds.put(entry.getKey(), entry.getValue()));
+
+        return RangeAnalyticsDto.builder()
+                .from(from)
+                .to(to)
+                .granularity(unit)
+                .totalStudySeconds(subjectSeconds.values().stream().mapToDouble(Double::doubleValue).sum())
+                .subjectSeconds(subjectSeconds)
+                .buckets(buckets)
+                .build();
+    }
+
+    private LocalDate parseRangeDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " 날짜를 지정해야 합니다. (yyyy-MM-dd)");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " 날짜는 yyyy-MM-dd 형식이어야 합니다.");
+        }
+    }
+
+    // 날짜가 속한 단위 구간 다음 구간의 첫날
+    private LocalDate nextRangeBoundary(LocalDate date, String unit) {
+        return switch (unit) {
+            case "day" -> date.plusDays(1);
+            case "week" -> date.with(TemporalAdjusters.next(java.time.DayOfWeek.MONDAY));
+            case "month" -> date.with(TemporalAdjusters.firstDayOfNextMonth());
+            case "year" -> date.with(TemporalAdjusters.firstDayOfNextYear());
+            case "total" -> LocalDate.MAX;
+            default -> throw new IllegalArgumentException("granularity는 day, week, month, year, total 중 하나여야 합니다.");
+        };
+    }
+
     // 요일 번역 헬퍼 메서드
     private String translateDayOfWeek(String dayOfWeek) {
         return switch (dayOfWeek) {
@@ -652,19 +875,33 @@ public class TrackerService {
         };
     }
 
-    // 특정 videoId에 해당하는 모든 시청 기록을 삭제합니다.
-    @Transactional
-    public void deleteVideoProgress(String videoId) {
-        repository.deleteByVideoId(videoId);
+    // 사용자의 특정 videoId에 해당하는 시청 기록을 삭제합니다.
+    public void deleteVideoProgress(String userId, String videoId) {
+        tenantLocks.run(userId, () -> transactionTemplate.executeWithoutResult(status -> {
+            heartbeatJournal.discard(userId, videoId);
+            heartbeatCoalescer.discard(userId, videoId);
+            repository.findByUserIdAndVideoId(userId, videoId).ifPresent(studyRollupService::remove);
+            repository.deleteByUserIdAndVideoId(userId, videoId);
+            AfterCommit.run(() -> dashboardStream.reset(userId));
+            dataVersion.changed(userId);
+        }));
     }
 
-    // 모든 학습 기록 및 관련 데이터를 삭제합니다.
-    @Transactional
-    public void clearAllStudyData() {
-        // VideoProgress 모두 삭제
-        repository.deleteAll();
-
-        // StudyStreak 모두 삭제
-        studyStreakRepository.deleteAll();
+    // 사용자의 모든 학습 기록 및 관련 데이터를 삭제합니다.
+    public void clearAllStudyData(String userId) {
+        tenantLocks.run(userId, () -> transactionTemplate.executeWithoutResult(status -> {
+            // 아직 반영되지 않은 하트비트 및 VideoProgress 모두 삭제
+            heartbeatJournal.discardAll(userId);
+            heartbeatCoalescer.discardAll(userId);
+            repository.deleteAllByUserId(userId);
+
+            // 일별 집계 모두 삭제
+            studyRollupService.clearAll(userId);
+
+            // StudyStreak 모두 삭제
+            studyStreakService.clearAll(userId);
+            AfterCommit.run(() -> dashboardStream.reset(userId));
+            dataVersion.changed(userId);
+        }));
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.CompactHeartbeatDto;
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 압축 동기화용 영상 정보 사전 (사용자, videoId별)
+ * 영상의 첫 압축 하트비트로 받은 제목/채널/길이를 기억해 두고, 이후 하트비트에 채워 넣습니다.
+ * 제목으로 내린 과목 분류와 딴짓 판정도 함께 기억하므로, 같은 영상은 제목을 다시 훑지 않습니다.
+ * (과목 규칙이나 딴짓 키워드가 바뀌어 버전이 달라지면 다음 하트비트에서 다시 판정)
+ */
+@Component
+public class VideoMetadataCache {
+
+    private final SubjectClassifier subjectClassifier;
+    private final DistractionKeywordService distractionKeywordService;
+    private final int maxVideosPerUser;
+
+    // userId -> (videoId -> 영상 정보, 최근 사용 순)
+    private final TenantCache<Map<String, Video>> videos;
+
+    private final Counter sent;
+    private final Counter cached;
+    private final Counter missing;
+
+    public VideoMetadataCache(SubjectClassifier subjectClassifier,
+            DistractionKeywordService distractionKeywordService,
+            MeterRegistry meterRegistry,
+            @Value("${tracker.sync.compact.max-videos-per-user:100}") int maxVideosPerUser,
+            @Value("${tracker.tenant.cache-size:10000}") int cacheSize) {
+        this.subjectClassifier = subjectClassifier;
+        this.distractionKeywordService = distractionKeywordService;
+        this.maxVideosPerUser = maxVideosPerUser;
+        this.videos = new TenantCache<>(cacheSize);
+        this.sent = metadataCounter("sent", meterRegistry);
+        this.cached = metadataCounter("cached", meterRegistry);
+        this.missing = metadataCounter("missing", meterRegistry);
+    }
+
+    private static Counter metadataCounter(String metadata, MeterRegistry meterRegistry) {
+        return Counter.builder("tracker.sync.compact")
+                .description("Compact heartbeats by whether video metadata was sent, reused or unknown")
+                .tag("metadata", metadata)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 압축 하트비트를 기억해 둔 영상 정보로 채워 일반 하트비트로 바꾸고, 영상의 판정을 함께 돌려줍니다.
+     *
+     * @return 영상 정보를 모르면 null (익스텐션이 영상 정보를 포함해 다시 보내야 함)
+     */
+    public Resolved resolve(String userId, CompactHeartbeatDto compact) {
+        if (compact == null || compact.getVideoId() == null || compact.getVideoId().isBlank()) {
+            throw new IllegalArgumentException("v(videoId)가 없습니다.");
+        }
+
+        Map<String, Video> userVideos = videosOf(userId);
+        Video video;
+        synchronized (userVideos) {
+            Video known = userVideos.get(compact.getVideoId());
+            if (compact.hasMetadata()) {
+                double duration = compact.getTotalDurationSeconds() != null ? compact.getTotalDurationSeconds()
+                        : known != null ? known.totalDurationSeconds : 0;
+                video = known != null && known.sameAs(compact.getTitle(), compact.getChannel(), duration)
+                        ? known
+                        : new Video(compact.getTitle(), compact.getChannel(), duration,
+                                known != null && known.title.equals(compact.getTitle()) ? known.verdict : null);
+                sent.increment();
+            } else if (known == null) {
+                missing.increment();
+                return null;
+            } else {
+                // 길이만 바뀌는 경우(실시간 방송 등)는 제목 판정을 그대로 유지
+                video = compact.getTotalDurationSeconds() == null
+                        || compact.getTotalDurationSeconds() == known.totalDurationSeconds
+                        ? known
+                        : new Video(known.title, known.channel, compact.getTotalDurationSeconds(), known.verdict);
+                cached.increment();
+            }
+            userVideos.put(compact.getVideoId(), video);
+        }
+
+        Verdict verdict = verdictOf(userId, video);
+        VideoProgressDto dto = VideoProgressDto.builder()
+                .videoId(compact.getVideoId())
+                .title(video.title)
+                .channel(video.channel)
+                .totalDurationSeconds(video.totalDurationSeconds)
+                .lastProgressSeconds(compact.getLastProgressSeconds())
+                .accumulatedStudySeconds(compact.getAccumulatedStudySeconds())
+                .build();
+        return new Resolved(dto, verdict.subject(), verdict.distraction());
+    }
+
+    private Map<String, Video> videosOf(String userId) {
+        Map<String, Video> userVideos = videos.get(userId);
+        if (userVideos == null) {
+            userVideos = videos.merge(userId, new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Video> eldest) {
+                    return size() > maxVideosPerUser;
+                }
+            }, (existing, created) -> existing);
+        }
+        return userVideos;
+    }
+
+    /**
+     * 기억해 둔 판정이 현재 규칙/키워드 버전과 같으면 그대로, 아니면 다시 판정합니다.
+     */
+    private Verdict verdictOf(String userId, Video video) {
+        // 판정보다 먼저 버전을 읽어야, 판정 중에 바뀐 규칙이 이전 버전의 판정으로 남지 않음
+        long subjectVersion = subjectClassifier.currentVersion();
+        DistractionMatcher matcher = distractionKeywordService.currentMatcher(userId);
+
+        Verdict verdict = video.verdict;
+        if (verdict == null || verdict.subjectVersion() != subjectVersion
+                || verdict.matcherVersion() != matcher.getVersion()) {
+            verdict = new Verdict(subjectClassifier.classify(video.title), matcher.find(video.title),
+                    subjectVersion, matcher.getVersion());
+            video.verdict = verdict;
+        }
+        return verdict;
+    }
+
+    /**
+     * 채워진 하트비트와 영상의 판정
+     *
+     * @param subject     과목 분류
+     * @param distraction 딴짓 키워드 (딴짓이 아니면 null)
+     */
+    public record Resolved(VideoProgressDto heartbeat, String subject, DistractionMatcher.Match distraction) {
+    }
+
+    private record Verdict(String subject, DistractionMatcher.Match distraction, long subjectVersion,
+            long matcherVersion) {
+    }
+
+    private static final class Video {
+        private final String title;
+        private final String channel;
+        private final double totalDurationSeconds;
+        private volatile Verdict verdict;
+
+        Video(String title, String channel, double totalDurationSeconds, Verdict verdict) {
+            this.title = title;
+            this.channel = channel;
+            this.totalDurationSeconds = totalDurationSeconds;
+            this.verdict = verdict;
+        }
+
+        boolean sameAs(String title, String channel, double totalDurationSeconds) {
+            return this.title.equals(title) && Objects.equals(this.channel, channel)
+                    && this.totalDurationSeconds == totalDurationSeconds;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import com.tubestudy.tracker.repository.VideoProgressUpsert;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 병합된 하트비트 묶음을 VideoProgress와 일별 집계에 일괄 반영합니다.
+ * 호출한 쪽의 트랜잭션에 참여하며, 같은 영상이 한 묶음에 여러 번 나오면 순서대로 누적합니다.
+ * 기존 기록을 조회하지 않고 MERGE 업서트를 JDBC 배치로 보내므로, 다른 경로와 동시에 반영되어도 누적이 유실되지 않습니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class VideoProgressBatchWriter {
+
+    private final VideoProgressRepository repository;
+    private final StudyRollupService studyRollupService;
+    private final SubjectClassifier subjectClassifier;
+    private final DashboardStream dashboardStream;
+    private final DataVersion dataVersion;
+
+    @Transactional
+    public void write(List<CoalescedHeartbeat> batch) {
+        List<VideoProgressUpsert> rows = new ArrayList<>(batch.size());
+        for (CoalescedHeartbeat heartbeat : batch) {
+            // 병합된 하트비트는 마지막 하트비트 시각으로 동기화 시각과 집계 버킷을 정함
+            LocalDateTime receivedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(heartbeat.getLastReceivedAt()),
+                    ZoneId.systemDefault());
+
+            String subject = subjectClassifier.classify(heartbeat.getTitle());
+            rows.add(new VideoProgressUpsert(heartbeat.getUserId(), heartbeat.getVideoId(), heartbeat.getTitle(),
+                    heartbeat.getChannel(), subject, heartbeat.getTotalDurationSeconds(),
+                    heartbeat.getLastProgressSeconds(), heartbeat.getAccumulatedStudySeconds(),
+                    heartbeat.getHighestPercentage(), receivedAt));
+
+            studyRollupService.record(heartbeat.getUserId(), subject, heartbeat.getAccumulatedStudySeconds(),
+                    receivedAt);
+        }
+
+        repository.upsertProgress(rows);
+        AfterCommit.run(() -> rows.forEach(dashboardStream::applied));
+        rows.stream().map(VideoProgressUpsert::userId).distinct().forEach(dataVersion::changed);
+    }
+}
@@ -0,0 +1,90 @@
+package com.tubestudy.tracker.timeseries;
+
+/**
+ * 날짜별 값(밀리초)에 대한 Fenwick 트리 (Binary Indexed Tree)
+ * 한 날짜에 더하기와 임의 날짜 구간의 합이 모두 O(log n)입니다.
+ * 범위 밖 날짜가 들어오면 크기를 두 배로 늘려 다시 만듭니다. (O(n), 드물게 발생)
+ * 스레드 안전하지 않으며 SubjectRangeIndex의 사용자 잠금 안에서만 사용됩니다.
+ */
+final class DailyFenwickTree {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // values[0]이 가리키는 날짜
+    private long baseEpochDay;
+    // 날짜별 원래 값 (다시 만들 때 사용)
+    private long[] values;
+    // 1부터 시작하는 Fenwick 배열 (tree[i]는 (i - lowbit(i), i] 구간의 합)
+    private long[] tree;
+
+    DailyFenwickTree(long firstEpochDay) {
+        this.baseEpochDay = firstEpochDay;
+        this.values = new long[INITIAL_CAPACITY];
+        this.tree = new long[INITIAL_CAPACITY + 1];
+    }
+
+    void add(long epochDay, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        ensureCovers(epochDay);
+        int index = (int) (epochDay - baseEpochDay);
+        values[index] += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * fromEpochDay부터 toEpochDay까지(포함)의 합
+     */
+    long sum(long fromEpochDay, long toEpochDay) {
+        return prefix(toEpochDay) - prefix(fromEpochDay - 1);
+    }
+
+    // baseEpochDay부터 epochDay까지(포함)의 합
+    private long prefix(long epochDay) {
+        if (epochDay < baseEpochDay) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = (int) Math.min(epochDay - baseEpochDay + 1, values.length); i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+        return total;
+    }
+
+    private void ensureCovers(long epochDay) {
+        long first = Math.min(baseEpochDay, epochDay);
+        long last = Math.max(baseEpochDay + values.length - 1, epochDay);
+        if (first == baseEpochDay && last == baseEpochDay + values.length - 1) {
+            return;
+        }
+
+        int capacity = values.length;
+        while (capacity < last - first + 1) {
+            capacity *= 2;
+        }
+        // 앞쪽으로 넓힐 때는 늘어난 칸을 모두 앞에 두어 과거 날짜가 이어서 들어와도 다시 만들지 않도록 함
+        long newBase = first < baseEpochDay ? last - capacity + 1 : first;
+
+        long[] resized = new long[capacity];
+        System.arraycopy(values, 0, resized, (int) (baseEpochDay - newBase), values.length);
+        baseEpochDay = newBase;
+        values = resized;
+        tree = build(resized);
+    }
+
+    // O(n) 구성: 각 칸을 자기 부모 칸에 한 번씩 더함
+    private static long[] build(long[] values) {
+        long[] tree = new long[values.length + 1];
+        System.arraycopy(values, 0, tree, 1, values.length);
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+        return tree;
+    }
+}
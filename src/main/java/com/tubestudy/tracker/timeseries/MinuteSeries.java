@@ -0,0 +1,267 @@
+package com.tubestudy.tracker.timeseries;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 한 사용자의 분 단위 학습 시간 (밀리초)
+ * 하루를 int[1440] 블록 하나로 두고 epoch day로 찾으므로, 한 분에 더하는 연산은 O(1)입니다.
+ * 보존 기간이 지난 날은 블록을 버리지만, 시간대별/요일별 합계와 전체 합계는 계속 유지합니다.
+ * 블록은 최근 maxDays개까지만 두므로(블록 하나 약 5.8 KB) 사용자 하나의 메모리는 maxDays × 5.8 KB를 넘지 않습니다.
+ * 모든 메서드는 이 객체를 잠그고 실행됩니다.
+ */
+final class MinuteSeries {
+
+    static final int MINUTES_PER_DAY = 1440;
+    static final int MILLIS_PER_MINUTE = 60_000;
+
+    // epoch day -> 분별 학습 시간 (밀리초)
+    private final Map<Long, int[]> days = new HashMap<>();
+    // 전체 기간의 시간대별(0-23), 요일별(월요일=0) 합계 (밀리초)
+    private final long[] hourOfDay = new long[24];
+    private final long[] dayOfWeek = new long[7];
+    // 최대 블록 수 (넘으면 가장 오래된 날의 블록부터 버림)
+    private final int maxDays;
+
+    MinuteSeries(int maxDays) {
+        this.maxDays = Math.max(1, maxDays);
+    }
+
+    static long epochDay(long epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+
+    // 1970-01-01은 목요일
+    static int dayOfWeekIndex(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7);
+    }
+
+    /**
+     * 한 분에 학습 시간을 더합니다.
+     *
+     * @param oldestEpochDay 보존 기간의 첫날 (이전이면 합계에만 반영)
+     */
+    synchronized void add(long epochMinute, int millis, long oldestEpochDay) {
+        if (millis == 0) {
+            return;
+        }
+        long day = epochDay(epochMinute);
+        int minute = (int) Math.floorMod(epochMinute, MINUTES_PER_DAY);
+        if (day >= oldestEpochDay) {
+            int[] minutes = days.get(day);
+            if (minutes == null && (days.size() < maxDays || evictOlderThan(day))) {
+                minutes = new int[MINUTES_PER_DAY];
+                days.put(day, minutes);
+            }
+            if (minutes != null) {
+                minutes[minute] += millis;
+            }
+        }
+        hourOfDay[minute / 60] += millis;
+        dayOfWeek[dayOfWeekIndex(day)] += millis;
+    }
+
+    /**
+     * fromEpochMinute부터 거슬러 올라가며 millis만큼 차감합니다. (영상 삭제 시)
+     * 분 단위 기록에는 영상 정보가 없으므로 근사치입니다: 마지막 학습 시각 이전의 가장 가까운 기록부터 차감하므로,
+     * 같은 시간대에 다른 영상도 보고 있었다면 그 영상의 분에서 차감될 수 있습니다.
+     * 분별 값과 합계는 음수가 되지 않고, 시간대별/요일별/전체 합계는 항상 같은 값을 유지합니다.
+     * 보존 기간 안에서 다 차감하지 못한 나머지는 마지막 학습 시각의 시간대/요일부터 거슬러 올라가며 합계에서만 뺍니다.
+     */
+    synchronized void remove(long fromEpochMinute, long millis, long oldestEpochDay) {
+        long remaining = millis;
+        long lastDay = epochDay(fromEpochMinute);
+        for (long day = lastDay; day >= oldestEpochDay && remaining > 0; day--) {
+            int[] minutes = days.get(day);
+            if (minutes == null) {
+                continue;
+            }
+            int from = day == lastDay ? (int) Math.floorMod(fromEpochMinute, MINUTES_PER_DAY) : MINUTES_PER_DAY - 1;
+            for (int minute = from; minute >= 0 && remaining > 0; minute--) {
+                int removed = (int) Math.min(minutes[minute], remaining);
+                if (removed > 0) {
+                    minutes[minute] -= removed;
+                    hourOfDay[minute / 60] -= removed;
+                    dayOfWeek[dayOfWeekIndex(day)] -= removed;
+                    remaining -= removed;
+                }
+            }
+        }
+
+        if (remaining > 0) {
+            // 남아 있는 블록에 해당하는 몫은 빼지 않음 (블록 합계와 시간대/요일 합계가 어긋나지 않도록)
+            long[] keptHours = new long[hourOfDay.length];
+            long[] keptWeekdays = new long[dayOfWeek.length];
+            for (Map.Entry<Long, int[]> block : days.entrySet()) {
+                int[] minutes = block.getValue();
+                for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                    keptHours[minute / 60] += minutes[minute];
+                    keptWeekdays[dayOfWeekIndex(block.getKey())] += minutes[minute];
+                }
+            }
+            // 두 합계에서 블록 밖 몫의 총합은 같으므로 같은 양이 빠짐 (기록보다 많이 지우면 0에서 멈춤)
+            drainBackwards(hourOfDay, keptHours, (int) Math.floorMod(fromEpochMinute, MINUTES_PER_DAY) / 60, remaining);
+            drainBackwards(dayOfWeek, keptWeekdays, dayOfWeekIndex(lastDay), remaining);
+        }
+    }
+
+    // start 칸부터 한 칸씩 거꾸로(처음 칸 다음은 마지막 칸) 돌며 floor를 넘는 만큼에서 amount를 뺍니다.
+    private static void drainBackwards(long[] buckets, long[] floor, int start, long amount) {
+        long remaining = amount;
+        for (int i = 0; i < buckets.length && remaining > 0; i++) {
+            int index = Math.floorMod(start - i, buckets.length);
+            long removed = Math.max(0, Math.min(buckets[index] - floor[index], remaining));
+            buckets[index] -= removed;
+            remaining -= removed;
+        }
+    }
+
+    /**
+     * [fromEpochMinute, toEpochMinute) 구간의 합계 (보존 기간 안의 기록만)
+     */
+    synchronized long sum(long fromEpochMinute, long toEpochMinute) {
+        long total = 0;
+        for (long day = epochDay(fromEpochMinute); day <= epochDay(toEpochMinute - 1); day++) {
+            int[] minutes = days.get(day);
+            if (minutes == null) {
+                continue;
+            }
+            long dayStart = day * MINUTES_PER_DAY;
+            int from = (int) Math.max(0, fromEpochMinute - dayStart);
+            int to = (int) Math.min(MINUTES_PER_DAY, toEpochMinute - dayStart);
+            for (int minute = from; minute < to; minute++) {
+                total += minutes[minute];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * fromEpochDay부터 count일 동안의 날짜별 합계
+     */
+    synchronized long[] dailyTotals(long fromEpochDay, int count) {
+        long[] totals = new long[count];
+        for (int i = 0; i < count; i++) {
+            int[] minutes = days.get(fromEpochDay + i);
+            if (minutes != null) {
+                for (int value : minutes) {
+                    totals[i] += value;
+                }
+            }
+        }
+        return totals;
+    }
+
+    synchronized long[] hourOfDay() {
+        return hourOfDay.clone();
+    }
+
+    synchronized long[] dayOfWeek() {
+        return dayOfWeek.clone();
+    }
+
+    synchronized long totalMillis() {
+        long total = 0;
+        for (long value : hourOfDay) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * 보존 기간이 지난 날과 (삭제로) 비게 된 날의 블록을 버리고, 최대 블록 수를 넘는 오래된 블록도 버립니다.
+     * (최대 블록 수를 줄이고 재시작해 스냅샷에 더 많은 블록이 있는 경우)
+     */
+    synchronized void expire(long oldestEpochDay) {
+        Iterator<Map.Entry<Long, int[]>> blocks = days.entrySet().iterator();
+        while (blocks.hasNext()) {
+            Map.Entry<Long, int[]> block = blocks.next();
+            if (block.getKey() < oldestEpochDay || isZero(block.getValue())) {
+                blocks.remove();
+            }
+        }
+        while (days.size() > maxDays) {
+            evictOlderThan(Long.MAX_VALUE);
+        }
+    }
+
+    // 블록이 가득 찼을 때 day보다 오래된 가장 오래된 블록을 버립니다. (없으면 day가 가장 오래되었으므로 합계에만 반영)
+    private boolean evictOlderThan(long day) {
+        long oldest = Long.MAX_VALUE;
+        for (long key : days.keySet()) {
+            oldest = Math.min(oldest, key);
+        }
+        if (oldest >= day) {
+            return false;
+        }
+        days.remove(oldest);
+        return true;
+    }
+
+    private static boolean isZero(int[] minutes) {
+        for (int value : minutes) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 스냅샷 형식: 시간대별 24개, 요일별 7개 합계(long) → 블록 수(int) →
+     * 블록마다 epoch day(long), 0이 아닌 분의 수(short), (분(short), 밀리초(int)) 쌍
+     */
+    synchronized void write(DataOutputStream out) throws IOException {
+        for (long value : hourOfDay) {
+            out.writeLong(value);
+        }
+        for (long value : dayOfWeek) {
+            out.writeLong(value);
+        }
+
+        out.writeInt(days.size());
+        for (Map.Entry<Long, int[]> day : days.entrySet()) {
+            int[] minutes = day.getValue();
+            int nonZero = 0;
+            for (int value : minutes) {
+                if (value != 0) {
+                    nonZero++;
+                }
+            }
+            out.writeLong(day.getKey());
+            out.writeShort(nonZero);
+            for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                if (minutes[minute] != 0) {
+                    out.writeShort(minute);
+                    out.writeInt(minutes[minute]);
+                }
+            }
+        }
+    }
+
+    static MinuteSeries read(DataInputStream in, int maxDays) throws IOException {
+        MinuteSeries series = new MinuteSeries(maxDays);
+        for (int i = 0; i < series.hourOfDay.length; i++) {
+            series.hourOfDay[i] = in.readLong();
+        }
+        for (int i = 0; i < series.dayOfWeek.length; i++) {
+            series.dayOfWeek[i] = in.readLong();
+        }
+
+        int dayCount = in.readInt();
+        for (int i = 0; i < dayCount; i++) {
+            long day = in.readLong();
+            int[] minutes = new int[MINUTES_PER_DAY];
+            int nonZero = in.readUnsignedShort();
+            for (int j = 0; j < nonZero; j++) {
+                minutes[in.readUnsignedShort()] = in.readInt();
+            }
+            series.days.put(day, minutes);
+        }
+        return series;
+    }
+}
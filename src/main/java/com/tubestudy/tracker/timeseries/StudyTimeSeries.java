@@ -0,0 +1,312 @@
+package com.tubestudy.tracker.timeseries;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 사용자별 분 단위 학습 시간 시계열 (메모리, 주기적으로 바이너리 스냅샷 저장)
+ * 하트비트의 학습 시간을 받은 시각에서 거슬러 올라가는 분들에 나눠 더하므로(분당 최대 60초),
+ * 전송 간격이 길거나 영상을 여러 시간대에 걸쳐 봐도 실제로 공부한 시간대/요일에 집계됩니다.
+ * 분석의 시간대별/요일별 분포와 구간 합계는 DB를 읽지 않고 여기서 계산합니다.
+ *
+ * 스냅샷 사이(flush-interval-ms)에 프로세스가 비정상 종료되면 그동안의 기록은 시계열에서만 빠집니다.
+ * (VideoProgress와 일별 집계에는 남아 있음)
+ *
+ * 메모리는 사용자마다 최대 max-days-per-user개의 하루 블록(약 5.8 KB)과 합계 몇 개이므로,
+ * 전체 힙 사용량의 상한은 시계열이 있는 사용자 수 × max-days-per-user × 5.8 KB입니다. (기본 31일이면 사용자당 약 180 KB)
+ * 보존 기간(retention-days)이 더 길어도 블록은 가장 최근의 max-days-per-user일만 남고, 지난 날은 합계에만 남습니다.
+ */
+@Slf4j
+@Component
+public class StudyTimeSeries {
+
+    private static final String SNAPSHOT_FILE = "study-minutes.bin";
+    private static final int MAGIC = 0x54534D31; // "TSM1"
+    // 분석(TrackerService.getAnalytics)이 날짜별로 읽는 최근 31일의 블록은 항상 남김
+    private static final int MIN_DAYS_PER_USER = 31;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int retentionDays;
+    private final int maxDaysPerUser;
+    private final long flushIntervalMs;
+
+    private final Map<String, MinuteSeries> series = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // 스냅샷을 읽었거나 일별 집계로 채웠는지 (둘 다 아니면 시작 시 일별 집계로 한 번 채움)
+    private volatile boolean populated;
+
+    private ScheduledExecutorService flusher;
+
+    public StudyTimeSeries(
+            @Value("${tracker.timeseries.enabled:true}") boolean enabled,
+            @Value("${tracker.timeseries.directory:./data/timeseries}") String directory,
+            @Value("${tracker.timeseries.retention-days:366}") int retentionDays,
+            @Value("${tracker.timeseries.max-days-per-user:31}") int maxDaysPerUser,
+            @Value("${tracker.timeseries.flush-interval-ms:60000}") long flushIntervalMs) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.retentionDays = retentionDays;
+        this.maxDaysPerUser = Math.max(MIN_DAYS_PER_USER, maxDaysPerUser);
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 스냅샷을 읽고 주기적 저장을 시작합니다.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Unknown study time series snapshot: " + file);
+                }
+                int userCount = in.readInt();
+                for (int i = 0; i < userCount; i++) {
+                    series.put(in.readUTF(), MinuteSeries.read(in, maxDaysPerUser));
+                }
+            }
+            populated = true;
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "study-series-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 스냅샷이 없어 아직 한 번도 채워지지 않았는지 (기존 일별 집계로 채워야 하는지)
+     * 일별 집계에는 이미 반영된 하트비트도 들어 있으므로, 하트비트를 받기 시작한 뒤에 채우면 같은 시간을 두 번 더하게 됩니다.
+     * 그래서 웹 서버가 요청을 받기 전에만 확인하고(DailyStudyRollupInitializer), 한 번 채운 뒤나 기록이 하나라도 있으면 다시 채우지 않습니다.
+     */
+    public boolean needsBackfill() {
+        return enabled && !populated && series.isEmpty();
+    }
+
+    /**
+     * 일별 집계로 채웠음을 기록합니다. (이후 needsBackfill은 false)
+     */
+    public void backfilled() {
+        populated = true;
+        dirty.set(true);
+    }
+
+    /**
+     * 학습 시간을 at에서 거슬러 올라가며 분마다 최대 60초씩 나눠 더합니다. (하트비트 반영이 커밋된 뒤 호출)
+     *
+     * @param seconds 이번에 반영된 학습 시간
+     * @param at      하트비트를 받은 시각
+     */
+    public void record(String userId, double seconds, LocalDateTime at) {
+        if (!enabled || !(seconds > 0)) {
+            return;
+        }
+        MinuteSeries userSeries = series.computeIfAbsent(userId, key -> new MinuteSeries(maxDaysPerUser));
+        long oldest = oldestEpochDay();
+        long epochMinute = epochMinute(at);
+        long remaining = Math.round(seconds * 1000);
+
+        // 받은 시각이 속한 분은 그 분에서 지난 시간만큼만 채움
+        int capacity = at.getSecond() * 1000 + at.getNano() / 1_000_000;
+        // 하루치를 넘는 값은 마지막으로 채운 분에 모두 넣음 (정상 하트비트는 몇 분 이내)
+        for (int step = 0; remaining > 0 && step < MinuteSeries.MINUTES_PER_DAY; step++) {
+            int millis = (int) Math.min(remaining, step == MinuteSeries.MINUTES_PER_DAY - 1 ? remaining : capacity);
+            userSeries.add(epochMinute - step, millis, oldest);
+            remaining -= millis;
+            capacity = MinuteSeries.MILLIS_PER_MINUTE;
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * 기존 일별 집계 버킷(날짜, 시간대)을 그 시간의 60분에 고르게 나눠 채웁니다. (최초 1회 백필, needsBackfill 참고)
+     */
+    public void seed(String userId, LocalDate date, int hour, double seconds) {
+        if (!enabled || !(seconds > 0)) {
+            return;
+        }
+        MinuteSeries userSeries = series.computeIfAbsent(userId, key -> new MinuteSeries(maxDaysPerUser));
+        long oldest = oldestEpochDay();
+        long hourStart = date.toEpochDay() * MinuteSeries.MINUTES_PER_DAY + hour * 60L;
+        long millis = Math.round(seconds * 1000);
+        for (int minute = 0; minute < 60; minute++) {
+            userSeries.add(hourStart + minute, (int) (millis / 60 + (minute < millis % 60 ? 1 : 0)), oldest);
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * 삭제된 영상의 학습 시간을 마지막 학습 시각부터 거슬러 올라가며 차감합니다.
+     * 분 단위 기록은 영상별로 나뉘어 있지 않으므로, 여러 영상을 번갈아 본 시간대에서는
+     * 다른 영상의 분에서 차감될 수 있는 근사치입니다. (총합은 정확하며 음수가 되지 않음)
+     */
+    public void remove(String userId, double seconds, LocalDateTime lastSyncedAt) {
+        MinuteSeries userSeries = enabled ? series.get(userId) : null;
+        if (userSeries == null || !(seconds > 0) || lastSyncedAt == null) {
+            return;
+        }
+        userSeries.remove(epochMinute(lastSyncedAt), Math.round(seconds * 1000), oldestEpochDay());
+        dirty.set(true);
+    }
+
+    /**
+     * 사용자의 시계열을 모두 삭제합니다.
+     */
+    public void clear(String userId) {
+        if (enabled && series.remove(userId) != null) {
+            dirty.set(true);
+        }
+    }
+
+    // ========================================================
+    // 조회
+    // ========================================================
+
+    /**
+     * [from, to) 구간의 학습 시간 (초, 분 단위로 내림한 경계 기준, 보존 기간 안의 기록만)
+     */
+    public double sumSeconds(String userId, LocalDateTime from, LocalDateTime to) {
+        MinuteSeries userSeries = series.get(userId);
+        if (userSeries == null || !from.isBefore(to)) {
+            return 0;
+        }
+        return userSeries.sum(epochMinute(from), epochMinute(to)) / 1000.0;
+    }
+
+    /**
+     * from부터 to까지(포함) 날짜별 학습 시간 (초)
+     */
+    public double[] dailySeconds(String userId, LocalDate from, LocalDate to) {
+        int count = (int) Math.max(0, to.toEpochDay() - from.toEpochDay() + 1);
+        MinuteSeries userSeries = series.get(userId);
+        return userSeries == null ? new double[count]
+                : toSeconds(userSeries.dailyTotals(from.toEpochDay(), count));
+    }
+
+    /**
+     * 전체 기간의 시간대별(0-23) 학습 시간 (초)
+     */
+    public double[] hourOfDaySeconds(String userId) {
+        MinuteSeries userSeries = series.get(userId);
+        return userSeries == null ? new double[24] : toSeconds(userSeries.hourOfDay());
+    }
+
+    /**
+     * 전체 기간의 요일별(월요일=0 ... 일요일=6) 학습 시간 (초)
+     */
+    public double[] dayOfWeekSeconds(String userId) {
+        MinuteSeries userSeries = series.get(userId);
+        return userSeries == null ? new double[7] : toSeconds(userSeries.dayOfWeek());
+    }
+
+    /**
+     * 전체 기간의 학습 시간 (초)
+     */
+    public double totalSeconds(String userId) {
+        MinuteSeries userSeries = series.get(userId);
+        return userSeries == null ? 0 : userSeries.totalMillis() / 1000.0;
+    }
+
+    private static double[] toSeconds(long[] millis) {
+        double[] seconds = new double[millis.length];
+        for (int i = 0; i < millis.length; i++) {
+            seconds[i] = millis[i] / 1000.0;
+        }
+        return seconds;
+    }
+
+    static long epochMinute(LocalDateTime at) {
+        return at.toLocalDate().toEpochDay() * MinuteSeries.MINUTES_PER_DAY + at.getHour() * 60L + at.getMinute();
+    }
+
+    private long oldestEpochDay() {
+        return LocalDate.now().minusDays(retentionDays - 1L).toEpochDay();
+    }
+
+    // ========================================================
+    // 스냅샷
+    // ========================================================
+
+    /**
+     * 바뀐 내용이 있으면 보존 기간이 지난 블록을 버리고 스냅샷 파일을 새로 씁니다.
+     * 임시 파일에 쓴 뒤 교체하므로, 쓰는 도중 종료되어도 이전 스냅샷이 남습니다.
+     */
+    public synchronized void flush() throws IOException {
+        if (!enabled || !dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            long oldest = oldestEpochDay();
+            Files.createDirectories(directory);
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                Map<String, MinuteSeries> users = Map.copyOf(series);
+                out.writeInt(MAGIC);
+                out.writeInt(users.size());
+                for (Map.Entry<String, MinuteSeries> user : users.entrySet()) {
+                    user.getValue().expire(oldest);
+                    out.writeUTF(user.getKey());
+                    user.getValue().write(out);
+                }
+            }
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            dirty.set(true);
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Study time series snapshot failed, will retry", e);
+        }
+    }
+
+    /**
+     * 종료 시 마지막 스냅샷을 저장합니다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+}
@@ -0,0 +1,86 @@
+package com.tubestudy.tracker.timeseries;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자·과목별 일일 학습 시간의 Fenwick 트리 색인 (메모리)
+ * 시작 시 일별 집계(DailyStudyRollup)로 다시 만들고, 이후에는 집계가 바뀔 때마다(커밋 후) 같은 양을 더하거나 뺍니다.
+ * 임의 날짜 구간의 과목별 합계를 SQL 없이 과목 수 × O(log 일수)로 계산합니다.
+ */
+@Component
+public class SubjectRangeIndex {
+
+    // userId -> 과목 -> 날짜별 학습 시간 트리
+    private final Map<String, Map<String, DailyFenwickTree>> users = new ConcurrentHashMap<>();
+
+    /**
+     * 과목의 날짜에 학습 시간을 더합니다. (차감은 음수)
+     */
+    public void add(String userId, String subject, LocalDate date, double seconds) {
+        long millis = Math.round(seconds * 1000);
+        if (millis == 0) {
+            return;
+        }
+        Map<String, DailyFenwickTree> subjects = users.computeIfAbsent(userId, key -> new HashMap<>());
+        synchronized (subjects) {
+            subjects.computeIfAbsent(subject, key -> new DailyFenwickTree(date.toEpochDay()))
+                    .add(date.toEpochDay(), millis);
+        }
+    }
+
+    /**
+     * 사용자의 색인을 모두 삭제합니다.
+     */
+    public void clear(String userId) {
+        users.remove(userId);
+    }
+
+    /**
+     * 일별 집계 전체로 색인을 다시 만듭니다.
+     *
+     * @param rows (사용자, 날짜, 과목)별 학습 시간 합계
+     */
+    public void rebuild(List<Row> rows) {
+        Map<String, Map<String, DailyFenwickTree>> rebuilt = new HashMap<>();
+        for (Row row : rows) {
+            long millis = Math.round(row.studySeconds() * 1000);
+            rebuilt.computeIfAbsent(row.userId(), key -> new HashMap<>())
+                    .computeIfAbsent(row.subject(), key -> new DailyFenwickTree(row.date().toEpochDay()))
+                    .add(row.date().toEpochDay(), millis);
+        }
+        users.keySet().retainAll(rebuilt.keySet());
+        users.putAll(rebuilt);
+    }
+
+    /**
+     * from부터 to까지(포함) 과목별 학습 시간 (초, 학습 시간이 없는 과목은 제외)
+     */
+    public Map<String, Double> sumBySubject(String userId, LocalDate from, LocalDate to) {
+        Map<String, Double> totals = new HashMap<>();
+        Map<String, DailyFenwickTree> subjects = users.get(userId);
+        if (subjects == null) {
+            return totals;
+        }
+        synchronized (subjects) {
+            subjects.forEach((subject, tree) -> {
+                long millis = tree.sum(from.toEpochDay(), to.toEpochDay());
+                if (millis > 0) {
+                    totals.put(subject, millis / 1000.0);
+                }
+            });
+        }
+        return totals;
+    }
+
+    /**
+     * 색인을 만들 때 읽는 (사용자, 날짜, 과목)별 학습 시간
+     */
+    public record Row(String userId, LocalDate date, String subject, double studySeconds) {
+    }
+}
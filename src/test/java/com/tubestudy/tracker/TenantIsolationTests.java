@@ -0,0 +1,114 @@
+package com.tubestudy.tracker;
+
+import com.tubestudy.tracker.config.TenantId;
+import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * X-User-Id가 다른 두 사용자가 같은 videoId를 보내도 기록/스트릭/설정/키워드가 섞이지 않는지 확인합니다.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:tenant-isolation-tests;DB_CLOSE_DELAY=-1",
+		"tracker.timeseries.directory=target/timeseries/tenant-isolation-tests"
+})
+@AutoConfigureMockMvc
+class TenantIsolationTests {
+
+	private static final String VIDEO_ID = "shared-video";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private VideoProgressRepository repository;
+
+	@Test
+	void sameVideoIdIsTrackedSeparatelyPerUser() throws Exception {
+		sync("iso-alice", "Spring 강의", 30).andExpect(status().isOk());
+		sync("iso-alice", "Spring 강의", 20).andExpect(status().isOk());
+		sync("iso-bob", "Spring 강의", 7).andExpect(status().isOk());
+
+		VideoProgress alice = repository.findByUserIdAndVideoId("iso-alice", VIDEO_ID).orElseThrow();
+		VideoProgress bob = repository.findByUserIdAndVideoId("iso-bob", VIDEO_ID).orElseThrow();
+		assertThat(alice.getId()).isNotEqualTo(bob.getId());
+		assertThat(alice.getStudyTimeSeconds()).isEqualTo(50);
+		assertThat(bob.getStudyTimeSeconds()).isEqualTo(7);
+
+		// 한 사용자가 지워도 다른 사용자의 기록은 남음
+		mockMvc.perform(delete("/api/tracker/video/" + VIDEO_ID).header(TenantId.HEADER, "iso-alice"))
+				.andExpect(status().is2xxSuccessful());
+		assertThat(repository.findByUserIdAndVideoId("iso-alice", VIDEO_ID)).isEmpty();
+		assertThat(repository.findByUserIdAndVideoId("iso-bob", VIDEO_ID)).isPresent();
+	}
+
+	@Test
+	void streaksArePerUser() throws Exception {
+		sync("streak-alice", "Spring 강의", 30).andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/tracker/streak").header(TenantId.HEADER, "streak-alice"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.currentStreak").value(1));
+		mockMvc.perform(get("/api/tracker/streak").header(TenantId.HEADER, "streak-bob"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.currentStreak").value(0));
+	}
+
+	@Test
+	void settingsArePerUser() throws Exception {
+		mockMvc.perform(post("/api/settings").header(TenantId.HEADER, "settings-alice")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"weeklyGoalHours\":5,\"distractionAlertEnabled\":false}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/settings").header(TenantId.HEADER, "settings-alice"))
+				.andExpect(jsonPath("$.weeklyGoalHours").value(5))
+				.andExpect(jsonPath("$.distractionAlertEnabled").value(false));
+		mockMvc.perform(get("/api/settings").header(TenantId.HEADER, "settings-bob"))
+				.andExpect(jsonPath("$.weeklyGoalHours").value(20))
+				.andExpect(jsonPath("$.distractionAlertEnabled").value(true));
+	}
+
+	@Test
+	void keywordsArePerUser() throws Exception {
+		mockMvc.perform(post("/api/settings/keywords").header(TenantId.HEADER, "keyword-alice")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"keyword\":\"하이라이트\",\"alertMessage\":\"하이라이트는 나중에!\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/settings/keywords").header(TenantId.HEADER, "keyword-alice"))
+				.andExpect(jsonPath("$[*].keyword", hasItem("하이라이트")));
+		mockMvc.perform(get("/api/settings/keywords").header(TenantId.HEADER, "keyword-bob"))
+				.andExpect(jsonPath("$[*].keyword", not(hasItem("하이라이트"))));
+
+		sync("keyword-alice", "롤 하이라이트", 10)
+				.andExpect(jsonPath("$.distraction").value(true))
+				.andExpect(jsonPath("$.distractionMessage").value("하이라이트는 나중에!"));
+		sync("keyword-bob", "롤 하이라이트", 10)
+				.andExpect(jsonPath("$.distraction").value(false));
+	}
+
+	private ResultActions sync(String userId, String title, double accumulatedStudySeconds) throws Exception {
+		return mockMvc.perform(post("/api/tracker/sync").header(TenantId.HEADER, userId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"videoId":"%s","title":"%s","channel":"TubeStudy","totalDurationSeconds":600,
+						"lastProgressSeconds":60,"accumulatedStudySeconds":%s}
+						""".formatted(VIDEO_ID, title, accumulatedStudySeconds)));
+	}
+}
@@ -0,0 +1,264 @@
+package com.tubestudy.tracker.journal;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.JournalCheckpointRepository;
+import com.tubestudy.tracker.repository.JournalDiscardRepository;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import com.tubestudy.tracker.service.CoalescedHeartbeat;
+import com.tubestudy.tracker.service.VideoProgressBatchWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 임시 디렉터리에 저널을 열고 닫으면서(재시작) 재생/체크포인트/삭제 표시를 확인합니다.
+ * "비정상 종료"는 반영 없이 파일만 닫는 closeFiles로 흉내 냅니다.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:journal-tests;DB_CLOSE_DELAY=-1",
+		"tracker.timeseries.directory=target/timeseries/journal-tests"
+})
+class HeartbeatJournalTests {
+
+	private static final String USER_ID = "journal-user";
+
+	@TempDir
+	Path directory;
+
+	@Autowired
+	private VideoProgressBatchWriter batchWriter;
+
+	@Autowired
+	private JournalCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private JournalDiscardRepository discardRepository;
+
+	@Autowired
+	private VideoProgressRepository repository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<HeartbeatJournal> opened = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		checkpointRepository.deleteAll();
+		discardRepository.deleteAll();
+		transactionTemplate.executeWithoutResult(status -> repository.deleteAllByUserId(USER_ID));
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		for (HeartbeatJournal journal : opened) {
+			journal.closeFiles();
+		}
+	}
+
+	@Test
+	void recordsAreReplayedAfterACrashAndNotAppliedTwice() throws Exception {
+		HeartbeatJournal journal = open(directory, 1024);
+		journal.append(USER_ID, heartbeat("spring-1", 60, 10));
+		journal.append(USER_ID, heartbeat("spring-1", 120, 15));
+		journal.append(USER_ID, heartbeat("react-1", 30, 5));
+		crash(journal);
+
+		HeartbeatJournal restarted = open(directory, 1024);
+		assertThat(restarted.compact()).isEqualTo(3);
+		assertThat(studySeconds("spring-1")).isEqualTo(25);
+		assertThat(studySeconds("react-1")).isEqualTo(5);
+		assertThat(progress("spring-1").getLastProgressSeconds()).isEqualTo(120);
+
+		// 체크포인트 이후 새 레코드만 반영
+		restarted.append(USER_ID, heartbeat("spring-1", 180, 20));
+		crash(restarted);
+		HeartbeatJournal again = open(directory, 1024);
+		assertThat(again.compact()).isEqualTo(1);
+		assertThat(again.compact()).isZero();
+		assertThat(studySeconds("spring-1")).isEqualTo(45);
+	}
+
+	@Test
+	void segmentsRollOverAndReopenAtTheLastRecord() throws Exception {
+		HeartbeatJournal journal = open(directory, 4);
+		for (int i = 1; i <= 10; i++) {
+			journal.append(USER_ID, heartbeat("spring-1", i * 10, 1));
+		}
+		assertThat(segmentFiles()).hasSize(3);
+		assertThat(journal.compact()).isEqualTo(10);
+		crash(journal);
+
+		// 마지막 세그먼트(2건)에 이어서 기록하고, 다음 세그먼트로 넘어감
+		HeartbeatJournal restarted = open(directory, 4);
+		for (int i = 11; i <= 13; i++) {
+			restarted.append(USER_ID, heartbeat("spring-1", i * 10, 1));
+		}
+		assertThat(segmentFiles()).hasSize(4);
+		assertThat(restarted.compact()).isEqualTo(3);
+		assertThat(studySeconds("spring-1")).isEqualTo(13);
+		assertThat(progress("spring-1").getLastProgressSeconds()).isEqualTo(130);
+		assertThat(checkpointRepository.findAll()).singleElement().satisfies(checkpoint -> {
+			assertThat(checkpoint.getSegmentIndex()).isEqualTo(3);
+			assertThat(checkpoint.getRecordOffset()).isEqualTo(1);
+		});
+	}
+
+	@Test
+	void checkpointAheadOfTheFilesReplaysFromTheStart(@TempDir Path replaced) throws Exception {
+		HeartbeatJournal journal = open(directory, 2);
+		for (int i = 0; i < 5; i++) {
+			journal.append(USER_ID, heartbeat("spring-1", 10, 1));
+		}
+		journal.compact();
+		crash(journal);
+
+		// 저널 디렉터리가 비워진 경우: 체크포인트(세그먼트 2)가 파일(세그먼트 0)보다 앞섬
+		HeartbeatJournal fresh = open(replaced, 2);
+		fresh.append(USER_ID, heartbeat("react-1", 10, 7));
+		assertThat(fresh.compact()).isEqualTo(1);
+		assertThat(studySeconds("react-1")).isEqualTo(7);
+		assertThat(studySeconds("spring-1")).isEqualTo(5);
+	}
+
+	@Test
+	void foldMergesPerVideoAndHourKeepingTheLatestPosition() throws Exception {
+		HeartbeatJournal journal = open(directory, 16);
+		journal.append(USER_ID, heartbeat("spring-1", 0, 0));
+		journal.append(USER_ID, heartbeat("react-1", 0, 0));
+
+		long nine = millis(LocalDateTime.of(2025, 3, 10, 9, 10));
+		long ten = millis(LocalDateTime.of(2025, 3, 10, 10, 5));
+		List<CoalescedHeartbeat> folded = journal.fold(List.of(
+				new HeartbeatRecord(0, nine, 100, 10, 600),
+				new HeartbeatRecord(1, nine + 1_000, 50, 4, 300),
+				new HeartbeatRecord(0, nine + 60_000, 590, 20, 600),
+				new HeartbeatRecord(0, ten, 30, 5, 600)), HeartbeatJournal.Discards.NONE);
+
+		assertThat(folded).hasSize(3);
+		CoalescedHeartbeat springNine = folded.get(0);
+		assertThat(springNine.getVideoId()).isEqualTo("spring-1");
+		assertThat(springNine.getAccumulatedStudySeconds()).isEqualTo(30);
+		assertThat(springNine.getLastProgressSeconds()).isEqualTo(590);
+		assertThat(springNine.getHighestPercentage()).isEqualTo(98);
+		assertThat(folded.get(1).getVideoId()).isEqualTo("react-1");
+		assertThat(folded.get(2).getVideoId()).isEqualTo("spring-1");
+		assertThat(folded.get(2).getAccumulatedStudySeconds()).isEqualTo(5);
+
+		// 삭제 표시 시각까지의 레코드는 건너뜀
+		HeartbeatJournal.Discards discards = new HeartbeatJournal.Discards(
+				Map.of(USER_ID + '\0' + "spring-1", nine + 60_000), Map.of());
+		List<CoalescedHeartbeat> filtered = journal.fold(List.of(
+				new HeartbeatRecord(0, nine, 100, 10, 600),
+				new HeartbeatRecord(0, nine + 60_000, 590, 20, 600),
+				new HeartbeatRecord(1, nine + 60_000, 50, 4, 300),
+				new HeartbeatRecord(0, ten, 30, 5, 600)), discards);
+		assertThat(filtered).extracting(CoalescedHeartbeat::getVideoId).containsExactly("react-1", "spring-1");
+		assertThat(filtered.get(1).getAccumulatedStudySeconds()).isEqualTo(5);
+	}
+
+	@Test
+	void discardSurvivesACrashBeforeTheCheckpointAdvances() throws Exception {
+		HeartbeatJournal journal = open(directory, 1024);
+		journal.append(USER_ID, heartbeat("spring-1", 60, 10));
+		journal.append(USER_ID, heartbeat("react-1", 30, 5));
+		transactionTemplate.executeWithoutResult(status -> journal.discard(USER_ID, "spring-1"));
+		Thread.sleep(2);
+		journal.append(USER_ID, heartbeat("vue-1", 30, 3));
+		crash(journal);
+
+		HeartbeatJournal restarted = open(directory, 1024);
+		assertThat(restarted.compact()).isEqualTo(3);
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-1")).isEmpty();
+		assertThat(studySeconds("react-1")).isEqualTo(5);
+		assertThat(studySeconds("vue-1")).isEqualTo(3);
+		// 따라잡았으므로 삭제 표시는 체크포인트와 함께 정리됨
+		assertThat(discardRepository.count()).isZero();
+
+		// 삭제 이후에 받은 하트비트는 다시 반영됨
+		Thread.sleep(2);
+		restarted.append(USER_ID, heartbeat("spring-1", 90, 8));
+		restarted.compact();
+		assertThat(studySeconds("spring-1")).isEqualTo(8);
+	}
+
+	@Test
+	void discardAllSurvivesACrashAndRollbackKeepsRecords() throws Exception {
+		HeartbeatJournal journal = open(directory, 1024);
+		journal.append(USER_ID, heartbeat("spring-1", 60, 10));
+		journal.append("journal-other", heartbeat("spring-1", 60, 4));
+
+		// 롤백된 삭제는 표시를 남기지 않음
+		transactionTemplate.executeWithoutResult(status -> {
+			journal.discard(USER_ID, "spring-1");
+			status.setRollbackOnly();
+		});
+		transactionTemplate.executeWithoutResult(status -> journal.discardAll("journal-other"));
+		crash(journal);
+
+		HeartbeatJournal restarted = open(directory, 1024);
+		restarted.compact();
+		assertThat(studySeconds("spring-1")).isEqualTo(10);
+		assertThat(repository.findByUserIdAndVideoId("journal-other", "spring-1")).isEmpty();
+	}
+
+	private HeartbeatJournal open(Path journalDirectory, int segmentRecords) throws IOException {
+		HeartbeatJournal journal = new HeartbeatJournal(batchWriter, checkpointRepository, discardRepository,
+				transactionTemplate, true, journalDirectory.toString(), segmentRecords, 3_600_000);
+		journal.open();
+		opened.add(journal);
+		return journal;
+	}
+
+	private void crash(HeartbeatJournal journal) throws IOException {
+		journal.closeFiles();
+		opened.remove(journal);
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().startsWith("segment-")).toList();
+		}
+	}
+
+	private VideoProgress progress(String videoId) {
+		return repository.findByUserIdAndVideoId(USER_ID, videoId).orElseThrow();
+	}
+
+	private double studySeconds(String videoId) {
+		return progress(videoId).getStudyTimeSeconds();
+	}
+
+	private static long millis(LocalDateTime at) {
+		return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private static VideoProgressDto heartbeat(String videoId, double lastProgressSeconds,
+			double accumulatedStudySeconds) {
+		return VideoProgressDto.builder()
+				.videoId(videoId)
+				.title("Spring 강의 " + videoId)
+				.channel("TubeStudy")
+				.totalDurationSeconds(600)
+				.lastProgressSeconds(lastProgressSeconds)
+				.accumulatedStudySeconds(accumulatedStudySeconds)
+				.build();
+	}
+}
@@ -0,0 +1,279 @@
+package com.tubestudy.tracker.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 크롬 익스텐션 부하 시뮬레이터 (기본 빌드에서는 제외, "load" 태그)
+ * N개의 유튜브 탭이 content.js와 같이 /sync 하트비트를 보내는 상황을 만들고,
+ * 처리량, p50/p99/p999 지연 시간(HdrHistogram), 하트비트당 DB 문장 수를 출력합니다.
+ * 탭은 content.js처럼 응답의 nextSyncAfterMs를 따라 다음 하트비트를 보냅니다. (-Dtracker.load.honor-pacing=false면 고정 주기)
+ *
+ * mvn -P load-test test -Dtracker.load.tabs=200 -Dtracker.load.duration-seconds=60
+ *
+ * 지연 시간은 하트비트를 보냈어야 할 시각부터 측정하므로, 서버가 밀려 전송이 늦어진 시간도 포함됩니다.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:load-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.show-sql=false",
+		"tracker.timeseries.directory=target/timeseries/load-tests"
+})
+class ExtensionLoadTests {
+
+	private static final int TABS = Integer.getInteger("tracker.load.tabs", 50);
+	private static final int DURATION_SECONDS = Integer.getInteger("tracker.load.duration-seconds", 30);
+	// content.js의 기본 동기화 주기 (응답에 nextSyncAfterMs가 없을 때)
+	private static final int HEARTBEAT_INTERVAL_MS = Integer.getInteger("tracker.load.heartbeat-interval-ms", 5000);
+	private static final boolean HONOR_PACING = Boolean.parseBoolean(
+			System.getProperty("tracker.load.honor-pacing", "true"));
+	private static final Pattern NEXT_SYNC_AFTER_MS = Pattern.compile("\"nextSyncAfterMs\":(\\d+)");
+	private static final int CLIENT_THREADS = Integer.getInteger("tracker.load.client-threads", 64);
+
+	private static final String[] STUDY_TITLES = {
+			"Spring Boot JPA 강의 3편", "React 훅 완벽 정리", "알고리즘 - 이분 탐색", "자료구조 - 해시 테이블", "네트워크 기초 TCP/IP"
+	};
+	private static final String[] DISTRACTION_TITLES = {
+			"주말 브이로그", "신작 게임 gameplay 리뷰", "asmr 빗소리 10시간"
+	};
+
+	// 모든 커넥션에서 만든 SQL 문장 수
+	private static final AtomicLong STATEMENTS = new AtomicLong();
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	void simulatedTabsReportLatencyAndStatementsPerHeartbeat() throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		URI syncUri = URI.create("http://localhost:" + port + "/api/tracker/sync");
+
+		Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+		AtomicLong heartbeats = new AtomicLong();
+		AtomicLong errors = new AtomicLong();
+		AtomicLong distractions = new AtomicLong();
+
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(CLIENT_THREADS);
+		CountDownLatch finished = new CountDownLatch(TABS);
+		long startNanos = System.nanoTime();
+		long endNanos = startNanos + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+		long statementsBefore = STATEMENTS.get();
+
+		for (int i = 0; i < TABS; i++) {
+			// 탭마다 첫 하트비트 시각을 주기 안에서 고르게 흩음
+			long firstTick = startNanos + TimeUnit.MILLISECONDS.toNanos((long) HEARTBEAT_INTERVAL_MS * i / TABS);
+			SimulatedTab tab = new SimulatedTab("student-" + i, new Random(i));
+			scheduler.schedule(new Runnable() {
+				private long intendedNanos = firstTick;
+
+				@Override
+				public void run() {
+					if (intendedNanos >= endNanos) {
+						finished.countDown();
+						return;
+					}
+					HttpRequest request = HttpRequest.newBuilder(syncUri)
+							.timeout(Duration.ofSeconds(30))
+							.header("Content-Type", "application/json")
+							.header("X-User-Id", tab.userId)
+							.POST(HttpRequest.BodyPublishers.ofString(tab.nextHeartbeat()))
+							.build();
+					long intervalMs = HEARTBEAT_INTERVAL_MS;
+					try {
+						HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+						if (response.statusCode() != 200) {
+							errors.incrementAndGet();
+						} else {
+							if (response.body().contains("\"distraction\":true")) {
+								distractions.incrementAndGet();
+							}
+							Matcher hint = NEXT_SYNC_AFTER_MS.matcher(response.body());
+							if (HONOR_PACING && hint.find()) {
+								intervalMs = Long.parseLong(hint.group(1));
+							}
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					long now = System.nanoTime();
+					latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(Math.max(0, now - intendedNanos)),
+							latencyMicros.getHighestTrackableValue()));
+					heartbeats.incrementAndGet();
+
+					// 다음 하트비트는 원래 보냈어야 할 시각 기준 (늦어졌으면 바로 보냄)
+					tab.intervalMs = intervalMs;
+					intendedNanos += TimeUnit.MILLISECONDS.toNanos(intervalMs);
+					scheduler.schedule(this, Math.max(0, intendedNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+				}
+			}, firstTick - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		boolean completed = finished.await(DURATION_SECONDS + 120L, TimeUnit.SECONDS);
+		scheduler.shutdownNow();
+		double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+		long statements = STATEMENTS.get() - statementsBefore;
+
+		System.out.println("========== Extension load report ==========");
+		System.out.printf(Locale.ROOT, "tabs=%d, interval=%dms%s, duration=%ds, client threads=%d%n",
+				TABS, HEARTBEAT_INTERVAL_MS, HONOR_PACING ? " (server paced)" : "", DURATION_SECONDS, CLIENT_THREADS);
+		System.out.printf(Locale.ROOT, "heartbeats=%d, errors=%d, distraction responses=%d%n",
+				heartbeats.get(), errors.get(), distractions.get());
+		System.out.printf(Locale.ROOT, "throughput=%.1f heartbeats/s%n", heartbeats.get() / elapsedSeconds);
+		System.out.printf(Locale.ROOT, "latency ms: p50=%.2f, p99=%.2f, p999=%.2f, max=%.2f%n",
+				latencyMicros.getValueAtPercentile(50) / 1000.0,
+				latencyMicros.getValueAtPercentile(99) / 1000.0,
+				latencyMicros.getValueAtPercentile(99.9) / 1000.0,
+				latencyMicros.getMaxValue() / 1000.0);
+		System.out.printf(Locale.ROOT, "db statements=%d (%.2f per heartbeat)%n",
+				statements, heartbeats.get() == 0 ? 0.0 : (double) statements / heartbeats.get());
+
+		assertThat(completed).as("모든 탭이 제한 시간 안에 끝나야 합니다.").isTrue();
+		assertThat(heartbeats.get()).isPositive();
+		assertThat(errors.get()).isZero();
+	}
+
+	/**
+	 * 유튜브 탭 하나: 재생 위치가 앞으로 진행되고, 가끔 탐색(seek)하거나 딴짓 영상으로 넘어갑니다.
+	 * accumulatedStudySeconds는 content.js와 같이 직전 전송 이후 앞으로 재생된 만큼만 인정합니다.
+	 */
+	private static final class SimulatedTab {
+
+		private final String userId;
+		private final Random random;
+
+		private String videoId;
+		private String title;
+		private double duration;
+		private double position;
+		private int videoSeq;
+		private boolean first = true;
+		// 이번 하트비트까지 지난 시간 (직전 응답의 nextSyncAfterMs)
+		private long intervalMs = HEARTBEAT_INTERVAL_MS;
+
+		SimulatedTab(String userId, Random random) {
+			this.userId = userId;
+			this.random = random;
+			openNextVideo();
+		}
+
+		private void openNextVideo() {
+			videoSeq++;
+			videoId = userId + "-v" + videoSeq;
+			// 10%는 딴짓 영상
+			title = random.nextInt(10) == 0
+					? DISTRACTION_TITLES[random.nextInt(DISTRACTION_TITLES.length)]
+					: STUDY_TITLES[random.nextInt(STUDY_TITLES.length)];
+			duration = 300 + random.nextInt(3300);
+			position = 0;
+			first = true;
+		}
+
+		String nextHeartbeat() {
+			double intervalSeconds = intervalMs / 1000.0;
+			double accumulated;
+			if (first) {
+				// 첫 전송은 학습 시간 없이 위치만 기록
+				accumulated = 0;
+				first = false;
+			} else if (random.nextInt(20) == 0) {
+				// 5%는 탐색: 앞뒤로 크게 이동하므로 학습 시간으로 인정하지 않음
+				position = random.nextDouble() * duration;
+				accumulated = 0;
+			} else {
+				double advanced = Math.min(intervalSeconds, duration - position);
+				position += advanced;
+				accumulated = advanced;
+			}
+
+			String body = String.format(Locale.ROOT,
+					"{\"videoId\":\"%s\",\"title\":\"%s\",\"channel\":\"load-channel\","
+							+ "\"totalDurationSeconds\":%.1f,\"lastProgressSeconds\":%.1f,\"accumulatedStudySeconds\":%.1f}",
+					videoId, title, duration, position, accumulated);
+
+			// 끝까지 본 영상은 다음 영상으로
+			if (position >= duration) {
+				openNextVideo();
+			}
+			return body;
+		}
+	}
+
+	@TestConfiguration
+	static class StatementCountingConfig {
+
+		private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall",
+				"createStatement");
+
+		/**
+		 * DataSource를 감싸 커넥션에서 만드는 SQL 문장 수를 셉니다.
+		 * (JPA와 JdbcTemplate을 모두 포함하며, JDBC 배치는 한 문장으로 셉니다.)
+		 */
+		@Bean
+		static BeanPostProcessor statementCountingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					return new DelegatingDataSource(dataSource) {
+						@Override
+						public Connection getConnection() throws SQLException {
+							return counting(super.getConnection());
+						}
+
+						@Override
+						public Connection getConnection(String username, String password) throws SQLException {
+							return counting(super.getConnection(username, password));
+						}
+					};
+				}
+			};
+		}
+
+		private static Connection counting(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						if (STATEMENT_FACTORIES.contains(method.getName())) {
+							STATEMENTS.incrementAndGet();
+						}
+						try {
+							return method.invoke(connection, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					});
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package com.tubestudy.tracker.repository;
+
+import com.tubestudy.tracker.entity.VideoProgress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class VideoProgressUpsertRepositoryTests {
+
+	private static final String USER_ID = "upsert-user";
+
+	@Autowired
+	private VideoProgressRepository repository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void tearDown() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> repository.deleteAll());
+	}
+
+	@Test
+	void firstUpsertInsertsAndLaterOnesAccumulate() {
+		LocalDateTime first = LocalDateTime.of(2025, 3, 10, 9, 0);
+		assertThat(repository.upsertProgress(row("spring-1", 120, 30, 20, first))).isTrue();
+
+		LocalDateTime second = first.plusMinutes(1);
+		assertThat(repository.upsertProgress(row("spring-1", 60, 15, 10, second))).isFalse();
+
+		VideoProgress progress = find("spring-1");
+		assertThat(progress.getStudyTimeSeconds()).isEqualTo(45);
+		// 재생 위치와 동기화 시각은 최신 값, 최고 진도는 줄어들지 않음
+		assertThat(progress.getLastProgressSeconds()).isEqualTo(60);
+		assertThat(progress.getHighestProgressPercentage()).isEqualTo(20);
+		assertThat(progress.getLastSyncedAt()).isEqualTo(second);
+		assertThat(progress.getCreatedAt()).isEqualTo(first);
+		assertThat(progress.getSubject()).isEqualTo("프로그래밍");
+		assertThat(progress.isCompleted()).isFalse();
+	}
+
+	@Test
+	void completionIsSetAtNinetyEightPercentAndNeverCleared() {
+		LocalDateTime now = LocalDateTime.of(2025, 3, 10, 9, 0);
+		// 신규 생성 시 98% 이상이면 최고 진도를 100으로 보정
+		assertThat(repository.upsertProgress(row("done-on-insert", 590, 10, 98, now))).isTrue();
+		assertThat(find("done-on-insert").getHighestProgressPercentage()).isEqualTo(100);
+		assertThat(find("done-on-insert").isCompleted()).isTrue();
+
+		repository.upsertProgress(row("done-later", 10, 10, 1, now));
+		repository.upsertProgress(row("done-later", 590, 10, 98, now.plusMinutes(1)));
+		repository.upsertProgress(row("done-later", 30, 10, 5, now.plusMinutes(2)));
+
+		VideoProgress progress = find("done-later");
+		assertThat(progress.isCompleted()).isTrue();
+		assertThat(progress.getHighestProgressPercentage()).isEqualTo(98);
+		assertThat(progress.getLastProgressSeconds()).isEqualTo(30);
+	}
+
+	@Test
+	void batchUpsertSpansSeveralJdbcBatchesAndAccumulatesRepeats() {
+		LocalDateTime now = LocalDateTime.of(2025, 3, 10, 9, 0);
+		repository.upsertProgress(row("video-0", 10, 100, 10, now));
+
+		// 배치 크기(500)를 넘는 1200건: 600개 영상이 각각 두 번씩 나옴
+		List<VideoProgressUpsert> rows = new ArrayList<>();
+		for (int round = 0; round < 2; round++) {
+			for (int i = 0; i < 600; i++) {
+				rows.add(row("video-" + i, 10 + round, 1.5, 10 + round, now.plusMinutes(round)));
+			}
+		}
+		repository.upsertProgress(rows);
+		repository.upsertProgress(List.of());
+
+		assertThat(repository.count()).isEqualTo(600);
+		assertThat(find("video-0").getStudyTimeSeconds()).isEqualTo(103);
+		assertThat(find("video-599").getStudyTimeSeconds()).isEqualTo(3);
+		assertThat(find("video-599").getLastProgressSeconds()).isEqualTo(11);
+		assertThat(find("video-599").getCreatedAt()).isEqualTo(now);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void concurrentFirstSyncRetriesIntoTheAccumulateBranch() throws Exception {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		LocalDateTime now = LocalDateTime.of(2025, 3, 10, 9, 0);
+		CountDownLatch inserted = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// A가 행을 만들고 커밋하기 전에 B가 같은 키로 MERGE → B는 A의 커밋을 기다렸다가 유니크 제약 위반 후 재시도
+			Future<Boolean> first = executor.submit(() -> transaction.execute(status -> {
+				boolean created = repository.upsertProgress(row("spring-1", 100, 30, 10, now));
+				inserted.countDown();
+				sleep(300);
+				return created;
+			}));
+			Future<Boolean> second = executor.submit(() -> {
+				inserted.await();
+				return transaction.execute(status -> repository.upsertProgress(row("spring-1", 120, 20, 20, now)));
+			});
+
+			assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(second.get(10, TimeUnit.SECONDS)).isFalse();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(repository.count()).isEqualTo(1);
+		VideoProgress progress = find("spring-1");
+		assertThat(progress.getStudyTimeSeconds()).isEqualTo(50);
+		assertThat(progress.getHighestProgressPercentage()).isEqualTo(20);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void racingFirstSyncsEndWithOneRowAndEverySecondCounted() throws Exception {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		LocalDateTime now = LocalDateTime.of(2025, 3, 10, 9, 0);
+		int threads = 8;
+		CyclicBarrier start = new CyclicBarrier(threads);
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return transaction.execute(status -> repository.upsertProgress(row("spring-1", 100, 10, 10, now)));
+				}));
+			}
+			int created = 0;
+			for (Future<Boolean> result : results) {
+				created += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+			}
+			assertThat(created).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(repository.count()).isEqualTo(1);
+		assertThat(find("spring-1").getStudyTimeSeconds()).isEqualTo(10.0 * threads);
+	}
+
+	private VideoProgress find(String videoId) {
+		return repository.findByUserIdAndVideoId(USER_ID, videoId).orElseThrow();
+	}
+
+	private static VideoProgressUpsert row(String videoId, double lastProgressSeconds, double studySeconds,
+			int progressPercentage, LocalDateTime syncedAt) {
+		return new VideoProgressUpsert(USER_ID, videoId, "Spring 강의", "TubeStudy", "프로그래밍", 600,
+				lastProgressSeconds, studySeconds, progressPercentage, syncedAt);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
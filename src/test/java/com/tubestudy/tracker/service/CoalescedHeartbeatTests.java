@@ -0,0 +1,67 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalescedHeartbeatTests {
+
+	@Test
+	void mergeSumsSecondsAndKeepsTheLatestPosition() {
+		CoalescedHeartbeat first = heartbeat("강의 1편", 120, 10, 1_000);
+		CoalescedHeartbeat second = heartbeat("강의 1편 (수정)", 180, 15, 2_000);
+
+		CoalescedHeartbeat merged = CoalescedHeartbeat.merge(first, second);
+
+		assertThat(merged.getAccumulatedStudySeconds()).isEqualTo(25);
+		assertThat(merged.getLastProgressSeconds()).isEqualTo(180);
+		assertThat(merged.getTitle()).isEqualTo("강의 1편 (수정)");
+		assertThat(merged.getHighestPercentage()).isEqualTo(30);
+		assertThat(merged.getFirstReceivedAt()).isEqualTo(1_000);
+		assertThat(merged.getLastReceivedAt()).isEqualTo(2_000);
+	}
+
+	@Test
+	void latestIsChosenByReceiveTimeNotMergeOrder() {
+		CoalescedHeartbeat older = heartbeat("강의", 120, 10, 1_000);
+		CoalescedHeartbeat newer = heartbeat("강의", 300, 5, 2_000);
+
+		// 실패한 배치를 버퍼로 되돌릴 때처럼 최신 값이 먼저 있고 오래된 값이 나중에 병합되는 경우
+		CoalescedHeartbeat merged = CoalescedHeartbeat.merge(newer, older);
+		assertThat(merged.getLastProgressSeconds()).isEqualTo(300);
+		assertThat(merged.getAccumulatedStudySeconds()).isEqualTo(15);
+		assertThat(merged.getFirstReceivedAt()).isEqualTo(1_000);
+
+		// 같은 시각이면 나중에 병합된 쪽이 최신
+		CoalescedHeartbeat sameTime = CoalescedHeartbeat.merge(heartbeat("강의", 100, 1, 1_000),
+				heartbeat("강의", 200, 1, 1_000));
+		assertThat(sameTime.getLastProgressSeconds()).isEqualTo(200);
+	}
+
+	@Test
+	void completionIsKeptWhenTheUserSeeksBackwards() {
+		// 98% 이상 본 뒤 앞부분으로 돌아가도 최고 진행률(완료 판정 기준)은 유지
+		CoalescedHeartbeat completed = heartbeat("강의", 590, 30, 1_000);
+		CoalescedHeartbeat rewound = heartbeat("강의", 30, 5, 2_000);
+
+		CoalescedHeartbeat merged = CoalescedHeartbeat.merge(completed, rewound);
+
+		assertThat(merged.getHighestPercentage()).isEqualTo(98);
+		assertThat(merged.getLastProgressSeconds()).isEqualTo(30);
+		assertThat(merged.toDto().getAccumulatedStudySeconds()).isEqualTo(35);
+	}
+
+	private static CoalescedHeartbeat heartbeat(String title, double lastProgressSeconds,
+			double accumulatedStudySeconds, long receivedAt) {
+		VideoProgressDto dto = VideoProgressDto.builder()
+				.videoId("spring-1")
+				.title(title)
+				.channel("TubeStudy")
+				.totalDurationSeconds(600)
+				.lastProgressSeconds(lastProgressSeconds)
+				.accumulatedStudySeconds(accumulatedStudySeconds)
+				.build();
+		return CoalescedHeartbeat.of("alice", dto, dto.calculatePercentage(), receivedAt);
+	}
+}
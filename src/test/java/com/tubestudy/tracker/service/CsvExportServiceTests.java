@@ -0,0 +1,106 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:csv-tests;DB_CLOSE_DELAY=-1",
+		"tracker.timeseries.directory=target/timeseries/csv-tests"
+})
+class CsvExportServiceTests {
+
+	private static final String USER_ID = "csv-user";
+
+	@Autowired
+	private CsvExportService csvExportService;
+
+	@Autowired
+	private VideoProgressRepository repository;
+
+	@AfterEach
+	void tearDown() {
+		repository.deleteAll();
+	}
+
+	@Test
+	void exportsEveryPageInIdOrderForTheUserOnly() throws IOException {
+		List<VideoProgress> records = new ArrayList<>();
+		for (int i = 0; i < 1201; i++) {
+			records.add(record(USER_ID, "video-" + i, i == 7 ? "쉼표, \"따옴표\" 강의" : "강의 " + i));
+		}
+		records.add(record("other-user", "other-video", "다른 사용자 강의"));
+		repository.saveAll(records);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		csvExportService.writeStudyRecordsCsv(USER_ID, out);
+
+		String csv = out.toString(StandardCharsets.UTF_8);
+		assertThat(csv).startsWith("\uFEFF영상ID,제목,채널명,학습시간(분),마지막 진도,동기화시간\n");
+		String[] lines = csv.substring(1).split("\n");
+		assertThat(lines).hasSize(1202);
+		assertThat(lines[1]).startsWith("video-0,강의 0,채널,2,30,");
+		assertThat(lines[8]).startsWith("video-7,\"쉼표, \"\"따옴표\"\" 강의\",");
+		assertThat(lines[1201]).startsWith("video-1200,");
+		assertThat(csv).doesNotContain("other-video");
+	}
+
+	@Test
+	void writesToTheClientOutsideAnyTransaction() throws IOException {
+		List<VideoProgress> records = new ArrayList<>();
+		for (int i = 0; i < 600; i++) {
+			records.add(record(USER_ID, "video-" + i, "강의 " + i));
+		}
+		repository.saveAll(records);
+
+		// 느린 클라이언트에 쓰는 동안 커넥션을 붙잡고 있지 않아야 함
+		AtomicInteger writesInTransaction = new AtomicInteger();
+		OutputStream client = new OutputStream() {
+			@Override
+			public void write(int b) {
+				check();
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				check();
+			}
+
+			private void check() {
+				if (TransactionSynchronizationManager.isActualTransactionActive()) {
+					writesInTransaction.incrementAndGet();
+				}
+			}
+		};
+
+		csvExportService.writeStudyRecordsCsv(USER_ID, client);
+
+		assertThat(writesInTransaction).hasValue(0);
+	}
+
+	private static VideoProgress record(String userId, String videoId, String title) {
+		return VideoProgress.builder()
+				.userId(userId)
+				.videoId(videoId)
+				.title(title)
+				.channel("채널")
+				.totalDurationSeconds(600)
+				.lastProgressSeconds(30)
+				.studyTimeSeconds(120)
+				.build();
+	}
+}
@@ -0,0 +1,121 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.DashboardStatsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardStatsCacheTests {
+
+	private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:stats-cache-tests;DB_CLOSE_DELAY=-1", "sa", "");
+	private final DataVersion dataVersion = new DataVersion(new JdbcTemplate(dataSource));
+	private final DashboardStatsCache cache = new DashboardStatsCache(dataVersion, new SimpleMeterRegistry(), true, 100);
+
+	{
+		dataVersion.createSchema();
+	}
+
+	@Test
+	void concurrentRequestsForTheSameKeyShareOneComputation() throws Exception {
+		AtomicInteger computations = new AtomicInteger();
+		CountDownLatch computing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<DashboardStatsDto>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> cache.get("alice", "week", () -> {
+					computations.incrementAndGet();
+					computing.countDown();
+					await(release);
+					return stats(10);
+				})));
+			}
+			assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+			Thread.sleep(100); // 나머지 요청이 계산 중인 결과를 기다리도록
+			release.countDown();
+
+			for (Future<DashboardStatsDto> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS).getTotalStudySeconds()).isEqualTo(10);
+			}
+			assertThat(computations.get()).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void dataChangeInvalidatesOnlyThatUsersEntries() {
+		AtomicInteger computations = new AtomicInteger();
+
+		cache.get("alice", "all", () -> stats(computations.incrementAndGet()));
+		cache.get("bob", "all", () -> stats(computations.incrementAndGet()));
+		assertThat(cache.get("alice", "ALL", () -> stats(computations.incrementAndGet())).getTotalStudySeconds())
+				.isEqualTo(1);
+
+		dataVersion.changed("alice");
+
+		assertThat(cache.get("alice", "all", () -> stats(computations.incrementAndGet())).getTotalStudySeconds())
+				.isEqualTo(3);
+		assertThat(cache.get("bob", "all", () -> stats(computations.incrementAndGet())).getTotalStudySeconds())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void aChangeCommittedOnAnotherNodeInvalidatesTheEntry() {
+		// 같은 DB를 쓰는 다른 노드
+		DataVersion otherNode = new DataVersion(new JdbcTemplate(dataSource));
+		AtomicInteger computations = new AtomicInteger();
+
+		cache.get("dave", "today", () -> stats(computations.incrementAndGet()));
+		assertThat(cache.get("dave", "today", () -> stats(computations.incrementAndGet())).getTotalStudySeconds())
+				.isEqualTo(1);
+
+		otherNode.changed("dave");
+
+		assertThat(cache.get("dave", "today", () -> stats(computations.incrementAndGet())).getTotalStudySeconds())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void entriesExpireAtPeriodBoundaries() {
+		// 2026-10-14는 수요일
+		LocalDateTime now = LocalDateTime.of(2026, 10, 14, 21, 30);
+
+		assertThat(DashboardStatsCache.expiresAt("today", now)).isEqualTo(LocalDateTime.of(2026, 10, 15, 0, 0));
+		assertThat(DashboardStatsCache.expiresAt("week", now)).isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0));
+		assertThat(DashboardStatsCache.expiresAt("month", now)).isEqualTo(LocalDateTime.of(2026, 11, 1, 0, 0));
+		assertThat(DashboardStatsCache.expiresAt("all", now)).isEqualTo(LocalDateTime.MAX);
+
+		// 월요일 자정에는 다음 주 월요일까지
+		LocalDateTime monday = LocalDateTime.of(2026, 10, 19, 0, 0);
+		assertThat(DashboardStatsCache.expiresAt("week", monday)).isEqualTo(LocalDateTime.of(2026, 10, 26, 0, 0));
+	}
+
+	private static DashboardStatsDto stats(double totalStudySeconds) {
+		return DashboardStatsDto.builder().totalStudySeconds(totalStudySeconds).build();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.tubestudy.tracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardStreamTests {
+
+	// 주기 전송은 테스트에서 flush()로 직접 돌림
+	private final DashboardStream stream = new DashboardStream(new SimpleMeterRegistry(),
+			3_600_000, 60_000, 3_600_000, 10, 2, 200);
+
+	@AfterEach
+	void tearDown() {
+		stream.shutdown();
+	}
+
+	@Test
+	void aStalledClientDoesNotDelayOtherUsers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter stalled = new RecordingEmitter(release);
+		RecordingEmitter healthy = new RecordingEmitter(null);
+		stream.subscribe("alice", stalled);
+		stream.subscribe("bob", healthy);
+
+		stream.reset("alice");
+		stream.reset("bob");
+		stream.flush();
+
+		// alice의 소켓이 막혀 있어도 bob은 바로 받음
+		assertThat(healthy.sent.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(stalled.completedWithError.getCount()).isEqualTo(1);
+		release.countDown();
+	}
+
+	@Test
+	void completesStreamsWhoseSendStallsPastTheTimeout() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter stalled = new RecordingEmitter(release);
+		stream.subscribe("alice", stalled);
+
+		stream.reset("alice");
+		stream.flush();
+		assertThat(stalled.started.await(1, TimeUnit.SECONDS)).isTrue();
+
+		Thread.sleep(250);
+		stream.flush();
+
+		assertThat(stalled.completedWithError.await(1, TimeUnit.SECONDS)).isTrue();
+		assertThat(stream.hasSubscribers("alice")).isFalse();
+		release.countDown();
+	}
+
+	@Test
+	void sendsAResetAfterSkippingABusyStream() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter(release);
+		stream.subscribe("alice", slow);
+
+		stream.reset("alice");
+		stream.flush();
+		assertThat(slow.started.await(1, TimeUnit.SECONDS)).isTrue();
+
+		// 첫 전송이 끝나지 않은 동안 생긴 변경분은 건너뛰고, 다음 전송에서 reset으로 알림
+		stream.resetAll();
+		stream.flush();
+		release.countDown();
+		assertThat(slow.sent.await(1, TimeUnit.SECONDS)).isTrue();
+
+		// 첫 전송이 완전히 끝난 뒤의 주기에서 reset을 보냄
+		slow.sent = new CountDownLatch(1);
+		for (int i = 0; i < 50 && slow.sent.getCount() > 0; i++) {
+			stream.flush();
+			slow.sent.await(20, TimeUnit.MILLISECONDS);
+		}
+		assertThat(slow.sent.getCount()).isZero();
+		assertThat(slow.sends).hasSize(2);
+		assertThat(slow.completedWithError.getCount()).isEqualTo(1);
+	}
+
+	private static final class RecordingEmitter extends SseEmitter {
+
+		private final CountDownLatch release;
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch completedWithError = new CountDownLatch(1);
+		private final List<String> sends = new CopyOnWriteArrayList<>();
+		private volatile CountDownLatch sent = new CountDownLatch(1);
+
+		RecordingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			started.countDown();
+			if (release != null) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			sends.add(builder.build().toString());
+			sent.countDown();
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			completedWithError.countDown();
+		}
+	}
+}
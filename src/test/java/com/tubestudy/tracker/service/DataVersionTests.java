@@ -0,0 +1,62 @@
+package com.tubestudy.tracker.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataVersionTests {
+
+	private final DataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:data-version-tests;DB_CLOSE_DELAY=-1", "sa", "");
+
+	// 같은 DB를 쓰는 두 노드
+	private final DataVersion node1 = new DataVersion(new JdbcTemplate(dataSource));
+	private final DataVersion node2 = new DataVersion(new JdbcTemplate(dataSource));
+
+	{
+		node1.createSchema();
+		node2.createSchema();
+	}
+
+	@Test
+	void aChangeOnOneNodeIsSeenByTheOthers() {
+		long before = node2.current("alice");
+		long bob = node2.current("bob");
+
+		node1.changed("alice");
+
+		assertThat(node2.current("alice")).isGreaterThan(before).isEqualTo(node1.current("alice"));
+		assertThat(node2.current("bob")).isEqualTo(bob);
+	}
+
+	@Test
+	void aGlobalChangeRaisesEveryUsersVersion() {
+		node1.changed("alice");
+		long alice = node2.current("alice");
+		long bob = node2.current("bob");
+
+		node2.changedAll();
+
+		assertThat(node1.current("alice")).isGreaterThan(alice);
+		assertThat(node1.current("bob")).isGreaterThan(bob);
+	}
+
+	@Test
+	void aRolledBackChangeKeepsTheVersion() {
+		TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		long before = node1.current("carol");
+
+		transaction.executeWithoutResult(status -> {
+			node1.changed("carol");
+			status.setRollbackOnly();
+		});
+
+		assertThat(node2.current("carol")).isEqualTo(before);
+	}
+}
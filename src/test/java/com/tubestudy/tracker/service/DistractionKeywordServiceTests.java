@@ -0,0 +1,43 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.DistractionKeywordDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:keyword-tests;DB_CLOSE_DELAY=-1",
+		"tracker.timeseries.directory=target/timeseries/keyword-tests"
+})
+class DistractionKeywordServiceTests {
+
+	@Autowired
+	private DistractionKeywordService keywordService;
+
+	@Test
+	void matcherIsRecompiledWithANewVersionAfterKeywordsChange() {
+		String userId = "keyword-version-user";
+		DistractionMatcher before = keywordService.currentMatcher(userId);
+		// 키워드가 바뀌지 않으면 같은 매처를 재사용
+		assertThat(keywordService.currentMatcher(userId)).isSameAs(before);
+		assertThat(keywordService.findDistraction(userId, "롤 하이라이트")).isNull();
+
+		DistractionKeywordDto added = keywordService.addKeyword(userId, DistractionKeywordDto.builder()
+				.keyword("하이라이트")
+				.category("Entertainment")
+				.alertMessage("하이라이트는 나중에!")
+				.build());
+
+		DistractionMatcher after = keywordService.currentMatcher(userId);
+		assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+		assertThat(after.size()).isEqualTo(before.size() + 1);
+		assertThat(keywordService.findDistraction(userId, "롤 하이라이트").getKeyword()).isEqualTo("하이라이트");
+
+		keywordService.toggleKeywordActive(userId, added.getId());
+		DistractionMatcher toggled = keywordService.currentMatcher(userId);
+		assertThat(toggled.getVersion()).isGreaterThan(after.getVersion());
+		assertThat(keywordService.findDistraction(userId, "롤 하이라이트")).isNull();
+	}
+}
@@ -0,0 +1,79 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.DistractionKeyword;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistractionMatcherTests {
+
+	@Test
+	void earlierKeywordWinsWhenSeveralMatch() {
+		DistractionMatcher matcher = compile("게임", "vlog", "gameplay");
+
+		// 제목에서 나중에 나오더라도 목록에서 앞선 키워드가 선택됨
+		assertThat(matcher.find("daily vlog: 오늘의 게임 gameplay").getKeyword()).isEqualTo("게임");
+		assertThat(matcher.find("gameplay vlog").getKeyword()).isEqualTo("vlog");
+		assertThat(compile("vlog", "게임").find("게임 vlog").getKeyword()).isEqualTo("vlog");
+	}
+
+	@Test
+	void overlappingAndSuffixKeywordsAreFoundThroughFailureLinks() {
+		// "play"는 "gameplay"의 접미사, "gam"은 접두사
+		DistractionMatcher matcher = compile("play", "gameplay", "gam");
+
+		assertThat(matcher.find("best gameplay").getKeyword()).isEqualTo("play");
+		assertThat(compile("gameplay", "play").find("best gameplay").getKeyword()).isEqualTo("gameplay");
+		// "gamgameplay"처럼 실패 링크를 타고 다시 시작해야 하는 경우
+		assertThat(compile("gameplay").find("gamgameplay").getKeyword()).isEqualTo("gameplay");
+		assertThat(compile("gameplay", "gam").find("gamepla").getKeyword()).isEqualTo("gam");
+		assertThat(compile("aab").find("aaab").getKeyword()).isEqualTo("aab");
+	}
+
+	@Test
+	void matchingIgnoresCaseAndHandlesKorean() {
+		DistractionMatcher matcher = compile("ASMR", "브이로그", "VLog");
+
+		assertThat(matcher.find("빗소리 asmr 10시간").getKeyword()).isEqualTo("ASMR");
+		assertThat(matcher.find("대학생 VLOG").getKeyword()).isEqualTo("VLog");
+		assertThat(matcher.find("[브이로그] 스터디 카페").getAlertMessage()).isEqualTo("브이로그 알림");
+		assertThat(matcher.find("대학생 브이로그 vlog").getKeyword()).isEqualTo("브이로그");
+	}
+
+	@Test
+	void noMatchReturnsNull() {
+		DistractionMatcher matcher = compile("게임", "vlog");
+
+		assertThat(matcher.find("Spring Boot 강의 1편")).isNull();
+		assertThat(matcher.find("게 임")).isNull();
+		assertThat(matcher.find("")).isNull();
+		assertThat(matcher.find(null)).isNull();
+	}
+
+	@Test
+	void emptyKeywordSetNeverMatches() {
+		DistractionMatcher empty = compile();
+		assertThat(empty.size()).isZero();
+		assertThat(empty.find("게임 vlog")).isNull();
+
+		// 빈 키워드는 건너뜀 (모든 제목에 일치하지 않도록)
+		DistractionMatcher blank = compile("", null);
+		assertThat(blank.size()).isZero();
+		assertThat(blank.find("아무 제목")).isNull();
+	}
+
+	private static DistractionMatcher compile(String... keywords) {
+		List<DistractionKeyword> entities = Arrays.stream(keywords)
+				.map(keyword -> DistractionKeyword.builder()
+						.userId("matcher-user")
+						.keyword(keyword)
+						.category("Test")
+						.alertMessage(keyword + " 알림")
+						.build())
+				.toList();
+		return DistractionMatcher.compile(entities, 1);
+	}
+}
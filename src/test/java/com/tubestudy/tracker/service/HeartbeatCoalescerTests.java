@@ -0,0 +1,102 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 주기 플러시가 테스트 도중 끼어들지 않도록 간격을 길게 둠
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:coalescer-tests;DB_CLOSE_DELAY=-1",
+		"tracker.timeseries.directory=target/timeseries/coalescer-tests",
+		"tracker.sync.write-behind.enabled=true",
+		"tracker.sync.write-behind.flush-interval-ms=3600000"
+})
+class HeartbeatCoalescerTests {
+
+	private static final String USER_ID = "coalescer-user";
+
+	@Autowired
+	private TrackerService trackerService;
+
+	@Autowired
+	private HeartbeatCoalescer coalescer;
+
+	@Autowired
+	private VideoProgressRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		trackerService.clearAllStudyData(USER_ID);
+	}
+
+	@Test
+	void flushWritesOneFoldedRowPerVideo() {
+		sync("spring-1", 120, 10);
+		sync("spring-1", 590, 20);
+		sync("spring-1", 60, 5);
+		sync("react-1", 30, 7);
+
+		// 플러시 전에는 DB에 반영되지 않음
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-1")).isEmpty();
+		assertThat(coalescer.backlogRatio()).isPositive();
+
+		coalescer.flush();
+
+		VideoProgress spring = repository.findByUserIdAndVideoId(USER_ID, "spring-1").orElseThrow();
+		assertThat(spring.getStudyTimeSeconds()).isEqualTo(35);
+		assertThat(spring.getLastProgressSeconds()).isEqualTo(60);
+		assertThat(spring.getHighestProgressPercentage()).isEqualTo(100);
+		assertThat(spring.isCompleted()).isTrue();
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "react-1").orElseThrow().getStudyTimeSeconds())
+				.isEqualTo(7);
+		assertThat(coalescer.backlogRatio()).isZero();
+
+		// 다음 플러시는 기존 행에 더함
+		sync("spring-1", 90, 15);
+		coalescer.flush();
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-1").orElseThrow().getStudyTimeSeconds())
+				.isEqualTo(50);
+	}
+
+	@Test
+	void discardedHeartbeatsAreNotFlushed() {
+		sync("spring-1", 120, 10);
+		sync("react-1", 30, 7);
+
+		trackerService.deleteVideoProgress(USER_ID, "spring-1");
+		coalescer.flush();
+
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-1")).isEmpty();
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "react-1")).isPresent();
+	}
+
+	@Test
+	@DirtiesContext
+	void shutdownFlushesPendingHeartbeats() throws Exception {
+		sync("spring-1", 120, 10);
+		sync("spring-1", 180, 10);
+
+		coalescer.shutdown();
+
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-1").orElseThrow().getStudyTimeSeconds())
+				.isEqualTo(20);
+	}
+
+	private void sync(String videoId, double lastProgressSeconds, double accumulatedStudySeconds) {
+		trackerService.saveAndGenerateResponse(USER_ID, VideoProgressDto.builder()
+				.videoId(videoId)
+				.title("Spring 강의 " + videoId)
+				.channel("TubeStudy")
+				.totalDurationSeconds(600)
+				.lastProgressSeconds(lastProgressSeconds)
+				.accumulatedStudySeconds(accumulatedStudySeconds)
+				.build());
+	}
+}
@@ -0,0 +1,43 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.entity.SubjectRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubjectIndexTests {
+
+	private final SubjectIndex index = SubjectIndex.compile(DefaultSubjectRules.create(), 1L);
+
+	@Test
+	void termsMatchWholeWordsOnly() {
+		assertThat(index.classify("Node.js 입문")).isEqualTo("Frontend");
+		assertThat(index.classify("Physics lecture")).isNull();
+		assertThat(index.classify("jsonl 파일 다루기")).isNull();
+		assertThat(index.classify("JavaScript 기초")).isEqualTo("Frontend");
+	}
+
+	@Test
+	void hangulTermsAllowTrailingParticlesAndScriptBoundariesSplitWords() {
+		assertThat(index.classify("알고리즘을 푸는 방법")).isEqualTo("CS 지식");
+		assertThat(index.classify("JPA강의 3편")).isEqualTo("Java / Backend");
+	}
+
+	@Test
+	void higherPriorityRuleWinsWhenSeveralMatch() {
+		assertThat(index.classify("React와 Spring으로 만드는 서비스")).isEqualTo("Java / Backend");
+
+		SubjectIndex reordered = SubjectIndex.compile(List.of(
+				rule("Frontend", "react", 0),
+				rule("Java / Backend", "spring", 1)), 2L);
+		assertThat(reordered.classify("React와 Spring으로 만드는 서비스")).isEqualTo("Frontend");
+		assertThat(reordered.colorOf("Frontend")).isEqualTo("blue-500");
+		assertThat(reordered.colorOf("기타")).isEqualTo("gray-500");
+	}
+
+	private SubjectRule rule(String subject, String terms, int priority) {
+		return SubjectRule.builder().subject(subject).terms(terms).color("blue-500").priority(priority).build();
+	}
+}
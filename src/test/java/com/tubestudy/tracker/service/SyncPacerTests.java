@@ -0,0 +1,49 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyncPacerTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SyncPacer pacer = new SyncPacer(
+			new HeartbeatCoalescer(null, null, meterRegistry, false, 2000, 500),
+			meterRegistry, true, 5000, 30000, 120000, 20, 100);
+
+	@Test
+	void twoTabsOfOneUserStretchIndependently() {
+		long lectureTab = 0;
+		long otherTab = 0;
+		for (int i = 0; i < 5; i++) {
+			lectureTab = pacer.nextSyncAfterMs("alice", heartbeat("lecture", 30), false);
+			otherTab = pacer.nextSyncAfterMs("alice", heartbeat("other", 30), false);
+		}
+
+		// 탭이 번갈아 보내도 영상마다 연속 재생으로 보고 최대 간격까지 늘림 (±10% 흔들림)
+		assertThat(lectureTab).isGreaterThanOrEqualTo(27000);
+		assertThat(otherTab).isGreaterThanOrEqualTo(27000);
+	}
+
+	@Test
+	void aNewOrPausedVideoStartsAtTheMinimumInterval() {
+		for (int i = 0; i < 5; i++) {
+			pacer.nextSyncAfterMs("bob", heartbeat("lecture", 30), false);
+		}
+
+		assertThat(pacer.nextSyncAfterMs("bob", heartbeat("next-lecture", 30), false)).isLessThanOrEqualTo(5500);
+		assertThat(pacer.nextSyncAfterMs("bob", heartbeat("lecture", 0), false)).isLessThanOrEqualTo(5500);
+	}
+
+	private static VideoProgressDto heartbeat(String videoId, double accumulatedStudySeconds) {
+		return VideoProgressDto.builder()
+				.videoId(videoId)
+				.title("강의")
+				.totalDurationSeconds(3600)
+				.lastProgressSeconds(60)
+				.accumulatedStudySeconds(accumulatedStudySeconds)
+				.build();
+	}
+}
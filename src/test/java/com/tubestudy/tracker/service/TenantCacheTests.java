@@ -0,0 +1,41 @@
+package com.tubestudy.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantCacheTests {
+
+	@Test
+	void sizeStaysBoundedAndRecentlyReadEntriesSurvive() {
+		TenantCache<Integer> cache = new TenantCache<>(100);
+		for (int i = 0; i < 100; i++) {
+			cache.put("user-" + i, i);
+		}
+		// user-0은 계속 읽히고 있으므로 가장 오래전에 넣었어도 남아야 함
+		for (int i = 100; i < 1000; i++) {
+			assertThat(cache.get("user-0")).isZero();
+			cache.put("user-" + i, i);
+			assertThat(cache.size()).isLessThanOrEqualTo(100);
+		}
+
+		assertThat(cache.get("user-0")).isZero();
+		assertThat(cache.get("user-1")).isNull();
+		assertThat(cache.get("user-999")).isEqualTo(999);
+	}
+
+	@Test
+	void mergeBehavesLikeMapMerge() {
+		TenantCache<Long> cache = new TenantCache<>(10);
+
+		assertThat(cache.merge("alice", 3L, Math::max)).isEqualTo(3);
+		assertThat(cache.merge("alice", 1L, Math::max)).isEqualTo(3);
+		assertThat(cache.merge("alice", 7L, Math::max)).isEqualTo(7);
+		assertThat(cache.merge("alice", 0L, (existing, added) -> null)).isNull();
+		assertThat(cache.get("alice")).isNull();
+
+		cache.put("bob", 1L);
+		cache.remove("bob");
+		assertThat(cache.get("bob")).isNull();
+	}
+}
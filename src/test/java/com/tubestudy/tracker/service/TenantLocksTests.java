@@ -0,0 +1,83 @@
+package com.tubestudy.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TenantLocksTests {
+
+	private final TenantLocks locks = new TenantLocks();
+
+	@Test
+	void otherUsersDoNotWaitForAHeldLock() throws Exception {
+		CountDownLatch holding = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> alice = executor.submit(() -> locks.run("alice", () -> {
+				holding.countDown();
+				await(release);
+			}));
+			assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+			// alice가 잠금을 잡고 있는 동안 다른 사용자 100명은 바로 실행됨
+			Future<Integer> others = executor.submit(() -> {
+				int done = 0;
+				for (int i = 0; i < 100; i++) {
+					done += locks.call("user-" + i, () -> 1);
+				}
+				return done;
+			});
+			assertThat(others.get(5, TimeUnit.SECONDS)).isEqualTo(100);
+
+			release.countDown();
+			alice.get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(locks.activeUsers()).isZero();
+	}
+
+	@Test
+	void sameUserIsSerializedAndLocksAreReleased() throws Exception {
+		AtomicInteger inside = new AtomicInteger();
+		AtomicInteger maxInside = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			for (int i = 0; i < 200; i++) {
+				executor.submit(() -> locks.run("alice", () -> {
+					maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+					// 같은 사용자 잠금은 재진입 가능 (설정 조회 안에서 다시 잠그는 경우)
+					locks.run("alice", () -> {
+					});
+					inside.decrementAndGet();
+				}));
+			}
+			executor.shutdown();
+			assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(maxInside.get()).isEqualTo(1);
+		// 잡고 있는 작업이 없으면 잠금을 남기지 않음
+		assertThat(locks.activeUsers()).isZero();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.AnalyticsDto;
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:analytics-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"tracker.timeseries.directory=target/timeseries/analytics-tests"
+})
+class TrackerServiceAnalyticsTests {
+
+	private static final String USER_ID = "analytics-user";
+
+	@Autowired
+	private TrackerService trackerService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		trackerService.clearAllStudyData(USER_ID);
+	}
+
+	@Test
+	void analyticsIsAggregatedInTheDatabaseWithoutLoadingEntities() {
+		sync("spring-1", "Spring 강의 1편", 30);
+		sync("spring-1", "Spring 강의 1편", 20);
+		sync("react-1", "React 입문", 10);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		AnalyticsDto analytics = trackerService.getAnalytics(USER_ID);
+
+		// 합계/날짜별/영상 수/요일별/시간대별/전체 영상 수 집계 쿼리만 실행되어야 합니다.
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		assertThat(analytics.getTotalStudyTimeSeconds()).isEqualTo(60);
+		assertThat(analytics.getWeeklyStudyTimeSeconds()).isEqualTo(60);
+		assertThat(analytics.getMonthlyStudyTimeSeconds()).isEqualTo(60);
+		assertThat(analytics.getTotalWatchedVideos()).isEqualTo(2);
+
+		AnalyticsDto.DaylyAnalytics today = analytics.getDailyStats()[6];
+		assertThat(today.getStudyTimeSeconds()).isEqualTo(60);
+		assertThat(today.getVideoCount()).isEqualTo(2);
+	}
+
+	private void sync(String videoId, String title, double accumulatedStudySeconds) {
+		trackerService.saveAndGenerateResponse(USER_ID, VideoProgressDto.builder()
+				.videoId(videoId)
+				.title(title)
+				.channel("TubeStudy")
+				.totalDurationSeconds(600)
+				.lastProgressSeconds(60)
+				.accumulatedStudySeconds(accumulatedStudySeconds)
+				.build());
+	}
+}
@@ -0,0 +1,110 @@
+package com.tubestudy.tracker.service;
+
+import com.tubestudy.tracker.dto.SyncVerdictDto;
+import com.tubestudy.tracker.dto.VideoProgressDto;
+import com.tubestudy.tracker.entity.VideoProgress;
+import com.tubestudy.tracker.repository.VideoProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:batch-tests;DB_CLOSE_DELAY=-1",
+		"tracker.timeseries.directory=target/timeseries/batch-tests"
+})
+class TrackerServiceBatchTests {
+
+	private static final String USER_ID = "batch-user";
+
+	@Autowired
+	private TrackerService trackerService;
+
+	@Autowired
+	private VideoProgressRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		trackerService.clearAllStudyData(USER_ID);
+	}
+
+	@Test
+	void invalidItemsAreRejectedWithoutFailingTheRest() {
+		List<SyncVerdictDto> verdicts = trackerService.saveBatchAndGenerateVerdicts(USER_ID, Arrays.asList(
+				heartbeat("spring-1", "Spring 강의 1편", 60, 10),
+				null,
+				heartbeat(" ", "제목", 60, 10),
+				VideoProgressDto.builder().videoId("spring-2").totalDurationSeconds(0).build(),
+				heartbeat("spring-3", "Spring 강의 3편", 60, -1),
+				heartbeat("spring-4", "Spring 강의 4편", 60, Double.NaN)));
+
+		assertThat(verdicts).extracting(SyncVerdictDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+		assertThat(verdicts).extracting(SyncVerdictDto::isAccepted)
+				.containsExactly(true, false, false, false, false, false);
+		assertThat(verdicts).extracting(SyncVerdictDto::getMessage).containsExactly(
+				null,
+				"빈 항목입니다.",
+				"videoId가 없습니다.",
+				"totalDurationSeconds는 0보다 커야 합니다.",
+				"accumulatedStudySeconds는 0 이상이어야 합니다.",
+				"accumulatedStudySeconds는 0 이상이어야 합니다.");
+
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-1")).isPresent();
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-2")).isEmpty();
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "spring-3")).isEmpty();
+	}
+
+	@Test
+	void itemsForTheSameVideoAreMergedIntoOneRow() {
+		List<SyncVerdictDto> verdicts = trackerService.saveBatchAndGenerateVerdicts(USER_ID, List.of(
+				heartbeat("spring-1", "Spring 강의 1편", 100, 30),
+				heartbeat("react-1", "React 게임 만들기", 50, 5),
+				heartbeat("spring-1", "Spring 강의 1편 (수정)", 590, 20),
+				heartbeat("spring-1", "Spring 강의 1편 (수정)", 300, 10)));
+
+		assertThat(verdicts).allMatch(SyncVerdictDto::isAccepted);
+		// 딴짓 판정은 병합과 무관하게 항목마다 내려감
+		assertThat(verdicts.get(1).isDistraction()).isTrue();
+		assertThat(verdicts.get(1).isRequiresNotification()).isTrue();
+		assertThat(verdicts.get(0).isDistraction()).isFalse();
+
+		VideoProgress spring = repository.findByUserIdAndVideoId(USER_ID, "spring-1").orElseThrow();
+		// 학습 시간은 합산, 재생 위치와 제목은 마지막 항목, 진행률은 최고값
+		assertThat(spring.getStudyTimeSeconds()).isEqualTo(60);
+		assertThat(spring.getLastProgressSeconds()).isEqualTo(300);
+		assertThat(spring.getTitle()).isEqualTo("Spring 강의 1편 (수정)");
+		assertThat(spring.getHighestProgressPercentage()).isEqualTo(100);
+		assertThat(spring.isCompleted()).isTrue();
+
+		assertThat(repository.findByUserIdAndVideoId(USER_ID, "react-1").orElseThrow().getStudyTimeSeconds())
+				.isEqualTo(5);
+	}
+
+	@Test
+	void emptyOrOversizedBatchesAreRejected() {
+		assertThatThrownBy(() -> trackerService.saveBatchAndGenerateVerdicts(USER_ID, List.of()))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> trackerService.saveBatchAndGenerateVerdicts(USER_ID,
+				Collections.nCopies(1001, heartbeat("spring-1", "Spring", 10, 1))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static VideoProgressDto heartbeat(String videoId, String title, double lastProgressSeconds,
+			double accumulatedStudySeconds) {
+		return VideoProgressDto.builder()
+				.videoId(videoId)
+				.title(title)
+				.channel("TubeStudy")
+				.totalDurationSeconds(600)
+				.lastProgressSeconds(lastProgressSeconds)
+				.accumulatedStudySeconds(accumulatedStudySeconds)
+				.build();
+	}
+}
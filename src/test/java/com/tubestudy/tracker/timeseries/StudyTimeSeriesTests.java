@@ -0,0 +1,167 @@
+package com.tubestudy.tracker.timeseries;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StudyTimeSeriesTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void heartbeatIsSpreadOverTheMinutesItCovers() throws Exception {
+		StudyTimeSeries series = open();
+		LocalDate today = LocalDate.now();
+		// 10:00:20에 받은 90초 → 10:00에 20초, 09:59에 60초, 09:58에 10초
+		series.record("alice", 90, today.atTime(10, 0, 20));
+
+		assertThat(series.sumSeconds("alice", today.atTime(10, 0), today.atTime(10, 1))).isEqualTo(20);
+		assertThat(series.sumSeconds("alice", today.atTime(9, 59), today.atTime(10, 0))).isEqualTo(60);
+		assertThat(series.sumSeconds("alice", today.atTime(9, 58), today.atTime(9, 59))).isEqualTo(10);
+
+		double[] hours = series.hourOfDaySeconds("alice");
+		assertThat(hours[9]).isEqualTo(70);
+		assertThat(hours[10]).isEqualTo(20);
+		assertThat(series.dayOfWeekSeconds("alice")[today.getDayOfWeek().getValue() - 1]).isEqualTo(90);
+		assertThat(series.totalSeconds("alice")).isEqualTo(90);
+		assertThat(series.totalSeconds("bob")).isZero();
+	}
+
+	@Test
+	void removalDrainsBackwardsFromTheLastSync() throws Exception {
+		StudyTimeSeries series = open();
+		LocalDate today = LocalDate.now();
+		series.record("alice", 30, today.atTime(8, 0, 30));
+		series.record("alice", 30, today.atTime(9, 0, 30));
+
+		// 9시 기록(30초)을 모두 지우고 8시 기록에서 10초 더 차감
+		series.remove("alice", 40, today.atTime(9, 0, 30));
+
+		assertThat(series.hourOfDaySeconds("alice")[9]).isZero();
+		assertThat(series.hourOfDaySeconds("alice")[8]).isEqualTo(20);
+		assertThat(series.dailySeconds("alice", today, today)).containsExactly(20);
+	}
+
+	@Test
+	void removingOneOfTwoInterleavedVideosKeepsTotalsConsistent() throws Exception {
+		StudyTimeSeries series = open();
+		LocalDate today = LocalDate.now();
+		// 두 영상을 10:00~10:10에 번갈아 시청 (영상 A 300초, 영상 B 240초)
+		for (int minute = 1; minute <= 10; minute++) {
+			series.record("alice", minute % 2 == 0 ? 60 : 0, today.atTime(10, minute));
+			series.record("alice", 30, today.atTime(10, minute, 30));
+			series.record("alice", minute % 2 == 0 ? 0 : 24, today.atTime(10, minute, 55));
+		}
+		double before = series.totalSeconds("alice");
+
+		// 분 단위 기록에는 영상 구분이 없으므로 A의 마지막 시각부터 차감 (어느 분에서 빠질지는 근사)
+		series.remove("alice", 300, today.atTime(10, 10, 30));
+
+		assertConsistent(series, "alice");
+		assertThat(series.totalSeconds("alice")).isCloseTo(before - 300, within(0.001));
+		assertThat(series.sumSeconds("alice", today.atTime(9, 0), today.atTime(11, 0)))
+				.isCloseTo(before - 300, within(0.001));
+		assertThat(series.dailySeconds("alice", today, today)[0]).isCloseTo(before - 300, within(0.001));
+	}
+
+	@Test
+	void removalBeyondRetentionDrainsHistogramsTogether() throws Exception {
+		StudyTimeSeries series = open();
+		LocalDate expired = LocalDate.now().minusDays(40);
+		// 보존 기간(30일)이 지난 기록은 시간대/요일 합계에만 남음
+		series.seed("alice", expired, 9, 600);
+		series.seed("alice", expired.minusDays(1), 23, 600);
+		series.record("alice", 60, LocalDate.now().atTime(8, 1));
+
+		// 09시 합계(600초)보다 많이 지우면 이전 시간대/요일에서 이어서 차감
+		// (보존 기간 안의 08시 기록은 분 단위로 남아 있으므로 합계에서도 빼지 않음)
+		series.remove("alice", 900, expired.atTime(9, 59));
+
+		assertConsistent(series, "alice");
+		assertThat(series.totalSeconds("alice")).isEqualTo(360);
+		assertThat(series.hourOfDaySeconds("alice")[9]).isZero();
+		assertThat(series.hourOfDaySeconds("alice")[8]).isEqualTo(60);
+		assertThat(series.hourOfDaySeconds("alice")[23]).isEqualTo(300);
+		assertThat(series.dayOfWeekSeconds("alice")[expired.getDayOfWeek().getValue() - 1]).isZero();
+
+		// 기록보다 많이 지워도 음수가 되지 않음
+		series.remove("alice", 10_000, LocalDate.now().atTime(8, 1));
+		assertConsistent(series, "alice");
+		assertThat(series.totalSeconds("alice")).isZero();
+	}
+
+	@Test
+	void snapshotRestoresSeriesAndHistograms() throws Exception {
+		LocalDate day = LocalDate.now().minusDays(3);
+		StudyTimeSeries series = open();
+		assertThat(series.needsBackfill()).isTrue();
+		series.seed("alice", day, 21, 3600);
+		series.record("bob", 12.5, LocalDateTime.now());
+		series.shutdown();
+
+		StudyTimeSeries restored = open();
+		assertThat(restored.needsBackfill()).isFalse();
+		assertThat(restored.dailySeconds("alice", day, day.plusDays(1))).containsExactly(3600, 0);
+		assertThat(restored.sumSeconds("alice", day.atTime(21, 0), day.atTime(21, 30))).isCloseTo(1800, within(0.001));
+		assertThat(restored.hourOfDaySeconds("alice")[21]).isEqualTo(3600);
+		assertThat(restored.totalSeconds("bob")).isEqualTo(12.5);
+		restored.shutdown();
+	}
+
+	@Test
+	void keepsOnlyTheNewestBlocksPerUserButAllTotals() throws Exception {
+		StudyTimeSeries series = new StudyTimeSeries(true, directory.toString(), 366, 31, 60000);
+		series.open();
+		LocalDate today = LocalDate.now();
+		// 오래된 날이 나중에 들어와도 가장 최근 31일의 블록만 남음
+		for (int daysAgo = 0; daysAgo < 40; daysAgo++) {
+			series.seed("alice", today.minusDays(daysAgo), 9, 600);
+		}
+		series.seed("alice", today.minusDays(100), 9, 600);
+
+		double[] daily = series.dailySeconds("alice", today.minusDays(39), today);
+		assertThat(Arrays.stream(daily, 9, 40)).containsOnly(600.0);
+		assertThat(Arrays.stream(daily, 0, 9)).containsOnly(0.0);
+		assertThat(series.totalSeconds("alice")).isEqualTo(41 * 600);
+		assertConsistent(series, "alice");
+		series.shutdown();
+	}
+
+	@Test
+	void backfillHappensOnlyOnce() throws Exception {
+		StudyTimeSeries series = open();
+		series.seed("alice", LocalDate.now().minusDays(1), 9, 600);
+		series.backfilled();
+
+		// 채운 사용자의 기록을 모두 지워 비어 있어도 다시 채우지 않음
+		series.clear("alice");
+		assertThat(series.needsBackfill()).isFalse();
+		series.shutdown();
+	}
+
+	// 분/시간대/요일 값이 모두 0 이상이고, 시간대별 합계와 요일별 합계가 전체 합계와 같아야 함
+	private static void assertConsistent(StudyTimeSeries series, String userId) {
+		double[] hours = series.hourOfDaySeconds(userId);
+		double[] weekdays = series.dayOfWeekSeconds(userId);
+		assertThat(Arrays.stream(hours).min().orElse(0)).isGreaterThanOrEqualTo(0);
+		assertThat(Arrays.stream(weekdays).min().orElse(0)).isGreaterThanOrEqualTo(0);
+		assertThat(Arrays.stream(series.dailySeconds(userId, LocalDate.now().minusDays(29), LocalDate.now())).min()
+				.orElse(0)).isGreaterThanOrEqualTo(0);
+		assertThat(Arrays.stream(hours).sum()).isCloseTo(series.totalSeconds(userId), within(0.001));
+		assertThat(Arrays.stream(weekdays).sum()).isCloseTo(series.totalSeconds(userId), within(0.001));
+	}
+
+	private StudyTimeSeries open() throws Exception {
+		StudyTimeSeries series = new StudyTimeSeries(true, directory.toString(), 30, 31, 60000);
+		series.open();
+		return series;
+	}
+}
@@ -0,0 +1,71 @@
+package com.tubestudy.tracker.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SubjectRangeIndexTests {
+
+	private static final String[] SUBJECTS = { "프로그래밍", "수학", "영어" };
+
+	@Test
+	void rangeSumsMatchANaiveScanAcrossYears() {
+		SubjectRangeIndex index = new SubjectRangeIndex();
+		Map<String, Map<Long, Double>> expected = new HashMap<>();
+		Random random = new Random(42);
+		LocalDate origin = LocalDate.of(2024, 6, 1);
+
+		// 처음 날짜를 기준으로 과거/미래 양쪽으로 넓어지도록 ±3년 안에서 더하고 빼기
+		for (int i = 0; i < 5000; i++) {
+			String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+			LocalDate date = origin.plusDays(random.nextInt(2200) - 1100);
+			double seconds = random.nextInt(10) == 0 ? -random.nextInt(30) : random.nextInt(3600);
+			index.add("alice", subject, date, seconds);
+			expected.computeIfAbsent(subject, key -> new HashMap<>()).merge(date.toEpochDay(), seconds, Double::sum);
+		}
+
+		for (int i = 0; i < 200; i++) {
+			LocalDate from = origin.plusDays(random.nextInt(2400) - 1200);
+			LocalDate to = from.plusDays(random.nextInt(800));
+			Map<String, Double> actual = index.sumBySubject("alice", from, to);
+			for (String subject : SUBJECTS) {
+				double naive = expected.getOrDefault(subject, Map.of()).entrySet().stream()
+						.filter(day -> day.getKey() >= from.toEpochDay() && day.getKey() <= to.toEpochDay())
+						.mapToDouble(Map.Entry::getValue)
+						.sum();
+				if (naive > 0) {
+					assertThat(actual.get(subject)).isCloseTo(naive, within(0.001));
+				} else {
+					assertThat(actual).doesNotContainKey(subject);
+				}
+			}
+		}
+		assertThat(index.sumBySubject("bob", origin, origin)).isEmpty();
+	}
+
+	@Test
+	void rebuildReplacesEveryUsersTrees() {
+		SubjectRangeIndex index = new SubjectRangeIndex();
+		LocalDate day = LocalDate.of(2025, 3, 10);
+		index.add("alice", "수학", day, 100);
+		index.add("bob", "영어", day, 50);
+
+		index.rebuild(List.of(
+				new SubjectRangeIndex.Row("alice", day, "수학", 30),
+				new SubjectRangeIndex.Row("alice", day.plusDays(1), "영어", 20)));
+
+		assertThat(index.sumBySubject("alice", day, day.plusDays(1))).containsOnly(
+				Map.entry("수학", 30.0), Map.entry("영어", 20.0));
+		assertThat(index.sumBySubject("bob", day, day)).isEmpty();
+
+		index.clear("alice");
+		assertThat(index.sumBySubject("alice", day, day.plusDays(1))).isEmpty();
+	}
+}
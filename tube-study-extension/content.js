@@ -3,11 +3,33 @@
 // 학습 진도 데이터를 추출하고 서버로 전송하는 스크립트
 // =======================================================
 
-// 마지막으로 서버에 전송했던 재생 위치 (초 단위)
-let lastSentProgress = 0; 
+// 재생 위치를 확인해 학습 시간을 쌓는 주기 (전송 주기와 무관하게 일정)
+const SAMPLE_INTERVAL_MS = 5000;
 
-// 마지막으로 서버에 전송했던 시점의 타임스탬프 (밀리초)
-let lastSentTimestamp = 0;
+// 서버가 다음 전송 시점(nextSyncAfterMs)을 주지 않았거나 서버에 연결할 수 없을 때의 전송 주기
+const DEFAULT_SYNC_INTERVAL_MS = 5000;
+
+// 서버 힌트를 따르더라도 지키는 전송 간격 범위
+const MIN_SYNC_INTERVAL_MS = 2000;
+const MAX_SYNC_INTERVAL_MS = 300000;
+
+// 마지막으로 재생 위치를 확인한 시점 { videoId, currentTime, timestamp }
+let lastSample = null;
+
+// 아직 서버에 보내지 않은 학습 시간 { data, studySeconds } (영상이 바뀌면 새로 만듦)
+let pending = null;
+
+// 영상이 바뀌어 더 쌓이지 않는 이전 영상의 학습 시간 (서버가 받았다고 응답할 때까지 남겨 두고 다시 보냄)
+const unsent = [];
+
+// 다음 전송 타이머
+let syncTimer = null;
+
+// 전송 중인지 (같은 학습 시간을 두 번 보내지 않도록 전송은 한 번에 하나만)
+let syncing = false;
+
+// 서버에 마지막으로 보낸 영상 정보 (같은 영상이면 다음 전송부터 제목/채널/길이를 생략)
+let sentMetadataKey = null;
 
 // 1. 유튜브 영상 관련 데이터를 추출하는 함수
 function getVideoData() {
@@ -42,96 +64,174 @@ function getVideoData() {
   };
 }
 
-// 2. 서버로 데이터 전송하는 함수 (async/await 및 응답 처리)
-// 2. 서버로 데이터 전송하는 함수 (async/await 및 응답 처리)
-async function sendDataToServer() {
+// 2. 재생 위치를 확인해 학습 시간을 쌓는 함수
+// 전송 간격이 길어져도 학습 시간이 정확하도록, 짧은 주기로 확인한 구간별 변화량만 더해 둡니다.
+// @returns {boolean} 영상이 재생 중인지 여부
+function sampleProgress() {
     const data = getVideoData(); // data 객체는 { videoId, title, channel, currentTime, duration, url } 포함
 
-    // 영상 ID와 길이가 있을 때만 서버로 전송
-    if (data.videoId && data.duration > 0) {
-        
-        // ----------------------------------------------------
-        // ✅ 1. 실제 시청 시간(accumulatedStudySeconds) 계산 로직 (핵심)
-        // ----------------------------------------------------
-        let accumulatedStudySeconds = 0;
-        
-        // **A. 초기화 및 첫 전송 처리**
-        if (lastSentProgress === 0) {
-            lastSentProgress = data.currentTime;
-            lastSentTimestamp = Date.now();
-            // 첫 전송은 학습 시간 누적 없이 현재 진도만 기록
-            accumulatedStudySeconds = 0; 
-        } else {
-            // **B. 누적 학습 시간 계산**
-            
-            // 실제 경과된 시간 (초)
-            const timeElapsed = (Date.now() - lastSentTimestamp) / 1000; 
-            
-            // 재생 위치의 변화량 (현재 위치 - 이전 전송 위치)
-            const progressChange = data.currentTime - lastSentProgress;
-            
-            // 🚨 유효성 검사: 시청으로 인정되는 조건
-            // 1. 앞으로 재생되었고 (progressChange > 0)
-            // 2. 변화량이 경과된 시간의 2.0배 이하여야 함 (배속 재생 및 작은 오차 허용)
-            if (progressChange > 0 && progressChange <= timeElapsed * 2.0) {
-                // 재생 위치의 변화량(progressChange)을 실제 학습 시간으로 간주
-                accumulatedStudySeconds = progressChange;
-            } else {
-                // 뒤로 감기, 앞으로 크게 건너뛰기, 탭 비활성화 등으로 인한 큰 시간차는 0으로 처리
-                accumulatedStudySeconds = 0; 
+    // 일시정지/영상 없음: 기준점은 그대로 두고 재생이 다시 시작되면 이어서 계산
+    if (!data.videoId || !(data.duration > 0)) {
+        return false;
+    }
+
+    // 영상이 바뀌면 이전 영상의 남은 학습 시간을 전송 대기열에 넣고 바로 전송 (새 영상도 바로 첫 전송)
+    if (pending && pending.data.videoId !== data.videoId) {
+        queueUnsent(pending);
+        pending = null;
+        lastSample = null;
+        scheduleSync(0);
+    }
+
+    if (!pending) {
+        pending = { data: data, studySeconds: 0 };
+    }
+
+    const now = Date.now();
+    if (lastSample && lastSample.videoId === data.videoId) {
+        // 실제 경과된 시간 (초)
+        const timeElapsed = (now - lastSample.timestamp) / 1000;
+
+        // 재생 위치의 변화량 (현재 위치 - 이전 확인 위치)
+        const progressChange = data.currentTime - lastSample.currentTime;
+
+        // 🚨 유효성 검사: 시청으로 인정되는 조건
+        // 1. 앞으로 재생되었고 (progressChange > 0)
+        // 2. 변화량이 경과된 시간의 2.0배 이하여야 함 (배속 재생 및 작은 오차 허용)
+        // 뒤로 감기, 앞으로 크게 건너뛰기 등은 이 구간만 0으로 처리
+        if (progressChange > 0 && progressChange <= timeElapsed * 2.0) {
+            pending.studySeconds += progressChange;
+        }
+    }
+
+    pending.data = data;
+    lastSample = { videoId: data.videoId, currentTime: data.currentTime, timestamp: now };
+    return true;
+}
+
+// 같은 영상이 대기열에 있으면 합쳐서 한 번에 보냄 (오프라인 중 영상을 오가도 대기열이 영상 수 이상 늘지 않음)
+function queueUnsent(entry) {
+    const queued = unsent.find((item) => item.data.videoId === entry.data.videoId);
+    if (queued) {
+        queued.studySeconds += entry.studySeconds;
+        queued.data = entry.data;
+    } else {
+        unsent.push(entry);
+    }
+}
+
+// 3. 서버로 데이터 전송하는 함수 (async/await 및 응답 처리)
+// @returns {{acknowledged: boolean, nextSyncAfterMs: number|null}} 서버가 반영했는지, 서버가 정한 다음 전송까지의 시간 (ms)
+async function sendDataToServer(entry) {
+    const data = entry.data;
+    // 보내는 동안 쌓인 시간은 다음 전송으로 넘기도록 이번에 보낸 양만 기억
+    const accumulatedStudySeconds = entry.studySeconds;
+
+    // ----------------------------------------------------
+    // 압축 하트비트 (서버 CompactHeartbeatDto 형식)
+    // v: videoId, p: 재생 위치, a: 지난 전송 이후 실제로 시청한 시간
+    // t/c/d(제목/채널/길이)는 영상의 첫 전송이나 바뀌었을 때만 포함
+    // ----------------------------------------------------
+    const metadataKey = [data.videoId, data.title, data.channel, data.duration].join("\n");
+    const heartbeat = {
+        v: data.videoId,
+        p: data.currentTime,
+        a: accumulatedStudySeconds
+    };
+    if (metadataKey !== sentMetadataKey) {
+        heartbeat.t = data.title;
+        heartbeat.c = data.channel;
+        heartbeat.d = data.duration;
+    }
+
+    // 디버깅을 위한 콘솔 로그 (서버 전송 확인용)
+    console.log(
+        `[TubeStudy] 전송 중: ${data.title} | ${Math.floor(data.currentTime)}/${Math.floor(data.duration)}s | 학습 시간: ${accumulatedStudySeconds.toFixed(2)}s`
+    );
+
+    try {
+        // 포트 18085로 전송
+        const response = await fetch("http://localhost:18085/api/tracker/sync/compact", {
+            method: "POST",
+            headers: { "Content-Type": "application/json" },
+            body: JSON.stringify(heartbeat),
+        });
+
+        if (response.ok) {
+            const syncResponse = await response.json();
+
+            // 서버가 영상 정보를 모르면(서버 재시작 등) 저장되지 않았으므로 영상 정보를 포함해 바로 다시 전송
+            if (syncResponse.metadataRequired) {
+                sentMetadataKey = null;
+                return { acknowledged: false, nextSyncAfterMs: 0 };
             }
+
+            // 서버에 반영된 만큼만 차감 (실패하면 다음 전송에 함께 보냄)
+            entry.studySeconds -= accumulatedStudySeconds;
+            sentMetadataKey = metadataKey;
+
+            // 딴짓 방지 로직 실행
+            if (syncResponse.requiresNotification) {
+                console.warn(
+                    `[TubeStudy] 딴짓 감지! 메시지: ${syncResponse.message}`
+                );
+                showDistractionAlert(syncResponse.message);
+            }
+            return { acknowledged: true, nextSyncAfterMs: syncResponse.nextSyncAfterMs || null };
+        } else {
+            console.error("서버 응답 오류:", response.status);
         }
-        
-        // ----------------------------------------------------
-        // 2. 서버 DTO 형식에 맞춰 객체 생성
-        // ----------------------------------------------------
-        const progressDto = {
-            videoId: data.videoId,
-            title: data.title,
-            channel: data.channel,
-            totalDurationSeconds: data.duration, // 서버 필드명에 맞게 변경
-            lastProgressSeconds: data.currentTime, // 서버 필드명에 맞게 변경
-            // ✅ 새로 추가된 필드: 이번 동기화 간격 동안 실제로 시청한 시간
-            accumulatedStudySeconds: accumulatedStudySeconds 
-        };
-
-        // 디버깅을 위한 콘솔 로그 (서버 전송 확인용)
-        console.log(
-            `[TubeStudy] 전송 중: ${progressDto.title} | ${Math.floor(progressDto.lastProgressSeconds)}/${Math.floor(progressDto.totalDurationSeconds)}s | 학습 시간: ${accumulatedStudySeconds.toFixed(2)}s`
-        );
-        
-        try {
-            // 포트 18085로 전송
-            const response = await fetch("http://localhost:18085/api/tracker/sync", {
-                method: "POST",
-                headers: { "Content-Type": "application/json" },
-                body: JSON.stringify(progressDto), // 수정된 DTO 전송
-            });
-
-            if (response.ok) {
-                const syncResponse = await response.json();
-
-                // 딴짓 방지 로직 실행
-                if (syncResponse.requiresNotification) {
-                    console.warn(
-                        `[TubeStudy] 딴짓 감지! 메시지: ${syncResponse.message}`
-                    );
-                    showDistractionAlert(syncResponse.message);
-                }
-            } else {
-                console.error("서버 응답 오류:", response.status);
+    } catch (err) {
+        // 서버 오프라인: 학습 시간은 그대로 남겨 두고 다음 전송에서 다시 보냄
+    }
+    return { acknowledged: false, nextSyncAfterMs: null };
+}
+
+// 서버가 영상 정보를 요구하면 영상 정보를 포함해 한 번 더 보냄
+async function sendWithMetadataRetry(entry) {
+    const result = await sendDataToServer(entry);
+    if (!result.acknowledged && result.nextSyncAfterMs === 0) {
+        return sendDataToServer(entry);
+    }
+    return result;
+}
+
+// 4. 서버가 정한 시점에 전송하고 다음 전송을 예약하는 함수
+async function syncNow() {
+    if (syncing) {
+        return; // 진행 중인 전송이 끝나면서 다음 전송을 예약함
+    }
+    syncing = true;
+    let nextSyncAfterMs = null;
+    try {
+        const playing = sampleProgress();
+
+        // 이전 영상의 학습 시간부터 순서대로 보내고, 서버가 받은 것만 대기열에서 뺌 (실패하면 다음 전송에서 다시)
+        while (unsent.length > 0) {
+            const result = await sendWithMetadataRetry(unsent[0]);
+            if (!result.acknowledged) {
+                return;
             }
-        } catch (err) {
-            // 서버 오프라인 에러 무시
+            unsent.shift();
         }
 
-        // 3. 다음 동기화를 위해 현재 상태를 저장
-        lastSentProgress = data.currentTime;
-        lastSentTimestamp = Date.now();
+        // 재생 중이거나, 일시정지 전에 쌓인 학습 시간이 남아 있으면 전송
+        if (pending && (playing || pending.studySeconds > 0)) {
+            nextSyncAfterMs = (await sendWithMetadataRetry(pending)).nextSyncAfterMs;
+        }
+    } finally {
+        syncing = false;
+        scheduleSync(nextSyncAfterMs ?? DEFAULT_SYNC_INTERVAL_MS);
     }
 }
 
-// 3. 경고 메시지를 유튜브 페이지에 직접 삽입하는 함수 + 음성 알림
+function scheduleSync(delayMs) {
+    clearTimeout(syncTimer);
+    const delay = Math.min(MAX_SYNC_INTERVAL_MS, Math.max(delayMs === 0 ? 0 : MIN_SYNC_INTERVAL_MS, delayMs));
+    syncTimer = setTimeout(syncNow, delay);
+}
+
+// 5. 경고 메시지를 유튜브 페이지에 직접 삽입하는 함수 + 음성 알림
 function showDistractionAlert(message) {
   // 1. 기존 알림이 있다면 제거
   let existingAlert = document.getElementById("tubestudy-alert");
@@ -192,6 +292,13 @@ function playVoiceAlert(message) {
   }
 }
 
-// 4. 5초마다 데이터 전송 로직 실행
-// 이 주기는 서버의 누적 학습 시간 계산 로직(15초 이내)과 연관되어 있습니다.
-setInterval(sendDataToServer, 5000); // 5000ms = 5초
+// 6. 재생 위치는 일정한 주기로 확인하고, 전송은 서버가 응답으로 정한 간격(nextSyncAfterMs)을 따름
+setInterval(sampleProgress, SAMPLE_INTERVAL_MS);
+scheduleSync(DEFAULT_SYNC_INTERVAL_MS);
+
+// 탭을 떠날 때는 쌓인 학습 시간을 바로 전송
+document.addEventListener("visibilitychange", () => {
+  if (document.hidden) {
+    scheduleSync(0);
+  }
+});